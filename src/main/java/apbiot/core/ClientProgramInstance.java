@@ -1,5 +1,6 @@
 package apbiot.core;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -23,8 +24,10 @@ import apbiot.core.handler.HandlerPreProcessingException;
 import apbiot.core.modules.BaseCoreModuleType;
 import apbiot.core.modules.CoreModule;
 import apbiot.core.modules.CoreModuleType;
+import apbiot.core.pems.AsyncEventBus;
 import apbiot.core.pems.BaseProgramEventEnum;
 import apbiot.core.pems.ProgramEventManager;
+import apbiot.core.pems.journal.EventJournal;
 import marshmalliow.core.builder.DotenvManager;
 
 public class ClientProgramInstance {
@@ -36,6 +39,7 @@ public class ClientProgramInstance {
 	
 	private final Map<CoreModuleType, CoreModule> activeModules = new LinkedHashMap<>();
 	private final Map<Class<? extends Handler>, Handler> activeHandlers;
+	private final EventJournal eventJournal;
 		
 	private ClientProgramInstance(ClientProgramInstance.Builder builder) {
 		System.out.println("Booting up system...");
@@ -43,6 +47,10 @@ public class ClientProgramInstance {
 		DotenvManager.get().addSystemEnvironment(); //We prepare the DotenvManager and add system environment variables
 		
 		ProgramEventManager.get(); //Init PEMS
+		if(builder.asyncEventBus != null) ProgramEventManager.get().enableAsynchronousDelivery(builder.asyncEventBus);
+		
+		this.eventJournal = builder.eventJournal;
+		if(this.eventJournal != null) ProgramEventManager.get().addNewListener(this.eventJournal);
 		
 		for(CoreModule m : builder.activeModules) {
 			activeModules.put(m.getType(), m);
@@ -168,6 +176,11 @@ public class ClientProgramInstance {
 		public void run() {
 			
 			ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.CORE_MODULE_SHUTDOWN_EVENT);
+			//Deliver the queued events while the modules are still running
+			if(!ProgramEventManager.get().disableAsynchronousDelivery(Duration.ofSeconds(5))) {
+				LOGGER.warn("Some program events couldn't be delivered before shutting down.");
+			}
+			
 			for(CoreModule cm : activeModules.values()) {
 				try {
 					LOGGER.info("Shutting down Core Module {}...",cm.getType().getName());
@@ -177,6 +190,11 @@ public class ClientProgramInstance {
 				}
 			}
 						
+			if(eventJournal != null) {
+				ProgramEventManager.get().removeListener(eventJournal);
+				eventJournal.close();
+			}
+			
 			LOGGER.info("All Core Modules have been shutdown. Bye.");
 		}
 	}
@@ -189,6 +207,8 @@ public class ClientProgramInstance {
 		
 		private final Set<CoreModule> activeModules = new TreeSet<>();
 		private final Set<Handler> activeHandlers = new HashSet<>();
+		private AsyncEventBus asyncEventBus;
+		private EventJournal eventJournal;
 		
 		private Builder() { }
 		
@@ -212,6 +232,30 @@ public class ClientProgramInstance {
 			return this;
 		}
 		
+		/**
+		 * Deliver the program events asynchronously, the lifecycle events are still delivered synchronously
+		 * @param bus The bus delivering the events
+		 * @return this builder
+		 * @see ProgramEventManager#enableAsynchronousDelivery(AsyncEventBus)
+		 * @since 6.3.0
+		 */
+		public Builder withAsyncEventBus(AsyncEventBus bus) {
+			this.asyncEventBus = bus;
+			return this;
+		}
+		
+		/**
+		 * Write the program events in a journal, closed when the program is shut down
+		 * @param journal The journal
+		 * @return this builder
+		 * @see EventJournal
+		 * @since 6.3.0
+		 */
+		public Builder withEventJournal(EventJournal journal) {
+			this.eventJournal = journal;
+			return this;
+		}
+		
 		public ClientProgramInstance build() {
 			return new ClientProgramInstance(this);
 		}
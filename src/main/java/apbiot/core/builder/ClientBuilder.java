@@ -2,11 +2,15 @@ package apbiot.core.builder;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -16,42 +20,65 @@ import apbiot.core.command.ApplicationCommandInstance;
 import apbiot.core.command.ComponentCommandInstance;
 import apbiot.core.command.NativeCommandInstance;
 import apbiot.core.command.SlashCommandInstance;
-import apbiot.core.command.UserCommandCooldown;
+import apbiot.core.command.autocomplete.AutocompleteRegistry;
 import apbiot.core.command.informations.GatewayApplicationCommandPacket;
 import apbiot.core.command.informations.GatewayComponentCommandPacket;
 import apbiot.core.command.informations.GatewayNativeCommandPacket;
+import apbiot.core.command.informations.NativeCommandTokens;
 import apbiot.core.commandator.Commandator;
 import apbiot.core.commandator.CommandatorEntry;
+import apbiot.core.cooldown.CooldownBackend;
+import apbiot.core.cooldown.CooldownStore;
+import apbiot.core.dispatch.AdmissionController;
+import apbiot.core.dispatch.AdmissionController.ShedReason;
+import apbiot.core.dispatch.CommandExecutor;
+import apbiot.core.dispatch.CommandLanes;
+import apbiot.core.dispatch.CommandRoutingTable;
+import apbiot.core.dispatch.CommandWatchdog;
+import apbiot.core.dispatch.DispatchMetrics;
+import apbiot.core.dispatch.DispatchStage;
 import apbiot.core.exceptions.UnbuiltBotException;
 import apbiot.core.handler.AbstractCommandHandler;
-import apbiot.core.helper.ArgumentHelper;
 import apbiot.core.helper.CommandHelper;
 import apbiot.core.helper.CooldownHelper;
 import apbiot.core.helper.PermissionHelper;
 import apbiot.core.helper.StringHelper;
-import apbiot.core.objects.Tuple;
 import apbiot.core.objects.enums.ApplicationCommandType;
 import apbiot.core.objects.interfaces.IGatewayInformations;
 import apbiot.core.pems.BaseProgramEventEnum;
 import apbiot.core.pems.ProgramEventManager;
 import apbiot.core.pems.actions.CommandRebuildAction.CommandRebuildScope;
+import apbiot.core.pems.events.CommandErrorEvent;
+import apbiot.core.pems.events.CommandListBuildEvent;
+import apbiot.core.pems.events.CommandReceivedEvent;
+import apbiot.core.permissions.MemberPermissionCache;
+import apbiot.core.time.CommandCooldown;
 import apbiot.core.utils.Emojis;
 import discord4j.common.util.Snowflake;
 import discord4j.core.DiscordClient;
 import discord4j.core.GatewayDiscordClient;
 import discord4j.core.event.domain.Event;
 import discord4j.core.event.domain.interaction.ApplicationCommandInteractionEvent;
+import discord4j.core.event.domain.interaction.ChatInputAutoCompleteEvent;
 import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
 import discord4j.core.event.domain.interaction.ComponentInteractionEvent;
+import discord4j.core.event.domain.interaction.DeferrableInteractionEvent;
+import discord4j.core.event.domain.interaction.InteractionCreateEvent;
 import discord4j.core.event.domain.interaction.MessageInteractionEvent;
 import discord4j.core.event.domain.interaction.UserInteractionEvent;
 import discord4j.core.event.domain.message.MessageCreateEvent;
+import discord4j.core.object.command.ApplicationCommandInteractionOption;
+import discord4j.core.object.command.ApplicationCommandInteractionOptionValue;
+import discord4j.core.object.entity.Member;
 import discord4j.core.object.entity.User;
 import discord4j.core.object.entity.channel.MessageChannel;
 import discord4j.core.object.presence.ClientPresence;
 import discord4j.core.shard.GatewayBootstrap;
 import discord4j.gateway.intent.IntentSet;
 import discord4j.rest.http.client.ClientException;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Mono;
 
 /**
  * Class that handle the bot instance. <br/>
@@ -65,36 +92,55 @@ public class ClientBuilder {
 
 	private static final Logger LOGGER = LogManager.getLogger(ClientBuilder.class);
 	
+	private static final int DEFAULT_DISPATCH_CONCURRENCY = 256;
+	private static final int DEFAULT_DISPATCH_BUFFER_SIZE = 4096;
+	private static final int DEFAULT_LANE_SIZE = 256;
+	private static final Duration EXECUTOR_DRAIN_TIMEOUT = Duration.ofSeconds(10);
+	
+	private static final String BUSY_MESSAGE = Emojis.TOOLS+" Le bot est surchargé... Veuillez réessayer ultérieurement.";
+	
 	private GatewayDiscordClient gateway;
+	private Disposable permissionCacheBinding;
 	private ReentrantLock lock = new ReentrantLock();
-	private boolean isReady = false;
+	private volatile boolean isReady = false;
 	
 	private String botPrefix;
 	private Snowflake ownerID;
+	private Snowflake selfId;
+	
+	private int dispatchConcurrency = DEFAULT_DISPATCH_CONCURRENCY;
+	private int dispatchBufferSize = DEFAULT_DISPATCH_BUFFER_SIZE;
 
-	//Compilated Command Map and Slash Command Map
-	private Map<String, NativeCommandInstance> NATIVE_COMMANDS;
-	private Map<String, SlashCommandInstance> SLASH_COMMANDS;
-	//Compilated User and Message Commands
-	private Map<String, ApplicationCommandInstance> APPLICATION_COMMANDS;
-	//Compilated Component Commands
-	private Map<String, ComponentCommandInstance> COMPONENT_COMMANDS;
-	
-	private List<UserCommandCooldown> commandCooldown;
+	//Compilated Native, Slash, User, Message and Component Commands. Read without lock by the listeners
+	private final AtomicReference<CommandRoutingTable> routingTable = new AtomicReference<>();
+	
+	private CooldownBackend cooldownBackend;
 	private Commandator commandator;
 	
+	private CommandExecutor commandExecutor;
+	private CommandLanes commandLanes;
+	private AdmissionController admissionController;
+	private CommandWatchdog commandWatchdog;
+	
 	/**
 	 * Create a discord client with DiscordClientBuilder
 	 */
 	public void createNewInstance() {
 		try {
 			this.lock.lock();
-			this.commandCooldown = new ArrayList<>();
+			if(this.cooldownBackend == null) this.cooldownBackend = new CooldownStore();
+			if(this.commandExecutor == null) this.commandExecutor = CommandExecutor.builder().build();
+			if(this.admissionController == null) this.admissionController = AdmissionController.builder().build();
+			if(this.commandWatchdog == null) {
+				//Half of the workers at most for a single command, whatever the concurrency of the executor
+				this.commandWatchdog = CommandWatchdog.builder().defaultMaxConcurrentExecutions(Math.max(1, this.commandExecutor.getMaxConcurrency() / 2)).build();
+			}else if(this.commandWatchdog.getDefaultMaxConcurrentExecutions() >= this.commandExecutor.getMaxConcurrency()) {
+				LOGGER.warn("The default maximum of concurrent executions of the watchdog ({}) isn't below the concurrency of the executor ({}), a single command can take every worker",
+						this.commandWatchdog.getDefaultMaxConcurrentExecutions(), this.commandExecutor.getMaxConcurrency());
+			}
+			this.commandLanes = new CommandLanes(this.commandExecutor, DEFAULT_LANE_SIZE);
 			
-			this.NATIVE_COMMANDS = new HashMap<>();
-			this.SLASH_COMMANDS = new HashMap<>();
-			this.APPLICATION_COMMANDS = new HashMap<>();
-			this.COMPONENT_COMMANDS = new HashMap<>();
+			this.routingTable.set(CommandRoutingTable.EMPTY);
 		}finally {
 			this.lock.unlock();
 		}
@@ -114,26 +160,45 @@ public class ClientBuilder {
 	}
 	
 	public void updateNativeCommandMapping(Optional<Map<String, NativeCommandInstance>> mapping) {
-		if(mapping.isPresent()) this.NATIVE_COMMANDS = mapping.get();
+		if(mapping.isPresent()) publishRoutingTable(routes -> routes.withNativeCommands(mapping.get()));
 	}
 	
 	public void updateSlashCommandMapping(Optional<Map<String, SlashCommandInstance>> mapping) {
-		if(mapping.isPresent()) this.SLASH_COMMANDS = mapping.get();
+		if(mapping.isPresent()) publishRoutingTable(routes -> routes.withSlashCommands(mapping.get()));
 	}
 	
 	public void updateApplicationCommandMapping(Optional<Map<String, ApplicationCommandInstance>> mapping) {
-		if(mapping.isPresent()) this.APPLICATION_COMMANDS = mapping.get();
+		if(mapping.isPresent()) publishRoutingTable(routes -> routes.withApplicationCommands(mapping.get()));
 	}
 
 	public void updateComponentCommandMapping(Optional<Map<String, ComponentCommandInstance>> mapping) {
-		if (mapping.isPresent()) this.COMPONENT_COMMANDS = mapping.get();
+		if (mapping.isPresent()) publishRoutingTable(routes -> routes.withComponentCommands(mapping.get()));
+	}
+	
+	/**
+	 * Atomically replace the {@link CommandRoutingTable} used by the listeners
+	 * @param update The function creating the new table from the current one
+	 * @return the published table
+	 */
+	private CommandRoutingTable publishRoutingTable(UnaryOperator<CommandRoutingTable> update) {
+		return this.routingTable.updateAndGet(routes -> update.apply(routes == null ? CommandRoutingTable.EMPTY : routes));
+	}
+	
+	/**
+	 * Get the {@link CommandRoutingTable} currently used by the listeners
+	 * @return the current routing table or {@link CommandRoutingTable#EMPTY} if the instance hasn't been created
+	 */
+	public CommandRoutingTable getRoutingTable() {
+		final CommandRoutingTable routes = this.routingTable.get();
+		return routes == null ? CommandRoutingTable.EMPTY : routes;
 	}
 	
 	public void rebuildCommandMapping(CommandRebuildScope scope) {
 		final List<String> errors = new ArrayList<String>();
+		final CommandRoutingTable routes = getRoutingTable();
 		
 		if(scope == CommandRebuildScope.ONLY_NATIVE || scope == CommandRebuildScope.BOTH_NATIVE_SLASH || scope == CommandRebuildScope.ALL) {
-			this.NATIVE_COMMANDS.values().forEach(cmd -> {
+			routes.getNativeCommands().values().forEach(cmd -> {
 				try {
 					cmd.buildCommand();
 				}catch(Exception e) {
@@ -144,7 +209,7 @@ public class ClientBuilder {
 		
 		if(scope == CommandRebuildScope.ONLY_SLASH || scope == CommandRebuildScope.BOTH_NATIVE_SLASH || 
 				scope == CommandRebuildScope.BOTH_SLASH_APPLICATION || scope == CommandRebuildScope.ALL) {
-			this.SLASH_COMMANDS.values().forEach(cmd -> {
+			routes.getSlashCommands().values().forEach(cmd -> {
 				try {
 					cmd.buildCommand();
 				}catch(Exception e) {
@@ -154,7 +219,7 @@ public class ClientBuilder {
 		}
 		
 		if(scope == CommandRebuildScope.ONLY_APPLICATION || scope == CommandRebuildScope.BOTH_SLASH_APPLICATION || scope == CommandRebuildScope.ALL) {
-			this.NATIVE_COMMANDS.values().forEach(cmd -> {
+			routes.getApplicationCommands().values().forEach(cmd -> {
 				try {
 					cmd.buildCommand();
 				}catch(Exception e) {
@@ -164,7 +229,7 @@ public class ClientBuilder {
 		}
 		
 		if (scope == CommandRebuildScope.ONLY_COMPONENT || scope == CommandRebuildScope.ALL) {
-			this.COMPONENT_COMMANDS.values().forEach(cmd -> {
+			routes.getComponentCommands().values().forEach(cmd -> {
 				try {
 					cmd.buildCommand();
 				} catch (Exception e) {
@@ -172,32 +237,57 @@ public class ClientBuilder {
 				}
 			});
 		}
+		
+		//Publish a new snapshot so the listeners observe the rebuilt commands
+		publishRoutingTable(CommandRoutingTable::republish);
 
-		ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.COMMAND_LIST_BUILD, new Object[] {errors.toArray(), scope});
+		ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.COMMAND_LIST_BUILD, new CommandListBuildEvent(errors.toArray(String[]::new), scope));
+	}
+	
+	/**
+	 * Subscribe to an event emitted by the gateway.<br/>
+	 * Events are buffered up to {@link #dispatchBufferSize} when the handlers cannot keep up (the oldest events are dropped first)
+	 * and at most {@link #dispatchConcurrency} events are handled at the same time.
+	 * @param <E> The type of the event
+	 * @param eventClass The class of the event
+	 * @param handler The non-blocking handler of the event
+	 */
+	private <E extends Event> void subscribeEvent(Class<E> eventClass, Function<E, Mono<Void>> handler) {
+		gateway.on(eventClass)
+			.onBackpressureBuffer(this.dispatchBufferSize, 
+					dropped -> LOGGER.warn("Dispatch buffer is full, dropping {}", eventClass.getSimpleName()), 
+					BufferOverflowStrategy.DROP_OLDEST)
+			.flatMap(event -> handler.apply(event)
+					.onErrorResume(e -> {
+						LOGGER.error("Unexpected error while handling {}", eventClass.getSimpleName(), e);
+						return Mono.empty();
+					}), this.dispatchConcurrency)
+			.subscribe();
 	}
 	
 	private void createComponentListener() {
-		gateway.on(ComponentInteractionEvent.class).subscribe(event -> {
-			final AbstractCommandInstance cmd = searchCommandId(event.getCustomId());
-			if(cmd == null) {
-				event.reply(Emojis.EXCLAMATION+" An error has occured, please contact the administrator.").block();
-				return;
-			}
-				
-			final String discordCompoId = CommandHelper.getComponentID(event.getCustomId());
-			if(discordCompoId == null) {
-				event.reply(Emojis.EXCLAMATION+" An error has occured, please contact the administrator.").block();
-				return;
-			}
-				
-			new Thread(new Runnable() {
-
-				@Override
-				public void run() {
-					cmd.executeComponent(generateNewComponentInformations(event, discordCompoId));
-				}
-				
-			}).start();
+		subscribeEvent(ComponentInteractionEvent.class, this::handleComponentInteraction);
+	}
+	
+	private Mono<Void> handleComponentInteraction(ComponentInteractionEvent event) {
+		final AbstractCommandInstance cmd = this.routingTable.get().findById(event.getCustomId());
+		if(cmd == null) {
+			return event.reply(Emojis.EXCLAMATION+" An error has occured, please contact the administrator.");
+		}
+			
+		final String discordCompoId = CommandHelper.getComponentID(event.getCustomId());
+		if(discordCompoId == null) {
+			return event.reply(Emojis.EXCLAMATION+" An error has occured, please contact the administrator.");
+		}
+		
+		if(this.admissionController.tryAdmit(event.getInteraction().getGuildId()).isPresent()) {
+			return event.reply(BUSY_MESSAGE).withEphemeral(true);
+		}
+		
+		return event.getInteraction().getChannel().flatMap(channel -> {
+			final GatewayComponentCommandPacket packet = new GatewayComponentCommandPacket(event, discordCompoId, event.getInteraction().getUser(), channel);
+			
+			return dispatchCommandTask(cmd, null, getLaneKey(cmd, event, channel), () -> cmd.executeComponent(packet)) ? Mono.empty() : sendBusyMessage(event, channel);
 		});
 	}
 	
@@ -205,52 +295,61 @@ public class ClientBuilder {
 	 * Manage to get all the messages from servers and handle they
 	 */
 	private void createNativeCommandListener() {
-		gateway.on(MessageCreateEvent.class).subscribe(event -> {
-			final String content = event.getMessage().getContent();
+		subscribeEvent(MessageCreateEvent.class, this::handleNativeCommand);
+	}
+	
+	private Mono<Void> handleNativeCommand(MessageCreateEvent event) {
+		final String content = event.getMessage().getContent();
+		
+		if(content.isBlank() || content.isEmpty() || !content.startsWith(botPrefix)) return Mono.empty();
+		
+		final Optional<User> author = event.getMessage().getAuthor();
+		if(author.isEmpty() || author.get().getId().equals(this.selfId)) return Mono.empty();
+		
+		final User user = author.get();
+		final CommandRoutingTable routes = this.routingTable.get();
+		return event.getMessage().getChannel().flatMap(channel -> {
+			if(routes.isEmpty(ApplicationCommandType.NATIVE) || !isReady) {
+				return channel.createMessage(Emojis.TOOLS+" Le bot est encore en chargement... Veuillez réessayer ultérieurement.").then();
+			}
 			
-			if(content.isBlank() || content.isEmpty() || !content.startsWith(botPrefix)) return;
-			if((event.getMessage().getAuthor().get().getId().compareTo(gateway.getApplicationInfo().block().getId()) == 0)) return;
+			final long parseStart = System.nanoTime();
+			final NativeCommandTokens tokens = NativeCommandTokens.parse(content, this.botPrefix);
+			final long lookupStart = System.nanoTime();
+			final AbstractCommandInstance cmd = routes.findByName(tokens.getCommandName(), ApplicationCommandType.NATIVE);
 			
-			try {
-				this.lock.lock();
-				
-				if(NATIVE_COMMANDS.isEmpty() || !isReady) {
-					event.getMessage().getChannel().block().createMessage(Emojis.TOOLS+" Le bot est encore en chargement... Veuillez réessayer ultérieurement.").block();
-					return;
-				}
-				
-				final MessageChannel channel = event.getMessage().getChannel().block();		
-				final Tuple<String, Boolean> userCommand = CommandHelper.getCommandFromUserInput(content.split(" "), this.botPrefix);
-				final AbstractCommandInstance cmd = searchCommandResult(userCommand.getValueA(), ApplicationCommandType.NATIVE);
-	
-				if(userCommand.isTupleEmpty() || cmd == null) {
-					handleUnknownCommand(userCommand.getValueA(), event.getMember().get(), channel);
-					return;
-				}
-	
-				ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.COMMAND_RECEIVED, new Object[] {
-						StringHelper.getRawCharacterString(event.getMessage().getAuthor().get().getUsername()), 
-						userCommand.getValueA(),
-						channel.getType(), 
-						ApplicationCommandType.NATIVE});
-				
-				if(CooldownHelper.canExecuteCommand(commandCooldown, event.getMessage().getAuthor().get(), channel)) {
-					this.commandCooldown = CooldownHelper.wipeNullInstance(commandCooldown);
-					
-					if(!PermissionHelper.isServerEnvironnment(channel.getType())) {
-						if(cmd.getPermissions() == null && !cmd.isServerOnly()) {
-							handleNewCommandWithoutPermission(cmd, generateNewNativeCommandPacket(event, userCommand), ApplicationCommandType.NATIVE);
-							
-						}else {
-							new TimedMessage(channel.createMessage(Emojis.NO_ENTRY+" Vous ne pouvez pas éxécuter cette commande ici !").block())
-							.setDelayedDelete(Duration.ofSeconds(5), true);
-						}
-					}else {
-						handleNewCommand(cmd, generateNewNativeCommandPacket(event, userCommand), ApplicationCommandType.NATIVE);
-					}	
+			final String metricName = cmd == null ? DispatchMetrics.UNKNOWN_COMMAND : cmd.getInternalName();
+			DispatchMetrics.get().record(metricName, ApplicationCommandType.NATIVE, DispatchStage.PARSE, lookupStart - parseStart);
+			DispatchMetrics.get().recordSince(metricName, ApplicationCommandType.NATIVE, DispatchStage.LOOKUP, lookupStart);
+			
+			if(cmd == null) {
+				return recordReply(metricName, ApplicationCommandType.NATIVE, handleUnknownCommand(tokens.getCommandName(), user, channel));
+			}
+			
+			if(this.admissionController.tryAdmit(event.getGuildId()).isPresent()) {
+				return recordReply(metricName, ApplicationCommandType.NATIVE, sendBusyMessage(event, channel));
+			}
+			
+			ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.COMMAND_RECEIVED, new CommandReceivedEvent(
+					StringHelper.getRawCharacterString(user.getUsername()), 
+					tokens.getCommandName(),
+					channel.getType(), 
+					ApplicationCommandType.NATIVE));
+			
+			final long cooldown = acquireCooldown(cmd, user, ApplicationCommandType.NATIVE);
+			if(cooldown > 0) return recordReply(metricName, ApplicationCommandType.NATIVE, sendCooldownMessage(cooldown, channel));
+			
+			final GatewayNativeCommandPacket packet = new GatewayNativeCommandPacket(event, user, channel, tokens, botPrefix);
+			if(!PermissionHelper.isServerEnvironnment(channel.getType())) {
+				if(cmd.getPermissions() == null && !cmd.isServerOnly()) {
+					return handleNewCommandWithoutPermission(cmd, packet, ApplicationCommandType.NATIVE);
+				}else {
+					releaseCooldown(cmd, user);
+					return new TimedMessage(channel.createMessage(Emojis.NO_ENTRY+" Vous ne pouvez pas éxécuter cette commande ici !"))
+							.withDelayedDelete(Duration.ofSeconds(5)).then();
 				}
-			}finally {
-				this.lock.unlock();
+			}else {
+				return handleNewCommand(cmd, packet, Mono.justOrEmpty(event.getMember()), ApplicationCommandType.NATIVE);
 			}
 		});
 	}
@@ -260,242 +359,340 @@ public class ClientBuilder {
 	 * The two types of command are handled separately
 	 */
 	private void createApplicationCommandListener() {
-		gateway.on(ChatInputInteractionEvent.class).subscribe(event -> {
-			setupApplicationCommandListener(event, ApplicationCommandType.CHAT_INPUT);
-		});
+		subscribeEvent(ChatInputInteractionEvent.class, event -> handleApplicationCommand(event, ApplicationCommandType.CHAT_INPUT));
+		subscribeEvent(UserInteractionEvent.class, event -> handleApplicationCommand(event, ApplicationCommandType.USER));
+		subscribeEvent(MessageInteractionEvent.class, event -> handleApplicationCommand(event, ApplicationCommandType.MESSAGE));
+		subscribeEvent(ChatInputAutoCompleteEvent.class, this::handleAutocomplete);
+	}
 	
-		gateway.on(UserInteractionEvent.class).subscribe(event -> {
-			setupApplicationCommandListener(event, ApplicationCommandType.USER);
-		});
+	/**
+	 * Answer the autocomplete requests of the slash command options from the {@link AutocompleteRegistry}.<br/>
+	 * The choices are computed on the gateway thread, the sources are in memory
+	 */
+	private Mono<Void> handleAutocomplete(ChatInputAutoCompleteEvent event) {
+		final CommandRoutingTable routes = this.routingTable.get();
+		final AbstractCommandInstance cmd = isReady ? routes.findByName(event.getCommandName(), ApplicationCommandType.CHAT_INPUT) : null;
+		if(cmd == null) return event.respondWithSuggestions(List.of());
 		
-		gateway.on(MessageInteractionEvent.class).subscribe(event -> {
-			setupApplicationCommandListener(event, ApplicationCommandType.MESSAGE);
-		});
+		final StringBuilder path = new StringBuilder();
+		final ApplicationCommandInteractionOption focused = findFocusedOption(event.getOptions(), path);
+		if(focused == null) return event.respondWithSuggestions(List.of());
 		
+		final String prefix = focused.getValue().map(ApplicationCommandInteractionOptionValue::getRaw).orElse("");
+		return event.respondWithSuggestions(AutocompleteRegistry.get().complete(cmd.getInternalName(), path.toString(), prefix));
+	}
+	
+	/**
+	 * Find the option focused by the user and append its path, the names of its parent options and its name separated by dots
+	 * @return the focused option or null if none is focused
+	 */
+	private ApplicationCommandInteractionOption findFocusedOption(List<ApplicationCommandInteractionOption> options, StringBuilder path) {
+		for(ApplicationCommandInteractionOption option : options) {
+			final int length = path.length();
+			if(length > 0) path.append('.');
+			path.append(option.getName());
+			
+			if(option.isFocused()) return option;
+			
+			final ApplicationCommandInteractionOption focused = findFocusedOption(option.getOptions(), path);
+			if(focused != null) return focused;
+			path.setLength(length);
+		}
+		return null;
 	}
 	
-	private void setupApplicationCommandListener(ApplicationCommandInteractionEvent event, ApplicationCommandType type) {
-		if((APPLICATION_COMMANDS.isEmpty() && type != ApplicationCommandType.CHAT_INPUT) ||
-				(SLASH_COMMANDS.isEmpty() && type == ApplicationCommandType.CHAT_INPUT) ||
-				!isReady) {
-			event.reply(Emojis.TOOLS+" Le bot est encore en chargement... Veuillez réessayer ultérieurement.").block();
-			return;
+	private Mono<Void> handleApplicationCommand(ApplicationCommandInteractionEvent event, ApplicationCommandType type) {
+		final CommandRoutingTable routes = this.routingTable.get();
+		if(routes.isEmpty(type) || !isReady) {
+			return event.reply(Emojis.TOOLS+" Le bot est encore en chargement... Veuillez réessayer ultérieurement.");
 		}
 		
-		final AbstractCommandInstance cmd = searchCommandResult(event.getCommandName(), type);
-		final MessageChannel channel = event.getInteraction().getChannel().block();
-		
-		if(cmd == null) {
-			handleUnknownCommand(event.getCommandName(), event.getInteraction().getUser(), channel);
-			return;
-		}
+		final long lookupStart = System.nanoTime();
+		final AbstractCommandInstance cmd = routes.findByName(event.getCommandName(), type);
+		final String metricName = cmd == null ? DispatchMetrics.UNKNOWN_COMMAND : cmd.getInternalName();
+		DispatchMetrics.get().recordSince(metricName, type, DispatchStage.LOOKUP, lookupStart);
 		
-		ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.COMMAND_RECEIVED, new Object[] {
-				StringHelper.getRawCharacterString(event.getInteraction().getUser().getUsername()), 
-				cmd.getInternalName(),
-				channel.getType(), 
-				type});
+		final User user = event.getInteraction().getUser();
 		
-		if(CooldownHelper.canExecuteCommand(commandCooldown, event.getInteraction().getUser(), channel)) {
-			this.commandCooldown = CooldownHelper.wipeNullInstance(commandCooldown);
+		return event.getInteraction().getChannel().flatMap(channel -> {
+			if(cmd == null) {
+				return recordReply(metricName, type, handleUnknownCommand(event.getCommandName(), user, channel));
+			}
+			
+			if(this.admissionController.tryAdmit(event.getInteraction().getGuildId()).isPresent()) {
+				return recordReply(metricName, type, sendBusyMessage(event, channel));
+			}
 			
+			ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.COMMAND_RECEIVED, new CommandReceivedEvent(
+					StringHelper.getRawCharacterString(user.getUsername()), 
+					cmd.getInternalName(),
+					channel.getType(), 
+					type));
+			
+			final long cooldown = acquireCooldown(cmd, user, type);
+			if(cooldown > 0) return recordReply(metricName, type, sendCooldownMessage(cooldown, channel));
+			
+			final GatewayApplicationCommandPacket packet = new GatewayApplicationCommandPacket(event, type, user, channel);
 			if(!PermissionHelper.isServerEnvironnment(channel.getType())) {
 				if(cmd.getPermissions() == null && !cmd.isServerOnly()) {
-					handleNewCommandWithoutPermission(cmd, generateNewApplicationCommandPacket(event, type), type);
-					
+					return handleNewCommandWithoutPermission(cmd, packet, type);
 				}else {
-					event.reply(Emojis.NO_ENTRY+" Vous ne pouvez pas exécuter cette commande ici !").withEphemeral(true).block();
+					releaseCooldown(cmd, user);
+					return event.reply(Emojis.NO_ENTRY+" Vous ne pouvez pas exécuter cette commande ici !").withEphemeral(true);
 				}
 			}else {
-				handleNewCommand(cmd, generateNewApplicationCommandPacket(event, type), type);
+				return handleNewCommand(cmd, packet, Mono.justOrEmpty(event.getInteraction().getMember()), type);
 			}
-		}
-
+		});
 	}
 	
 	/**
-	 * Search a command id if it exist
-	 * @param providedCmdName The name of the command
-	 * @return the command instance if it exist
+	 * Handle every command computed by the bot and submit it to the {@link CommandExecutor}
+	 * work only for the command with permissions (guild command)
+	 * @param cmd The command itself
+	 * @param info The CommandGatewayInformations generated for the command
+	 * @param member The member who executed the command
+	 * @param cmdType The type of the command
+	 * @return a Mono completing when the command has been submitted
 	 */
-	private AbstractCommandInstance searchCommandId(String providedCmdId) {
-		for(ComponentCommandInstance command : COMPONENT_COMMANDS.values()) {
-            if(providedCmdId.startsWith(command.getShortenID())) return command;
-		}
-		
-		for(SlashCommandInstance command : SLASH_COMMANDS.values()) {
-			if(providedCmdId.startsWith(command.getShortenID())) return command;
-		}
-		
-		for(NativeCommandInstance command : NATIVE_COMMANDS.values()) {
-			if(providedCmdId.startsWith(command.getShortenID())) return command;
+	private Mono<Void> handleNewCommand(AbstractCommandInstance cmd, IGatewayInformations info, Mono<Member> member, ApplicationCommandType cmdType) {
+		return member.map(Optional::of).defaultIfEmpty(Optional.empty()).flatMap(optionalMember -> {
+			if(optionalMember.isEmpty()) {
+				releaseCooldown(cmd, info.getExecutor());
+				return Mono.empty();
+			}
+			
+			final Member m = optionalMember.get();
+			final long permissionStart = System.nanoTime();
+			return PermissionHelper.hasPermissions(m, cmd.getPermissions(), ownerID)
+				.flatMap(allowed -> {
+					DispatchMetrics.get().recordSince(cmd.getInternalName(), cmdType, DispatchStage.PERMISSION_CHECK, permissionStart);
+					if(!allowed) {
+						releaseCooldown(cmd, info.getExecutor());
+						return recordReply(cmd.getInternalName(), cmdType, handlePermissionError(cmd, info.getEvent(), info.getChannel()));
+					}
+					
+					if(!dispatchCommandTask(cmd, cmdType, getLaneKey(cmd, info.getEvent(), info.getChannel()), () -> executeCommand(cmd, info, cmdType))) {
+						releaseCooldown(cmd, info.getExecutor());
+						return recordReply(cmd.getInternalName(), cmdType, sendBusyMessage(info.getEvent(), info.getChannel()));
+					}
+					return confirmCooldown(cmd, info.getExecutor(), Optional.of(m));
+				})
+				.doOnError(e -> releaseCooldown(cmd, info.getExecutor()));
+		});
+	}
+	
+	/**
+	 * Handle every command computed by the bot and submit it to the {@link CommandExecutor}
+	 * work only for the command without permissions (dm & group dm command)
+	 * @param cmd - the command itself
+	 * @param info - the CommandGatewayInformations generated for the command
+	 * @param cmdType The type of the command
+	 * @return a Mono completing when the command has been submitted
+	 */
+	private Mono<Void> handleNewCommandWithoutPermission(AbstractCommandInstance cmd, IGatewayInformations info, ApplicationCommandType cmdType) {
+		if(!dispatchCommandTask(cmd, cmdType, getLaneKey(cmd, info.getEvent(), info.getChannel()), () -> executeCommand(cmd, info, cmdType))) {
+			releaseCooldown(cmd, info.getExecutor());
+			return recordReply(cmd.getInternalName(), cmdType, sendBusyMessage(info.getEvent(), info.getChannel()));
 		}
 		
-		return null;
+		return confirmCooldown(cmd, info.getExecutor(), Optional.empty());
 	}
 	
 	/**
-	 * Search if a command exist in the map
-	 * @param providedCmdName The name of the command
-	 * @param onlySlashCommand If the method has been called by the slash command event
-	 * @return the command instance if it exist
+	 * Execute the command with the packet matching its type
+	 * @param cmd The command itself
+	 * @param info The packet generated for the command
+	 * @param cmdType The type of the command
 	 */
-	private AbstractCommandInstance searchCommandResult(String providedCmdName, ApplicationCommandType type) {
-		if(providedCmdName == null) return null;
-		
-		switch(type) {
-			case NATIVE -> {
-				for(var entry : NATIVE_COMMANDS.entrySet()) {
-					if(entry.getKey().equalsIgnoreCase(providedCmdName)) {
-						return entry.getValue();
-					}
-				}
+	private void executeCommand(AbstractCommandInstance cmd, IGatewayInformations info, ApplicationCommandType cmdType) {
+		switch(cmdType) {
+			case CHAT_INPUT, USER, MESSAGE -> {
+				cmd.execute((GatewayApplicationCommandPacket)info);
 			}
-			case CHAT_INPUT -> {
-				for(var entry : SLASH_COMMANDS.entrySet()) {
-					if(entry.getKey().equalsIgnoreCase(providedCmdName)) {
-						return entry.getValue();
-					}
-				}
+			case NATIVE -> {
+				cmd.execute((GatewayNativeCommandPacket)info);
 			}
-			case MESSAGE, USER -> {
-				for(var entry : APPLICATION_COMMANDS.entrySet()) {
-					if(entry.getKey().equalsIgnoreCase(providedCmdName)) {
-						return entry.getValue();
-					}
-				}
+			default -> throw new IllegalArgumentException("Unexpected value: " + cmdType);
+		}
+	}
+	
+	/**
+	 * Reserve an execution slot from the {@link CommandWatchdog}, an in-flight slot from the {@link AdmissionController}
+	 * and submit a task to the {@link CommandExecutor} used by the client
+	 * @param cmd The command executed by the task
+	 * @param cmdType The type of the command, used to record the {@link DispatchMetrics}. Null if the task executes a component
+	 * @param laneKey The key of the {@link CommandLanes lane} running the task or an empty optional if the task is unordered
+	 * @param task The task to be executed
+	 * @return if the task has been admitted and accepted by the executor
+	 */
+	private boolean dispatchCommandTask(AbstractCommandInstance cmd, ApplicationCommandType cmdType, Optional<Snowflake> laneKey, Runnable task) {
+		final Optional<CommandWatchdog.Execution> execution = this.commandWatchdog.tryStart(cmd);
+		if(execution.isEmpty()) {
+			this.admissionController.recordShed(ShedReason.COMMAND_CONCURRENCY_LIMIT);
+			return false;
+		}
+		
+		if(this.admissionController.tryEnter().isPresent()) {
+			execution.get().end();
+			return false;
+		}
+		
+		final long submitTime = System.nanoTime();
+		final Runnable job = () -> {
+			final long startTime = System.nanoTime();
+			if(cmdType != null) DispatchMetrics.get().record(cmd.getInternalName(), cmdType, DispatchStage.QUEUE_WAIT, startTime - submitTime);
+			
+			execution.get().begin();
+			try {
+				task.run();
+			}finally {
+				execution.get().end();
+				this.admissionController.exit();
+				if(cmdType != null) DispatchMetrics.get().recordSince(cmd.getInternalName(), cmdType, DispatchStage.EXECUTE, startTime);
 			}
-			default -> throw new IllegalArgumentException("Unexpected value: " + type);
+		};
+		final Runnable onRejected = () -> {
+			execution.get().end();
+			this.admissionController.exit();
+			this.admissionController.recordShed(ShedReason.EXECUTOR_SATURATED);
+		};
+		
+		//Interactions must be acknowledged quickly, native commands can wait
+		final Duration deadline = cmdType == ApplicationCommandType.NATIVE ? this.commandExecutor.getNativeDeadline() : this.commandExecutor.getInteractionDeadline();
+		
+		boolean accepted;
+		try {
+			accepted = laneKey.isPresent() ? 
+					this.commandLanes.submit(laneKey.get(), job, deadline, onRejected) : 
+					this.commandExecutor.submit(job, deadline, onRejected);
+		}catch(RejectedExecutionException e) {
+			LOGGER.warn("Command task rejected: {}", e.getMessage());
+			accepted = false;
 		}
 		
-		return null;
+		if(!accepted) onRejected.run();
+		return accepted;
 	}
 	
 	/**
-	 * Generate a new CommandGatewayComponentInteraction for a specified command
-	 * @param event The MessageCreateEvent from discord
-	 * @param userCommand A tuple containing informations about the layout of the user's command
-	 * @see apbiot.core.command.informations.informations.CommandGatewayComponentInteraction
-	 * @return new CommandGatewayComponentInteraction
+	 * Get the key of the {@link CommandLanes lane} which must run the command, according to its {@link AbstractCommandInstance#getExecutionOrdering() ordering}
+	 * @param cmd The command
+	 * @param event The event which triggered the command
+	 * @param channel The channel where the command has been executed
+	 * @return the key of the lane or an empty optional if the command is unordered
 	 */
-	private GatewayComponentCommandPacket generateNewComponentInformations(ComponentInteractionEvent event, String componentId) {
-		return new GatewayComponentCommandPacket(
-				event, 
-				componentId,
-				event.getInteraction().getUser(),
-				event.getInteraction().getChannel().block());
+	private Optional<Snowflake> getLaneKey(AbstractCommandInstance cmd, Event event, MessageChannel channel) {
+		return switch(cmd.getExecutionOrdering()) {
+			case PER_CHANNEL -> Optional.of(channel.getId());
+			case PER_GUILD -> {
+				Optional<Snowflake> guildId = Optional.empty();
+				if(event instanceof MessageCreateEvent) guildId = ((MessageCreateEvent)event).getGuildId();
+				else if(event instanceof InteractionCreateEvent) guildId = ((InteractionCreateEvent)event).getInteraction().getGuildId();
+				
+				yield Optional.of(guildId.orElse(channel.getId()));
+			}
+			default -> Optional.empty();
+		};
 	}
 	
 	/**
-	 * Generate a new CommandGatewaySlashInformations for a specified command
-	 * @param event The ApplicationCommandInteractionEvent from discord
-	 * @see apbiot.core.command.informations.informations.CommandGatewaySlashInformations
-	 * @return new CommandGatewaySlashInformations
+	 * Record the time spent sending a reply in the {@link DispatchMetrics}
+	 * @param command The internal name of the command
+	 * @param cmdType The type of the command
+	 * @param reply The reply to be sent
+	 * @return the reply, recording its duration when it completes
 	 */
-	private GatewayApplicationCommandPacket generateNewApplicationCommandPacket(ApplicationCommandInteractionEvent event, ApplicationCommandType type) {
-		return new GatewayApplicationCommandPacket(
-				event, 
-				type,
-				event.getInteraction().getUser(),
-				event.getInteraction().getChannel().block());
+	private Mono<Void> recordReply(String command, ApplicationCommandType cmdType, Mono<Void> reply) {
+		return Mono.defer(() -> {
+			final long start = System.nanoTime();
+			return reply.doFinally(signal -> DispatchMetrics.get().recordSince(command, cmdType, DispatchStage.REPLY, start));
+		});
 	}
 	
 	/**
-	 * Generate a new CommandGatewayInformations for a specified command
-	 * @param event The MessageCreateEvent from discord
-	 * @param userCommand A tuple containing informations about the layout of the user's command
-	 * @see apbiot.core.command.GatewayNativeCommandPacket
-	 * @return new CommandGatewayInformations
+	 * Tell the user that the command has been shed because the bot is overloaded
+	 * @param event The event which triggered the command
+	 * @param channel The channel where the command has been executed
+	 * @return a Mono completing when the message has been sent
 	 */
-	private GatewayNativeCommandPacket generateNewNativeCommandPacket(MessageCreateEvent event, Tuple<String, Boolean> userCommand) {
-		return new GatewayNativeCommandPacket(
-				event, 
-				event.getMessage().getAuthor().get(), 
-				event.getMessage().getChannel().block(), 
-				ArgumentHelper.formatCommandArguments(userCommand.getValueB(),event.getMessage().getContent()), 
-				userCommand.getValueA(), 
-				botPrefix);
+	private Mono<Void> sendBusyMessage(Event event, MessageChannel channel) {
+		if(event instanceof DeferrableInteractionEvent) {
+			return ((DeferrableInteractionEvent)event).reply(BUSY_MESSAGE).withEphemeral(true);
+		}
+		
+		return new TimedMessage(channel.createMessage(BUSY_MESSAGE)).withDelayedDelete(Duration.ofSeconds(5)).then();
 	}
 	
 	/**
-	 * Handle every command computed by the bot and create a new thread for it to work
-	 * work only for the command with permissions (guild command)
-	 * @param cmd The command itself
-	 * @param info The CommandGatewayInformations generated for the command
+	 * Reserve the cooldown of an user for a command before resolving the permissions.<br/>
+	 * The check and the reservation are atomic, so a burst of messages from an user cannot all pass the check.
+	 * The reservation is released if the command isn't dispatched, see {@link #releaseCooldown(AbstractCommandInstance, User)}
+	 * @param cmd The command executed
+	 * @param user The user who executed the command
+	 * @param cmdType The type of the command
+	 * @return the remaining time in nanoseconds of the active cooldown or 0 if the user can execute the command
 	 */
-	private void handleNewCommand(AbstractCommandInstance cmd, IGatewayInformations info, ApplicationCommandType cmdType) throws NullPointerException {
-		if(PermissionHelper.doesUserHavePermissions(info.getGuild().getMemberById(info.getExecutor().getId()).onErrorComplete().block(), cmd.getPermissions(), ownerID)) {
-			new Thread(new Runnable() {
-
-				@Override
-				public void run() {
-					switch(cmdType) {
-						case CHAT_INPUT, USER, MESSAGE -> {
-							cmd.execute((GatewayApplicationCommandPacket)info);
-						}
-						case NATIVE -> {
-							cmd.execute((GatewayNativeCommandPacket)info);
-						}
-						default -> throw new IllegalArgumentException("Unexpected value: " + cmdType);
-					}
-				}
-			}).start();
-			
-			if(!cmd.getCooldown().isWithoutCooldown()) {
-				final UserCommandCooldown cmdCooldown = CooldownHelper.createNewCooldown(cmd, info.getExecutor(), info.getGuild());
-				if(cmdCooldown != null) commandCooldown.add(cmdCooldown);
-			}
-		}else {
-			handlePermissionError(cmd, info.getEvent(), cmdType);
+	private long acquireCooldown(AbstractCommandInstance cmd, User user, ApplicationCommandType cmdType) {
+		final CommandCooldown cooldown = cmd.getCooldown();
+		if(cooldown.isWithoutCooldown()) return 0;
+		
+		final long start = System.nanoTime();
+		try {
+			return this.cooldownBackend.tryAcquire(user.getId().asLong(), cmd.getStableID(), cooldown.getTimer().getConvertedDurationTime());
+		}finally {
+			DispatchMetrics.get().recordSince(cmd.getInternalName(), cmdType, DispatchStage.COOLDOWN_CHECK, start);
 		}
 	}
 	
 	/**
-	 * Handle every command computed by the bot et create a new thread for it to work
-	 * work only for the command without permissions (dm & group dm command)
-	 * @param cmd - the command itself
-	 * @param info - the CommandGatewayInformations generated for the command
+	 * Release the cooldown reserved for a command which hasn't been dispatched
+	 * @param cmd The command
+	 * @param user The user who executed the command
 	 */
-	private void handleNewCommandWithoutPermission(AbstractCommandInstance cmd, IGatewayInformations info, ApplicationCommandType cmdType) {
-		new Thread(new Runnable() {
-
-			@Override
-			public void run() {
-				switch(cmdType) {
-					case CHAT_INPUT, USER, MESSAGE -> {
-						cmd.execute((GatewayApplicationCommandPacket)info);
-					}
-					case NATIVE -> {
-						cmd.execute((GatewayNativeCommandPacket)info);
-					}
-					default -> throw new IllegalArgumentException("Unexpected value: " + cmdType);
-				}
-			}
-		}).start();
+	private void releaseCooldown(AbstractCommandInstance cmd, User user) {
+		if(!cmd.getCooldown().isWithoutCooldown()) this.cooldownBackend.remove(user.getId().asLong(), cmd.getStableID());
+	}
+	
+	/**
+	 * Keep the cooldown reserved for a dispatched command if it applies to the member, release it otherwise
+	 * @param cmd The command executed
+	 * @param user The user who executed the command
+	 * @param member The member who executed the command if the command has been executed in a guild
+	 * @return a Mono completing when the cooldown has been checked
+	 */
+	private Mono<Void> confirmCooldown(AbstractCommandInstance cmd, User user, Optional<Member> member) {
+		if(cmd.getCooldown().isWithoutCooldown()) return Mono.empty();
 		
-		if(!cmd.getCooldown().isWithoutCooldown()) {
-			UserCommandCooldown cmdCooldown = CooldownHelper.createNewCooldown(cmd, info.getExecutor(), info.getGuild());
-			if(cmdCooldown != null) commandCooldown.add(cmdCooldown);
-		}
+		return CooldownHelper.needsCooldown(cmd, member)
+				.filter(needCooldown -> !needCooldown)
+				.doOnNext(needCooldown -> releaseCooldown(cmd, user))
+				.then();
+	}
+	
+	private Mono<Void> sendCooldownMessage(long remainingNanos, MessageChannel channel) {
+		//Rounded up so an active cooldown never displays 0 second
+		final long seconds = (remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+		return channel.createMessage(Emojis.ALARM_CLOCK+" Vous ne pourrez éxécuter cette commande que dans **"+seconds+" seconde(s)** !").then();
 	}
 	
 	/**
 	 * Handle and display permission error when thrown
 	 * @param cmd The command instance
-	 * @param chan The channel where the command has been executed
+	 * @param event The event which triggered the command
+	 * @param channel The channel where the command has been executed
+	 * @return a Mono completing when the error has been sent
 	 */
-	private void handlePermissionError(AbstractCommandInstance cmd, Event event, ApplicationCommandType type) {
+	private Mono<Void> handlePermissionError(AbstractCommandInstance cmd, Event event, MessageChannel channel) {
 		final String msg = cmd.getPermissions().getPermissionErrorMessage().isPresent() ? 
 				Emojis.X_CROSS+" **ERREUR :** "+cmd.getPermissions().getPermissionErrorMessage().get() : 
 				Emojis.X_CROSS+" **ERREUR :** Vous n'avez pas la permission d'éxecuter cette commande.";
 		
-		if(type == ApplicationCommandType.CHAT_INPUT) {
-			((ApplicationCommandInteractionEvent)event).reply(msg).withEphemeral(true).block();
+		if(event instanceof ApplicationCommandInteractionEvent) {
+			return ((ApplicationCommandInteractionEvent)event).reply(msg).withEphemeral(true);
 		}
-		else {	
-			new TimedMessage(((MessageCreateEvent)event).getMessage().getChannel().block()
-					.createMessage(msg).block())
-			.setDelayedDelete(Duration.ofSeconds(7), true);
+		else {
+			return new TimedMessage(channel.createMessage(msg)).withDelayedDelete(Duration.ofSeconds(7)).then();
 		}
 	}
 	
@@ -504,33 +701,30 @@ public class ClientBuilder {
 	 * @param commandName The command written by the user
 	 * @param user The user
 	 * @param channel The channel which received the command
+	 * @return a Mono completing when the help has been sent
 	 */
-	private void handleUnknownCommand(String commandName, User user, MessageChannel channel) {
-		Optional<CommandatorEntry> helpMessage = Optional.empty();
-		try {
-			helpMessage = commandator.newRequest(commandName);
-		} catch (InterruptedException e) {
-			LOGGER.error("Unexpected error while catching a command",e);
-			return;
-		}
+	private Mono<Void> handleUnknownCommand(String commandName, User user, MessageChannel channel) {
+		//Searching the index takes a few microseconds, the suggestion is computed on the caller's thread
+		final Mono<Optional<CommandatorEntry>> request = commandator == null ? Mono.just(Optional.empty()) :
+			Mono.fromSupplier(() -> commandator.suggest(commandName));
 		
-		ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.COMMMAND_ERROR, new Object[] {
-				StringHelper.getRawCharacterString(user.getUsername()), 
-				commandName, 
-				helpMessage.orElse(null), 
-				channel.getType()});
-				
-		if(helpMessage.isPresent()) {
-			final String cmdPrefix = helpMessage.get().getCommandType() == ApplicationCommandType.NATIVE ? botPrefix : "/";
+		return request.flatMap(helpMessage -> {
+			ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.COMMMAND_ERROR, new CommandErrorEvent(
+					StringHelper.getRawCharacterString(user.getUsername()), 
+					commandName, 
+					helpMessage.orElse(null), 
+					channel.getType()));
 			
-			new TimedMessage(channel.createMessage(
-					"ℹ️ "+user.getMention()+", Vous vouliez surement dire **"+cmdPrefix+""+helpMessage.get().getCommandName()+"**.").block())
-			.setDelayedDelete(Duration.ofSeconds(5), true);
-		}else {
-			new TimedMessage(channel.createMessage(
-					"ℹ️ "+user.getMention()+", Aucune commande connue ne porte ce nom.").block())
-			.setDelayedDelete(Duration.ofSeconds(5), true);
-		}
+			final String msg;
+			if(helpMessage.isPresent()) {
+				final String cmdPrefix = helpMessage.get().getCommandType() == ApplicationCommandType.NATIVE ? botPrefix : "/";
+				msg = "ℹ️ "+user.getMention()+", Vous vouliez surement dire **"+cmdPrefix+""+helpMessage.get().getCommandName()+"**.";
+			}else {
+				msg = "ℹ️ "+user.getMention()+", Aucune commande connue ne porte ce nom.";
+			}
+			
+			return new TimedMessage(channel.createMessage(msg)).withDelayedDelete(Duration.ofSeconds(5)).then();
+		});
 	}
 	
 	
@@ -570,6 +764,115 @@ public class ClientBuilder {
 		return this;
 	}
 	
+	/**
+	 * Set the {@link CommandExecutor} used to run the commands.<br/>
+	 * The previous executor is shut down in the background if it was already created: it stops accepting new commands
+	 * but lets the commands already submitted complete
+	 * @param executor The executor to use
+	 * @return an instance of ClientBuilder
+	 */
+	public ClientBuilder setCommandExecutor(CommandExecutor executor) {
+		try {
+			this.lock.lock();
+			
+			final CommandExecutor previous = this.commandExecutor;
+			this.commandExecutor = executor;
+			if(this.commandLanes != null) this.commandLanes = new CommandLanes(executor, this.commandLanes.getMaxLaneSize());
+			if(previous != null && previous != executor) {
+				final Thread drain = new Thread(() -> {
+					if(!previous.shutdown(EXECUTOR_DRAIN_TIMEOUT)) LOGGER.warn("The previous command executor didn't complete its commands within {}", EXECUTOR_DRAIN_TIMEOUT);
+				}, "Command Executor Drain");
+				drain.setDaemon(true);
+				drain.start();
+			}
+		}finally {
+			this.lock.unlock();
+		}
+		return this;
+	}
+	
+	/**
+	 * Get the {@link CommandExecutor} used to run the commands
+	 * @return the command executor
+	 */
+	public CommandExecutor getCommandExecutor() {
+		return this.commandExecutor;
+	}
+	
+	/**
+	 * Set the {@link AdmissionController} deciding which commands are run when the bot is overloaded
+	 * @param controller The controller to use
+	 * @return an instance of ClientBuilder
+	 */
+	public ClientBuilder setAdmissionController(AdmissionController controller) {
+		this.admissionController = controller;
+		return this;
+	}
+	
+	/**
+	 * Get the {@link AdmissionController} used to shed the commands when the bot is overloaded
+	 * @return the admission controller
+	 */
+	public AdmissionController getAdmissionController() {
+		return this.admissionController;
+	}
+	
+	/**
+	 * Set the {@link CooldownBackend} storing the cooldowns of the users.<br/>
+	 * Must be called before {@link #createNewInstance()}, a {@link CooldownStore} is used otherwise
+	 * @param backend The backend to use
+	 * @return an instance of ClientBuilder
+	 */
+	public ClientBuilder setCooldownBackend(CooldownBackend backend) {
+		this.cooldownBackend = backend;
+		return this;
+	}
+	
+	/**
+	 * Get the {@link CooldownBackend} storing the cooldowns of the users
+	 * @return the cooldown backend
+	 */
+	public CooldownBackend getCooldownBackend() {
+		return this.cooldownBackend;
+	}
+	
+	/**
+	 * Set the {@link CommandWatchdog} cancelling the commands running past their deadline.<br/>
+	 * The previous watchdog is shut down if it was already created
+	 * @param watchdog The watchdog to use
+	 * @return an instance of ClientBuilder
+	 */
+	public ClientBuilder setCommandWatchdog(CommandWatchdog watchdog) {
+		final CommandWatchdog previous = this.commandWatchdog;
+		this.commandWatchdog = watchdog;
+		if(previous != null && previous != watchdog) previous.shutdown();
+		
+		return this;
+	}
+	
+	/**
+	 * Get the {@link CommandWatchdog} monitoring the commands
+	 * @return the command watchdog
+	 */
+	public CommandWatchdog getCommandWatchdog() {
+		return this.commandWatchdog;
+	}
+	
+	/**
+	 * Set the limits applied to the gateway events dispatching.<br/>
+	 * Must be called before {@link #launch(String, IntentSet, String, Optional)} to be taken into account
+	 * @param concurrency The maximum number of events handled at the same time for each type of event
+	 * @param bufferSize The maximum number of events waiting to be handled for each type of event
+	 * @return an instance of ClientBuilder
+	 */
+	public ClientBuilder setDispatchLimits(int concurrency, int bufferSize) {
+		if(concurrency <= 0 || bufferSize <= 0) throw new IllegalArgumentException("Dispatch limits must be strictly positive");
+		
+		this.dispatchConcurrency = concurrency;
+		this.dispatchBufferSize = bufferSize;
+		return this;
+	}
+	
 	public void setReady(boolean value) {
 		try {
 			this.lock.lock();
@@ -592,7 +895,7 @@ public class ClientBuilder {
 	public void launch(String token, IntentSet intent, String prefix, Optional<ClientPresence> defaultStatus) throws UnbuiltBotException, ClientException {
 		try {
 			this.lock.lock();
-			if(NATIVE_COMMANDS == null || SLASH_COMMANDS == null || APPLICATION_COMMANDS == null ) throw new UnbuiltBotException("You cannot launch a bot without building it.");
+			if(this.routingTable.get() == null) throw new UnbuiltBotException("You cannot launch a bot without building it.");
 			
 			this.botPrefix = prefix;
 			
@@ -605,6 +908,9 @@ public class ClientBuilder {
 			
 			if(defaultStatus.isPresent()) setPresenceText(defaultStatus.get());
 			this.ownerID = this.gateway.getApplicationInfo().block().getOwnerId();
+			this.selfId = this.gateway.getSelfId();
+			
+			this.permissionCacheBinding = MemberPermissionCache.get().bind(this.gateway, intent);
 			
 			createNativeCommandListener();
 			createApplicationCommandListener();
@@ -616,7 +922,10 @@ public class ClientBuilder {
 			this.lock.unlock();
 		}
 		
+		final Disposable binding = this.permissionCacheBinding;
 		this.gateway.onDisconnect().block();
+		//Only the binding of this gateway, the cache may already be bound to a new one
+		binding.dispose();
 	}
 	
 	/**
@@ -625,7 +934,8 @@ public class ClientBuilder {
 	 */
 	public void buildCommandator() {
 		
-		commandator = new Commandator(NATIVE_COMMANDS.keySet(), SLASH_COMMANDS.keySet());
+		final CommandRoutingTable routes = getRoutingTable();
+		commandator = new Commandator(routes.getNativeCommands().keySet(), routes.getSlashCommands().keySet());
 	}
 	
 	/**
@@ -638,6 +948,11 @@ public class ClientBuilder {
 			
 			if(this.gateway == null) throw new UnbuiltBotException("You cannot destroy a nonexistent bot.");
 			this.gateway.logout().subscribe();
+			if(this.permissionCacheBinding != null) this.permissionCacheBinding.dispose();
+			
+			if(this.commandExecutor != null) this.commandExecutor.shutdown(Duration.ofSeconds(10));
+			if(this.commandWatchdog != null) this.commandWatchdog.shutdown();
+			if(this.cooldownBackend != null) this.cooldownBackend.shutdown();
 		}finally {
 			this.lock.unlock();
 		}
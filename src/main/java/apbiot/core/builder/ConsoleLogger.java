@@ -3,6 +3,7 @@ package apbiot.core.builder;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,8 +13,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import apbiot.core.command.SystemCommand;
+import apbiot.core.command.informations.NativeCommandTokens;
 import apbiot.core.handler.AbstractSystemCommandHandler;
-import apbiot.core.helper.ArgumentHelper;
 import apbiot.core.pems.EventListener;
 import apbiot.core.pems.ProgramEvent;
 import apbiot.core.pems.ProgramEvent.EventPriority;
@@ -90,7 +91,7 @@ public class ConsoleLogger {
 					for(Map.Entry<List<String>, SystemCommand> entry : COMMANDS.entrySet()) {
 						for(String commandName : entry.getKey()) {
 							if(line.startsWith(commandName)) {
-								entry.getValue().execute(ArgumentHelper.formatCommandArguments(false, line));
+								entry.getValue().execute(new ArrayList<>(NativeCommandTokens.parse(line, "").getArguments()));
 							}
 						}
 					}
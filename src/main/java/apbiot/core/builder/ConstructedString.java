@@ -9,6 +9,7 @@ import java.util.List;
  * @since 1.0.0
  * @version 1.2.0
  * @see String#format(String, Object...)
+ * @see apbiot.core.i18n.LocalizedTemplate
  */
 public class ConstructedString {
 
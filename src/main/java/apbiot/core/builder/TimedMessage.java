@@ -46,6 +46,20 @@ public final class TimedMessage {
 		}
 	}
 	
+	/**
+	 * Used to create a timer that will delete the message once it has been emitted.<br/>
+	 * Unlike {@link #setDelayedDelete(Duration, boolean)}, this method never blocks and the message is only
+	 * emitted once: the deletion is scheduled in the background when the returned mono is subscribed
+	 * @param time - a duration before the message deletion
+	 * @return a message within a mono
+	 */
+	public Mono<Message> withDelayedDelete(Duration time) {
+		return data.doOnNext(msg -> msg.delete()
+				.delaySubscription(time.isNegative() ? Duration.ZERO : time)
+				.onErrorResume(e -> Mono.empty())
+				.subscribe());
+	}
+	
 	/**
 	 * Used to create a timer that will send the message
 	 * @param chan - the channel where the message will be send
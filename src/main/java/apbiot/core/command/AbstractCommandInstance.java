@@ -1,7 +1,10 @@
 package apbiot.core.command;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -11,6 +14,7 @@ import org.apache.logging.log4j.Logger;
 import apbiot.core.command.informations.GatewayApplicationCommandPacket;
 import apbiot.core.command.informations.GatewayComponentCommandPacket;
 import apbiot.core.command.informations.GatewayNativeCommandPacket;
+import apbiot.core.dispatch.ExecutionOrdering;
 import apbiot.core.helper.StringHelper;
 import apbiot.core.i18n.LanguageManager;
 import apbiot.core.objects.interfaces.ICommandCategory;
@@ -30,6 +34,7 @@ public abstract class AbstractCommandInstance {
 	
 	private final UUID commandId;
 	private final String shortenCommandId; //The shorten version of the command id pre-processed for faster access. Use base64
+	private final UUID stableCommandId; //The static id or an id derived from the internal name, identical in every process
 	
 	protected boolean built;
 	
@@ -51,6 +56,7 @@ public abstract class AbstractCommandInstance {
 		this.category = category;
 		this.commandId = UUID.randomUUID();
 		this.shortenCommandId = StringHelper.shortenUUIDToBase64(this.commandId);
+		this.stableCommandId = UUID.nameUUIDFromBytes(this.commandInternalName.getBytes(StandardCharsets.UTF_8));
 		
 		this.permissions = setPermissions();
 	}
@@ -74,6 +80,7 @@ public abstract class AbstractCommandInstance {
 		this.category = category;
 		this.commandId = UUID.fromString(staticID);
 		this.shortenCommandId = StringHelper.shortenUUIDToBase64(this.commandId);
+		this.stableCommandId = this.commandId;
 		
 		this.permissions = setPermissions();
 	}
@@ -93,6 +100,7 @@ public abstract class AbstractCommandInstance {
 		this.category = category;
 		this.commandId = UUID.randomUUID();
 		this.shortenCommandId = StringHelper.shortenUUIDToBase64(this.commandId);
+		this.stableCommandId = UUID.nameUUIDFromBytes(this.commandInternalName.getBytes(StandardCharsets.UTF_8));
 		
 		this.permissions = setPermissions();
 	}
@@ -113,6 +121,7 @@ public abstract class AbstractCommandInstance {
 		this.category = category;
 		this.commandId = UUID.fromString(staticID);
 		this.shortenCommandId = StringHelper.shortenUUIDToBase64(this.commandId);
+		this.stableCommandId = this.commandId;
 		
 		this.permissions = setPermissions();
 	}
@@ -251,6 +260,17 @@ public abstract class AbstractCommandInstance {
 		return this.commandId;
 	}
 	
+	/**
+	 * Get an id of the command which is the same in every process running the bot.<br/>
+	 * It is the static id of the command if one has been defined, otherwise an id derived from its internal name.
+	 * Unlike {@link #getID()}, it can be used to share data about the command between processes, like the cooldowns
+	 * @return the stable id of the command
+	 * @since 6.3.0
+	 */
+	public final UUID getStableID() {
+		return this.stableCommandId;
+	}
+	
 	/**
 	 * Get the unique command id shorten to base64
 	 * @return the command's id
@@ -283,4 +303,37 @@ public abstract class AbstractCommandInstance {
 		return new CommandCooldown().setWithoutCooldown();
 	}
 	
+	/**
+	 * Get the maximum time an execution of the command can run before being cancelled.<br/>
+	 * Override it to define a deadline specific to the command
+	 * @return the deadline or an empty optional to use the default deadline of the client
+	 * @see apbiot.core.dispatch.CommandWatchdog
+	 * @since 6.3.0
+	 */
+	public Optional<Duration> getExecutionDeadline() {
+		return Optional.empty();
+	}
+	
+	/**
+	 * Get the maximum number of executions of the command running or waiting to run at the same time.<br/>
+	 * Override it to define a limit specific to the command
+	 * @return the limit or 0 to use the default limit of the client
+	 * @see apbiot.core.dispatch.CommandWatchdog
+	 * @since 6.3.0
+	 */
+	public int getMaxConcurrentExecutions() {
+		return 0;
+	}
+	
+	/**
+	 * Get the ordering guaranteed between the executions of the command.<br/>
+	 * Override it when the executions of the command must not run in parallel in the same channel or guild
+	 * @return the ordering of the executions
+	 * @see apbiot.core.dispatch.CommandLanes
+	 * @since 6.3.0
+	 */
+	public ExecutionOrdering getExecutionOrdering() {
+		return ExecutionOrdering.UNORDERED;
+	}
+	
 }
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import apbiot.core.command.autocomplete.AutocompleteRegistry;
+import apbiot.core.command.autocomplete.AutocompleteSource;
 import apbiot.core.i18n.LanguageManager;
 import discord4j.core.object.command.ApplicationCommandOption;
 import discord4j.core.object.entity.channel.Channel;
@@ -22,6 +24,7 @@ public class CommandOptions {
     private final List<CommandOptionChoices> choices;
     private final Possible<Double> minValue, maxValue;
     private final Possible<Integer> minLength, maxLength;
+    private final AutocompleteSource autocompleteSource;
     
     private String description;
     private Map<String, String> nameLocalizations;
@@ -30,7 +33,8 @@ public class CommandOptions {
     private CommandOptions(String name, ApplicationCommandOption.Type type, 
     		boolean required, Possible<Boolean> autocomplete, List<Integer> channelTypes,
     		List<CommandOptions> options, List<CommandOptionChoices> choices,
-    		Possible<Double> minValue, Possible<Double> maxValue, Possible<Integer> minLength, Possible<Integer> maxLength) {
+    		Possible<Double> minValue, Possible<Double> maxValue, Possible<Integer> minLength, Possible<Integer> maxLength,
+    		AutocompleteSource autocompleteSource) {
     	this.name = name;
     	this.type = type;
     	this.required = required;
@@ -42,6 +46,7 @@ public class CommandOptions {
     	this.maxValue = maxValue;
     	this.minLength = minLength;
     	this.maxLength = maxLength;
+    	this.autocompleteSource = autocompleteSource;
     }
     
     public void updateLocalizationMapping(String commandName) {
@@ -68,6 +73,25 @@ public class CommandOptions {
 		}
     }
 
+    /**
+     * Register the {@link AutocompleteSource} of this option and its sub-options in the {@link AutocompleteRegistry}
+     * @param commandName The internal name of the command
+     */
+    public void registerAutocompleteSources(String commandName) {
+    	recursiveAutocompleteRegistration(commandName, null);
+    }
+    
+    private void recursiveAutocompleteRegistration(String commandName, String parentName) {
+    	final String recursiveName = parentName != null ? parentName + "." + name : name;
+    	for (CommandOptions option : options) {
+    		option.recursiveAutocompleteRegistration(commandName, recursiveName);
+    	}
+    	
+    	if(this.autocompleteSource != null) {
+    		AutocompleteRegistry.get().register(commandName, recursiveName, this.autocompleteSource);
+    	}
+    }
+
 	public ApplicationCommandOptionData get() {
 		final List<ApplicationCommandOptionData> optionsData = new ArrayList<>();
 		this.options.forEach(option -> optionsData.add(option.get()));
@@ -99,6 +123,7 @@ public class CommandOptions {
 	    private List<CommandOptionChoices> choices;
 	    private Possible<Double> minValue, maxValue;
 	    private Possible<Integer> minLength, maxLength;
+	    private AutocompleteSource autocompleteSource;
 		
 		private Builder() { 
 			this.options = new ArrayList<>();
@@ -140,6 +165,17 @@ public class CommandOptions {
 			return this;
 		}
 		
+		/**
+		 * Set the source of the values proposed while the user fills the option, enables the autocomplete
+		 * @param autocompleteSource The source of the values
+		 * @return this builder
+		 */
+		public Builder autocompleteSource(AutocompleteSource autocompleteSource) {
+			this.autocompleteSource = autocompleteSource;
+			this.autocomplete = Possible.of(autocompleteSource != null);
+			return this;
+		}
+		
 		public Builder channelTypes(List<Channel.Type> channelTypes) {
 			final List<Integer> typesInteger = new ArrayList<>();
 			for (Channel.Type type : channelTypes) {
@@ -246,7 +282,7 @@ public class CommandOptions {
 		public CommandOptions build() {
             return new CommandOptions(name, type, required, autocomplete, 
             		channelTypes, options, choices, minValue, maxValue, 
-            		minLength, maxLength);
+            		minLength, maxLength, autocompleteSource);
 		}
 	}
 	
@@ -0,0 +1,77 @@
+package apbiot.core.command.autocomplete;
+
+import discord4j.discordjson.json.ApplicationCommandOptionChoiceData;
+
+/**
+ * Value proposed to the user while filling an option with autocomplete.<br/>
+ * The choices with the highest weight are proposed first. The data sent to Discord is built once, when the choice is created.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class AutocompleteChoice {
+
+	/**
+	 * Maximum length of the name of a choice accepted by Discord
+	 */
+	public static final int MAX_NAME_LENGTH = 100;
+
+	private final String name;
+	private final Object value;
+	private final long weight;
+	private final ApplicationCommandOptionChoiceData data;
+
+	private AutocompleteChoice(String name, Object value, long weight) {
+		this.name = name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+		this.value = value;
+		this.weight = weight;
+		this.data = ApplicationCommandOptionChoiceData.builder().name(this.name).value(value).build();
+	}
+
+	/**
+	 * Create a choice
+	 * @param name The name displayed to the user
+	 * @param value The value of the option, a string, a long or a double depending on the type of the option
+	 * @param weight The rank of the choice, the highest first
+	 * @return the choice
+	 */
+	public static AutocompleteChoice of(String name, Object value, long weight) {
+		if(name == null || name.isEmpty()) throw new IllegalArgumentException("Choice name cannot be empty");
+		if(!(value instanceof String || value instanceof Long || value instanceof Integer || value instanceof Double)) {
+			throw new IllegalArgumentException("Choice value must be a string, a long or a double");
+		}
+		return new AutocompleteChoice(name, value instanceof Integer integer ? integer.longValue() : value, weight);
+	}
+
+	/**
+	 * Create a string choice, with the name as value
+	 * @param name The name displayed to the user and sent as value
+	 * @return the choice
+	 */
+	public static AutocompleteChoice of(String name) {
+		return of(name, name, 0L);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+	public long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return the choice sent to Discord
+	 */
+	public ApplicationCommandOptionChoiceData getData() {
+		return data;
+	}
+
+	@Override
+	public String toString() {
+		return "AutocompleteChoice [name="+name+", value="+value+", weight="+weight+"]";
+	}
+}
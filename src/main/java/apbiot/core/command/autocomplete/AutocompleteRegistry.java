@@ -0,0 +1,115 @@
+package apbiot.core.command.autocomplete;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import discord4j.discordjson.json.ApplicationCommandOptionChoiceData;
+
+/**
+ * Registry of the {@link AutocompleteSource} of the options, keyed by command and option.<br/>
+ * The choices sent for a prefix are cached until the source is registered again, as the users of a server
+ * often type the same beginnings. The cache of an option is bounded and emptied when it is full.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class AutocompleteRegistry {
+
+	/**
+	 * Maximum number of prefixes cached for an option
+	 */
+	private static final int MAX_CACHED_PREFIXES = 2048;
+
+	private static volatile AutocompleteRegistry instance;
+
+	private final ConcurrentHashMap<OptionKey, Registration> sources = new ConcurrentHashMap<>();
+
+	private AutocompleteRegistry() { }
+
+	public static AutocompleteRegistry get() {
+		if(instance == null) {
+			synchronized (AutocompleteRegistry.class) {
+				if(instance == null) instance = new AutocompleteRegistry();
+			}
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Register the source of an option, replacing the previous one and its cached choices
+	 * @param commandName The internal name of the command
+	 * @param optionPath The path of the option, the names of its parent options and its name separated by dots
+	 * @param source The source of the choices
+	 */
+	public void register(String commandName, String optionPath, AutocompleteSource source) {
+		if(source == null) throw new IllegalArgumentException("Autocomplete source cannot be null");
+		sources.put(new OptionKey(commandName, optionPath), new Registration(source));
+	}
+
+	/**
+	 * Unregister the source of an option
+	 * @param commandName The internal name of the command
+	 * @param optionPath The path of the option
+	 */
+	public void unregister(String commandName, String optionPath) {
+		sources.remove(new OptionKey(commandName, optionPath));
+	}
+
+	/**
+	 * Unregister the sources of every option of a command
+	 * @param commandName The internal name of the command
+	 */
+	public void unregisterCommand(String commandName) {
+		sources.keySet().removeIf(key -> key.commandName().equals(commandName));
+	}
+
+	/**
+	 * @param commandName The internal name of the command
+	 * @param optionPath The path of the option
+	 * @return if a source is registered for the option
+	 */
+	public boolean hasSource(String commandName, String optionPath) {
+		return sources.containsKey(new OptionKey(commandName, optionPath));
+	}
+
+	/**
+	 * Find the choices proposed for an option
+	 * @param commandName The internal name of the command
+	 * @param optionPath The path of the option
+	 * @param prefix The value typed by the user
+	 * @return the choices to send to Discord, an empty list if no source is registered for the option
+	 */
+	public List<ApplicationCommandOptionChoiceData> complete(String commandName, String optionPath, String prefix) {
+		final Registration registration = sources.get(new OptionKey(commandName, optionPath));
+		if(registration == null) return List.of();
+
+		final String value = prefix == null ? "" : prefix;
+		if(!registration.source().isCacheable()) return toData(registration.source().complete(value, TrieAutocompleteSource.MAX_RESULTS));
+
+		final List<ApplicationCommandOptionChoiceData> cached = registration.cache().get(value);
+		if(cached != null) return cached;
+
+		final List<ApplicationCommandOptionChoiceData> choices = toData(registration.source().complete(value, TrieAutocompleteSource.MAX_RESULTS));
+		if(registration.cache().size() >= MAX_CACHED_PREFIXES) registration.cache().clear();
+		registration.cache().put(value, choices);
+
+		return choices;
+	}
+
+	private static List<ApplicationCommandOptionChoiceData> toData(List<AutocompleteChoice> choices) {
+		final int size = Math.min(choices.size(), TrieAutocompleteSource.MAX_RESULTS);
+		final ApplicationCommandOptionChoiceData[] data = new ApplicationCommandOptionChoiceData[size];
+		for(int i = 0; i < size; i++) data[i] = choices.get(i).getData();
+
+		return List.of(data);
+	}
+
+	private record OptionKey(String commandName, String optionPath) { }
+
+	private record Registration(AutocompleteSource source, ConcurrentHashMap<String, List<ApplicationCommandOptionChoiceData>> cache) {
+
+		private Registration(AutocompleteSource source) {
+			this(source, new ConcurrentHashMap<String, List<ApplicationCommandOptionChoiceData>>());
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package apbiot.core.command.autocomplete;
+
+import java.util.List;
+
+/**
+ * Source of the values proposed for an option with autocomplete.<br/>
+ * A source is called while the user is typing, it must answer without blocking:
+ * the values should be held in memory, for example in a {@link TrieAutocompleteSource}.
+ * @author 278deco
+ * @see AutocompleteRegistry
+ * @since 6.3.0
+ */
+@FunctionalInterface
+public interface AutocompleteSource {
+
+	/**
+	 * Find the choices matching what the user has typed
+	 * @param prefix The value typed by the user, may be empty
+	 * @param limit The maximum number of choices returned
+	 * @return the choices, the most relevant first
+	 */
+	List<AutocompleteChoice> complete(String prefix, int limit);
+
+	/**
+	 * @return if the choices returned for a prefix can be cached by the {@link AutocompleteRegistry}.
+	 * A source whose values change without being registered again must return false
+	 */
+	default boolean isCacheable() {
+		return true;
+	}
+}
@@ -0,0 +1,223 @@
+package apbiot.core.command.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link AutocompleteSource} holding its choices in a prefix trie.<br/>
+ * Each node of the trie keeps the best {@value #MAX_RESULTS} choices starting with its prefix, so a completion
+ * only walks the characters typed by the user whatever the number of choices.
+ * The source is immutable, a new source must be registered to change the choices.
+ * <p>
+ * The names are compared ignoring the case. When the words are indexed, a choice also matches the prefixes of each word of its name.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class TrieAutocompleteSource implements AutocompleteSource {
+
+	/**
+	 * Maximum number of choices accepted by Discord
+	 */
+	public static final int MAX_RESULTS = 25;
+
+	private static final Comparator<AutocompleteChoice> RANKING =
+			Comparator.comparingLong(AutocompleteChoice::getWeight).reversed().thenComparing(AutocompleteChoice::getName, String.CASE_INSENSITIVE_ORDER);
+
+	private final AutocompleteChoice[] choices;
+	private final Node root;
+
+	private TrieAutocompleteSource(TrieAutocompleteSource.Builder builder) {
+		//The index of a choice is its rank, the best choices of a node are its smallest indexes
+		this.choices = builder.choices.stream().sorted(RANKING).toArray(AutocompleteChoice[]::new);
+		this.root = new Node();
+
+		for(int i = 0; i < choices.length; i++) {
+			final String name = normalize(choices[i].getName());
+			root.insert(name, 0, i);
+
+			if(builder.indexWords) {
+				for(int start = 1; start < name.length(); start++) {
+					if(Character.isWhitespace(name.charAt(start - 1)) && !Character.isWhitespace(name.charAt(start))) root.insert(name, start, i);
+				}
+			}
+		}
+		root.freeze();
+	}
+
+	@Override
+	public List<AutocompleteChoice> complete(String prefix, int limit) {
+		final Node node = root.find(normalize(prefix));
+		if(node == null || limit <= 0) return List.of();
+
+		final int size = Math.min(limit, node.best.length);
+		final List<AutocompleteChoice> result = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) result.add(choices[node.best[i]]);
+
+		return result;
+	}
+
+	/**
+	 * @return the number of choices
+	 */
+	public int size() {
+		return choices.length;
+	}
+
+	private static String normalize(String value) {
+		return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+	}
+
+	private static final class Node {
+
+		private static final char[] NO_KEYS = new char[0];
+		private static final Node[] NO_CHILDREN = new Node[0];
+		private static final int[] NO_CHOICES = new int[0];
+
+		private char[] keys = NO_KEYS;
+		private Node[] children = NO_CHILDREN;
+		private int childCount;
+		//Choices whose indexed name ends at this node, then the best choices of the node once frozen
+		private int[] terminals = NO_CHOICES;
+		private int terminalCount;
+		private int[] best;
+
+		private void insert(String name, int start, int choice) {
+			Node node = this;
+			for(int i = start; i < name.length(); i++) node = node.child(name.charAt(i));
+
+			if(node.terminalCount == node.terminals.length) node.terminals = Arrays.copyOf(node.terminals, Math.max(2, node.terminalCount * 2));
+			node.terminals[node.terminalCount++] = choice;
+		}
+
+		private Node child(char key) {
+			final int index = Arrays.binarySearch(keys, 0, childCount, key);
+			if(index >= 0) return children[index];
+
+			if(childCount == keys.length) {
+				final int capacity = Math.max(2, childCount * 2);
+				keys = Arrays.copyOf(keys, capacity);
+				children = Arrays.copyOf(children, capacity);
+			}
+
+			final int insertion = -index - 1;
+			System.arraycopy(keys, insertion, keys, insertion + 1, childCount - insertion);
+			System.arraycopy(children, insertion, children, insertion + 1, childCount - insertion);
+
+			final Node node = new Node();
+			keys[insertion] = key;
+			children[insertion] = node;
+			childCount++;
+			return node;
+		}
+
+		private Node find(String prefix) {
+			Node node = this;
+			for(int i = 0; i < prefix.length() && node != null; i++) {
+				final int index = Arrays.binarySearch(node.keys, 0, node.childCount, prefix.charAt(i));
+				node = index >= 0 ? node.children[index] : null;
+			}
+			return node;
+		}
+
+		/**
+		 * Compute the best choices of each node and trim the arrays
+		 */
+		private void freeze() {
+			//Iterative post-order, the names of thousands of choices could overflow the stack
+			final List<Node> order = new ArrayList<>();
+			final List<Node> pending = new ArrayList<>();
+			pending.add(this);
+			while(!pending.isEmpty()) {
+				final Node node = pending.remove(pending.size() - 1);
+				order.add(node);
+				for(int i = 0; i < node.childCount; i++) pending.add(node.children[i]);
+			}
+
+			for(int n = order.size() - 1; n >= 0; n--) order.get(n).computeBest();
+		}
+
+		private void computeBest() {
+			keys = Arrays.copyOf(keys, childCount);
+			children = Arrays.copyOf(children, childCount);
+
+			//A node with a single child and no choice of its own has the same best choices, the array is shared
+			if(terminalCount == 0 && childCount == 1) {
+				best = children[0].best;
+				terminals = NO_CHOICES;
+				return;
+			}
+
+			int total = terminalCount;
+			for(int i = 0; i < childCount; i++) total += children[i].best.length;
+
+			final int[] candidates = Arrays.copyOf(terminals, total);
+			int position = terminalCount;
+			for(int i = 0; i < childCount; i++) {
+				System.arraycopy(children[i].best, 0, candidates, position, children[i].best.length);
+				position += children[i].best.length;
+			}
+			Arrays.sort(candidates);
+
+			//A choice indexed by several words can appear more than once
+			final int[] selected = new int[Math.min(total, MAX_RESULTS)];
+			int size = 0;
+			for(int i = 0; i < candidates.length && size < selected.length; i++) {
+				if(size == 0 || selected[size - 1] != candidates[i]) selected[size++] = candidates[i];
+			}
+
+			best = size == selected.length ? selected : Arrays.copyOf(selected, size);
+			terminals = NO_CHOICES;
+		}
+	}
+
+	public static TrieAutocompleteSource.Builder builder() {
+		return new TrieAutocompleteSource.Builder();
+	}
+
+	public static final class Builder {
+
+		private final List<AutocompleteChoice> choices = new ArrayList<>();
+		private boolean indexWords;
+
+		private Builder() { }
+
+		public Builder addChoice(AutocompleteChoice choice) {
+			if(choice == null) throw new IllegalArgumentException("Choice cannot be null");
+			this.choices.add(choice);
+			return this;
+		}
+
+		public Builder addChoices(Collection<AutocompleteChoice> choices) {
+			choices.forEach(this::addChoice);
+			return this;
+		}
+
+		/**
+		 * Add string choices, with their name as value
+		 * @param names The names of the choices
+		 * @return this builder
+		 */
+		public Builder addValues(Collection<String> names) {
+			names.forEach(name -> addChoice(AutocompleteChoice.of(name)));
+			return this;
+		}
+
+		/**
+		 * Match the prefixes of each word of the names, not only the prefixes of the names
+		 * @param indexWords if the words are indexed
+		 * @return this builder
+		 */
+		public Builder indexWords(boolean indexWords) {
+			this.indexWords = indexWords;
+			return this;
+		}
+
+		public TrieAutocompleteSource build() {
+			return new TrieAutocompleteSource(this);
+		}
+	}
+}
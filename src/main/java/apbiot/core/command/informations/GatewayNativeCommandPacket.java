@@ -1,5 +1,6 @@
 package apbiot.core.command.informations;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +17,9 @@ public class GatewayNativeCommandPacket implements IGatewayInformations {
 	private final MessageCreateEvent event;
 	
 	private final User user;
-	private final String content;
-	private final List<String> arguments;
+	private final NativeCommandTokens tokens;
+	private String content;
+	private List<String> arguments;
 	private final String cmdName;
 	private final String prefix;
 	private final MessageChannel channel;
@@ -35,12 +37,33 @@ public class GatewayNativeCommandPacket implements IGatewayInformations {
 		this.event = commandEvent;
 		this.user = executor;
 		this.channel = channel;
+		this.tokens = null;
 		this.content = StringHelper.listToString(arguments, " ");
 		this.arguments = arguments;
 		this.cmdName = commandName;
 		this.prefix = usedPrefix;
 	}
 	
+	/**
+	 * Create a new instance of CommandGatewayInformations from the tokens of the message.<br/>
+	 * The arguments and the content are extracted from the message only when they are accessed.
+	 * Unlike the arguments split on the spaces, an argument written between quotes is a single argument and is returned without its quotes
+	 * @param commandEvent - the MessageCreateEvent fired by discord
+	 * @param executor - the executor of the command
+	 * @param channel - the channel where the command has been executed
+	 * @param tokens - the tokens of the user's message
+	 * @param usedPrefix - the prefix used by the bot
+	 * @since 6.3.0
+	 */
+	public GatewayNativeCommandPacket(MessageCreateEvent commandEvent, User executor, MessageChannel channel, NativeCommandTokens tokens, String usedPrefix) {
+		this.event = commandEvent;
+		this.user = executor;
+		this.channel = channel;
+		this.tokens = tokens;
+		this.cmdName = tokens.getCommandName();
+		this.prefix = usedPrefix;
+	}
+	
 	public MessageCreateEvent getEvent() {
 		return this.event;
 	}
@@ -55,11 +78,28 @@ public class GatewayNativeCommandPacket implements IGatewayInformations {
 		return this.channel;
 	}
 	
+	/**
+	 * @return the arguments of the command separated by a space, see {@link NativeCommandTokens#getArgumentsContent()} for the arguments as written by the user
+	 */
 	public String getMessageContent() {
+		if(this.content == null) this.content = StringHelper.listToString(this.tokens.getArguments(), " ");
 		return this.content;
 	}
 	
+	/**
+	 * Get the tokens of the user's message
+	 * @return the tokens or an empty optional if the packet has been created from a list of arguments
+	 * @since 6.3.0
+	 */
+	public Optional<NativeCommandTokens> getTokens() {
+		return Optional.ofNullable(this.tokens);
+	}
+	
+	/**
+	 * @return the arguments of the command, the list is copied from the tokens the first time it is accessed and can be modified
+	 */
 	public List<String> getArguments() {
+		if(this.arguments == null) this.arguments = new ArrayList<>(this.tokens.getArguments());
 		return this.arguments;
 	}
 	
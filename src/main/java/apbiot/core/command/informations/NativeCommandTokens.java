@@ -0,0 +1,247 @@
+package apbiot.core.command.informations;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Tokens of a native command read from an user's message.<br/>
+ * The message is read in a single pass and only the offsets of the tokens are stored,
+ * the arguments are extracted from the original content when they are accessed.
+ * <p>
+ * A message is tokenized using the following rules:
+ * <ul>
+ * 	<li>The message must start with the prefix, which can be separated from the command's name by whitespaces</li>
+ * 	<li>The tokens are separated by one or more whitespaces</li>
+ * 	<li>An argument starting with a double quote ends at the next double quote and can contain whitespaces.
+ * 	The quotes aren't part of the argument</li>
+ * </ul>
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class NativeCommandTokens {
+
+	private static final char QUOTE = '"';
+	private static final int[] NO_OFFSETS = new int[0];
+
+	private final CharSequence source;
+	private final String commandName;
+	private final boolean prefixSeparated;
+
+	//Start and end offsets of each argument, stored by pair
+	private final int[] offsets;
+	private final int argumentCount;
+	//Bounds of the arguments in the source, quotes included
+	private final int contentStart;
+	private final int contentEnd;
+
+	private String[] values;
+	private List<String> arguments;
+	private String content;
+
+	private NativeCommandTokens(CharSequence source, String commandName, boolean prefixSeparated, int[] offsets, int argumentCount, int contentStart, int contentEnd) {
+		this.source = source;
+		this.commandName = commandName;
+		this.prefixSeparated = prefixSeparated;
+		this.offsets = offsets;
+		this.argumentCount = argumentCount;
+		this.contentStart = contentStart;
+		this.contentEnd = contentEnd;
+	}
+
+	/**
+	 * Tokenize an user's message
+	 * @param source The content of the message
+	 * @param prefix The prefix used by the bot
+	 * @return the tokens of the command or null if the message doesn't start with the prefix
+	 */
+	public static NativeCommandTokens parse(CharSequence source, String prefix) {
+		final int length = source.length();
+		if(length < prefix.length() || !startsWith(source, prefix)) return null;
+
+		int cursor = prefix.length();
+		final boolean prefixSeparated;
+		if(cursor < length && Character.isWhitespace(source.charAt(cursor))) {
+			cursor = skipWhitespaces(source, cursor);
+			prefixSeparated = cursor < length;
+		}else {
+			prefixSeparated = false;
+		}
+
+		final int nameStart = cursor;
+		cursor = skipToken(source, cursor);
+		final String commandName = source.subSequence(nameStart, cursor).toString();
+
+		int[] offsets = NO_OFFSETS;
+		int count = 0;
+		int contentStart = -1;
+		int contentEnd = -1;
+
+		cursor = skipWhitespaces(source, cursor);
+		while(cursor < length) {
+			final int tokenStart = cursor;
+			final int start, end;
+
+			if(source.charAt(cursor) == QUOTE) {
+				start = cursor + 1;
+				end = indexOf(source, QUOTE, start);
+				cursor = end < length ? end + 1 : end;
+			}else {
+				start = cursor;
+				end = skipToken(source, cursor);
+				cursor = end;
+			}
+
+			if(count * 2 == offsets.length) offsets = Arrays.copyOf(offsets, Math.max(8, offsets.length * 2));
+			offsets[count * 2] = start;
+			offsets[count * 2 + 1] = end;
+			count++;
+
+			if(contentStart == -1) contentStart = tokenStart;
+			contentEnd = cursor;
+
+			cursor = skipWhitespaces(source, cursor);
+		}
+
+		return new NativeCommandTokens(source, commandName, prefixSeparated, offsets, count, contentStart, contentEnd);
+	}
+
+	private static boolean startsWith(CharSequence source, String prefix) {
+		for(int i = 0; i < prefix.length(); i++) {
+			if(source.charAt(i) != prefix.charAt(i)) return false;
+		}
+		return true;
+	}
+
+	private static int skipWhitespaces(CharSequence source, int cursor) {
+		while(cursor < source.length() && Character.isWhitespace(source.charAt(cursor))) cursor++;
+		return cursor;
+	}
+
+	private static int skipToken(CharSequence source, int cursor) {
+		while(cursor < source.length() && !Character.isWhitespace(source.charAt(cursor))) cursor++;
+		return cursor;
+	}
+
+	private static int indexOf(CharSequence source, char c, int cursor) {
+		while(cursor < source.length() && source.charAt(cursor) != c) cursor++;
+		return cursor;
+	}
+
+	/**
+	 * @return the name of the command used, empty if the message only contains the prefix
+	 */
+	public String getCommandName() {
+		return commandName;
+	}
+
+	/**
+	 * @return if the prefix was separated from the command's name by whitespaces
+	 */
+	public boolean isPrefixSeparated() {
+		return prefixSeparated;
+	}
+
+	public int getArgumentCount() {
+		return argumentCount;
+	}
+
+	/**
+	 * Get an argument of the command. The argument is only extracted from the message the first time it is accessed
+	 * @param index The index of the argument
+	 * @return the argument
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public String getArgument(int index) {
+		if(index < 0 || index >= argumentCount) throw new IndexOutOfBoundsException("Index "+index+" out of bounds for length "+argumentCount);
+
+		if(values == null) values = new String[argumentCount];
+		String value = values[index];
+		if(value == null) {
+			value = source.subSequence(offsets[index * 2], offsets[index * 2 + 1]).toString();
+			values[index] = value;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Get an argument of the command as a view of the original message, without copying it
+	 * @param index The index of the argument
+	 * @return a view of the argument
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public CharSequence getArgumentView(int index) {
+		if(index < 0 || index >= argumentCount) throw new IndexOutOfBoundsException("Index "+index+" out of bounds for length "+argumentCount);
+
+		return new SourceView(source, offsets[index * 2], offsets[index * 2 + 1]);
+	}
+
+	/**
+	 * @return an unmodifiable list of the arguments, extracted lazily from the message
+	 */
+	public List<String> getArguments() {
+		if(arguments == null) arguments = new ArgumentList();
+		return arguments;
+	}
+
+	/**
+	 * @return the part of the message containing the arguments, as written by the user
+	 */
+	public String getArgumentsContent() {
+		if(content == null) content = argumentCount == 0 ? "" : source.subSequence(contentStart, contentEnd).toString();
+		return content;
+	}
+
+	private final class ArgumentList extends AbstractList<String> implements RandomAccess {
+
+		@Override
+		public String get(int index) {
+			return getArgument(index);
+		}
+
+		@Override
+		public int size() {
+			return argumentCount;
+		}
+	}
+
+	/**
+	 * Read-only window over a part of a {@link CharSequence}
+	 */
+	private static final class SourceView implements CharSequence {
+
+		private final CharSequence source;
+		private final int start;
+		private final int end;
+
+		private SourceView(CharSequence source, int start, int end) {
+			this.source = source;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if(index < 0 || index >= length()) throw new IndexOutOfBoundsException("Index "+index+" out of bounds for length "+length());
+			return source.charAt(start + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			if(from < 0 || to > length() || from > to) throw new IndexOutOfBoundsException("Range ["+from+", "+to+") out of bounds for length "+length());
+			return new SourceView(source, start + from, start + to);
+		}
+
+		@Override
+		public String toString() {
+			return source.subSequence(start, end).toString();
+		}
+	}
+}
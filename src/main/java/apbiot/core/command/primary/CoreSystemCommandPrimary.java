@@ -0,0 +1,130 @@
+package apbiot.core.command.primary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import apbiot.core.command.SystemCommand;
+import apbiot.core.dispatch.DispatchMetrics;
+import apbiot.core.dispatch.DispatchStage;
+import apbiot.core.dispatch.LatencyHistogram;
+import apbiot.core.objects.enums.ApplicationCommandType;
+import apbiot.core.pems.DeliveryStatistics;
+import apbiot.core.pems.EventSubscription;
+import apbiot.core.pems.ProgramEventManager;
+
+/**
+ * Built-in system command giving informations about the core of the program.<br/>
+ * Usage: <ul>
+ * <li>{@code core metrics [command] [type]}: display the latencies recorded while dispatching the commands</li>
+ * <li>{@code core metrics reset}: remove every latency recorded</li>
+ * <li>{@code core events}: display the state of the lanes delivering the program events</li>
+ * <li>{@code core listeners [reset]}: display the time spent by each listener handling each class of events, the slowest first</li>
+ * </ul>
+ * @since 6.3.0
+ */
+public class CoreSystemCommandPrimary extends SystemCommand {
+
+	private static final String USAGE = "Usage: core metrics [command] [native|chat_input|user|message] | core metrics reset | core events | core listeners [reset]";
+
+	public CoreSystemCommandPrimary() {
+		super("core");
+	}
+
+	@Override
+	public void execute(List<String> arguments) {
+		if(arguments.isEmpty()) {
+			LOGGER.info(USAGE);
+			return;
+		}
+
+		switch(arguments.get(0).toLowerCase()) {
+			case "metrics" -> executeMetrics(arguments.subList(1, arguments.size()));
+			case "events" -> executeEvents();
+			case "listeners" -> executeListeners(arguments.subList(1, arguments.size()));
+			default -> LOGGER.info(USAGE);
+		}
+	}
+
+	private void executeEvents() {
+		final ProgramEventManager manager = ProgramEventManager.get();
+		final String header = "Program events: "+manager.getListenersNumber()+" listener(s), "+manager.getSubscriptionsNumber()+" subscription(s)";
+		
+		LOGGER.info(manager.getAsyncEventBus().map(bus -> header+"\n"+bus).orElse(header+"\nEvents are delivered synchronously."));
+	}
+
+	private void executeListeners(List<String> arguments) {
+		final ProgramEventManager manager = ProgramEventManager.get();
+		if(!arguments.isEmpty() && arguments.get(0).equalsIgnoreCase("reset")) {
+			manager.resetDeliveryStatistics();
+			LOGGER.info("Listener statistics have been reset.");
+			return;
+		}
+
+		record Row(EventSubscription<?> subscription, Class<?> eventClass, DeliveryStatistics statistics) { }
+		final List<Row> rows = new ArrayList<>();
+		for(EventSubscription<?> subscription : manager.getSubscriptions()) {
+			subscription.getStatistics().forEach((eventClass, statistics) -> {
+				if(statistics.getCount() > 0) rows.add(new Row(subscription, eventClass, statistics));
+			});
+		}
+		if(rows.isEmpty()) {
+			LOGGER.info("No event delivered yet.");
+			return;
+		}
+		rows.sort(Comparator.comparingLong((Row row) -> row.statistics().getTotalNanos()).reversed());
+
+		final StringBuilder sb = new StringBuilder("Listener statistics (slow threshold: ")
+				.append(manager.getSlowListenerThreshold().map(threshold -> threshold.toMillis()+"ms").orElse("disabled")).append("):")
+				.append(String.format("%n  %-32s %-32s %-12s %10s %10s %10s %12s %6s", "Listener", "Event", "Priority", "Count", "Avg(us)", "Max(us)", "Total(ms)", "Slow"));
+		for(Row row : rows) {
+			final String listener = row.subscription().getListenerName();
+			sb.append(String.format("%n  %-32s %-32s %-12s %10d %10d %10d %12d %6d",
+					listener.substring(listener.lastIndexOf('.') + 1), row.eventClass().getSimpleName(), row.subscription().getPriority(),
+					row.statistics().getCount(), TimeUnit.NANOSECONDS.toMicros(row.statistics().getAverageNanos()),
+					TimeUnit.NANOSECONDS.toMicros(row.statistics().getMaxNanos()), TimeUnit.NANOSECONDS.toMillis(row.statistics().getTotalNanos()),
+					row.statistics().getSlowCount()));
+		}
+
+		LOGGER.info(sb.toString());
+	}
+
+	private void executeMetrics(List<String> arguments) {
+		if(!arguments.isEmpty() && arguments.get(0).equalsIgnoreCase("reset")) {
+			DispatchMetrics.get().reset();
+			LOGGER.info("Dispatch metrics have been reset.");
+			return;
+		}
+
+		final String commandFilter = arguments.size() >= 1 ? arguments.get(0) : null;
+		final ApplicationCommandType typeFilter;
+		try {
+			typeFilter = arguments.size() >= 2 ? ApplicationCommandType.valueOf(arguments.get(1).toUpperCase()) : null;
+		}catch(IllegalArgumentException e) {
+			LOGGER.info("Unknown command type "+arguments.get(1)+". "+USAGE);
+			return;
+		}
+
+		final StringBuilder sb = new StringBuilder("Dispatch latencies:");
+		boolean found = false;
+		for(ApplicationCommandType type : ApplicationCommandType.values()) {
+			if(typeFilter != null && typeFilter != type) continue;
+
+			final Map<String, Map<DispatchStage, LatencyHistogram>> histograms = new TreeMap<>(DispatchMetrics.get().getHistograms(type));
+			for(var entry : histograms.entrySet()) {
+				if(commandFilter != null && !commandFilter.equalsIgnoreCase(entry.getKey())) continue;
+				if(entry.getValue().isEmpty()) continue;
+
+				found = true;
+				sb.append("\n").append(entry.getKey()).append(" (").append(type).append(")");
+				entry.getValue().forEach((stage, histogram) -> sb.append("\n  ").append(String.format("%-16s", stage)).append(histogram));
+			}
+		}
+
+		LOGGER.info(found ? sb.toString() : "No latency recorded yet.");
+	}
+
+}
@@ -1,22 +1,24 @@
 package apbiot.core.commandator;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import apbiot.core.objects.enums.ApplicationCommandType;
 
 /**
- * A pseudo-AI using k-NN algorithm to determine what command the user wanted to write 
- * Main class
+ * A pseudo-AI determining what command the user wanted to write 
+ * Main class<br/>
+ * The commands are indexed once when the Commandator is created, a request is then answered on the caller's thread.
  * @author 278deco
- * @see apbiot.core.commandator.CommandatorRequest
- * @see apbiot.core.commandator.CommandatorMethods
- * @version 1.1.0
+ * @see apbiot.core.commandator.CommandatorIndex
+ * @version 1.2.0
  */
 public class Commandator {
 	
 	private Set<CommandatorEntry> commandsList = new HashSet<CommandatorEntry>();
+	private final CommandatorIndex index;
 	
 	/**
 	 * Create a new instance of Commandator
@@ -24,6 +26,7 @@ public class Commandator {
 	 */
 	public Commandator(Set<CommandatorEntry> commands) {
 		this.commandsList.addAll(commands);
+		this.index = new CommandatorIndex(this.commandsList);
 	}
 	
 	/**
@@ -40,6 +43,34 @@ public class Commandator {
 		slashCommands.forEach(cmdName -> {
 			this.commandsList.add(new CommandatorEntry(cmdName, ApplicationCommandType.CHAT_INPUT));
 		});
+		
+		this.index = new CommandatorIndex(this.commandsList);
+	}
+	
+	/**
+	 * Find the command the user most likely wanted to write
+	 * @param userCmd The command entered by the user
+	 * @return the closest command, empty if no command is close enough
+	 * @since 6.3.0
+	 */
+	public Optional<CommandatorEntry> suggest(String userCmd) {
+		final List<CommandatorEntry> suggestions = suggest(userCmd, 1);
+		return suggestions.isEmpty() ? Optional.empty() : Optional.of(suggestions.get(0));
+	}
+	
+	/**
+	 * Find the commands the user most likely wanted to write.<br/>
+	 * The number of typos accepted depends on the length of the command: 1 up to 4 characters, 2 up to 8 characters, 3 above
+	 * @param userCmd The command entered by the user
+	 * @param limit The maximum number of commands returned
+	 * @return the closest commands, the closest first
+	 * @since 6.3.0
+	 */
+	public List<CommandatorEntry> suggest(String userCmd, int limit) {
+		final int length = CommandatorIndex.normalize(userCmd).length();
+		final int maxDistance = length <= 4 ? 1 : length <= 8 ? 2 : 3;
+		
+		return index.search(userCmd, maxDistance, limit);
 	}
 	
 	/**
@@ -47,13 +78,11 @@ public class Commandator {
 	 * @param userCmd The command entered by the user
 	 * @return the result of the request
 	 * @throws InterruptedException
+	 * @deprecated since 6.3.0, the request doesn't need a thread anymore. Use {@link #suggest(String)}
 	 */
+	@Deprecated
 	public Optional<CommandatorEntry> newRequest(String userCmd) throws InterruptedException {
-		CommandatorRequest request = new CommandatorRequest(commandsList, userCmd);
-		Thread t = new Thread(request);
-		t.start();
-		t.join();
-		
-		return request.getProposalCommand();
+		return suggest(userCmd);
 	}
+
 }
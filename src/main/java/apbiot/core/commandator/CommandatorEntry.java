@@ -33,4 +33,14 @@ public class CommandatorEntry {
 		return this.commandName.equals(entry.commandName) && this.commandType.equals(entry.commandType);
 	}
 	
+	@Override
+	public int hashCode() {
+		return 31 * commandName.hashCode() + commandType.hashCode();
+	}
+	
+	@Override
+	public String toString() {
+		return commandName+" ("+commandType+")";
+	}
+	
 }
@@ -0,0 +1,315 @@
+package apbiot.core.commandator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import apbiot.core.helper.StringHelper;
+
+/**
+ * Index of the command names searched by the {@link Commandator}.<br/>
+ * The names are normalized once when the index is built and stored in a BK-tree ordered by their
+ * Damerau-Levenshtein distance, so a search only compares the query with a few names.
+ * The index is immutable and can be searched by several threads at the same time.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class CommandatorIndex {
+
+	//Largest distance matrix kept by a thread between two searches
+	private static final int MAX_RETAINED_CELLS = 1 << 16;
+	private static final ThreadLocal<DistanceBuffer> BUFFERS = ThreadLocal.withInitial(() -> new DistanceBuffer(0));
+
+	private final Node root;
+	private final int size;
+	private final int maxNameLength;
+
+	/**
+	 * Build the index
+	 * @param entries The commands to index
+	 */
+	public CommandatorIndex(Collection<CommandatorEntry> entries) {
+		//The commands with the same normalized name share a node
+		final Map<String, List<CommandatorEntry>> names = new LinkedHashMap<>();
+		for(CommandatorEntry entry : entries) {
+			final String name = normalize(entry.getCommandName());
+			if(!name.isEmpty()) names.computeIfAbsent(name, key -> new ArrayList<>(2)).add(entry);
+		}
+
+		Node tree = null;
+		int longest = 0;
+		for(Map.Entry<String, List<CommandatorEntry>> name : names.entrySet()) {
+			longest = Math.max(longest, name.getKey().length());
+			name.getValue().sort(Comparator.comparing(CommandatorEntry::getCommandType));
+			final Node node = new Node(name.getKey(), name.getValue().toArray(CommandatorEntry[]::new));
+			if(tree == null) tree = node;
+			else tree.add(node);
+		}
+
+		this.root = tree;
+		this.size = names.size();
+		this.maxNameLength = longest;
+	}
+
+	/**
+	 * Find the commands closest to a name
+	 * @param query The name written by the user
+	 * @param maxDistance The maximum number of edits between the query and a command
+	 * @param limit The maximum number of commands returned
+	 * @return the commands, the closest first. The commands at the same distance are sorted by name
+	 */
+	public List<CommandatorEntry> search(String query, int maxDistance, int limit) {
+		final String normalized = normalize(query);
+		if(root == null || normalized.isEmpty() || limit <= 0) return List.of();
+		//Each name is more than maxDistance deletions away from the query
+		if(normalized.length() - maxNameLength > maxDistance) return List.of();
+
+		final long queryCharacters = characters(normalized);
+		final List<Match> matches = new ArrayList<>();
+		final DistanceBuffer buffer = buffer(normalized.length(), maxNameLength);
+		final Deque<Node> pending = new ArrayDeque<>();
+		pending.push(root);
+
+		while(!pending.isEmpty()) {
+			final Node node = pending.pop();
+			//Beyond this bound no child can match, the exact distance isn't needed
+			final int bound = maxDistance + node.maxChildDistance;
+			if(lowerBound(queryCharacters, node.characters) > bound) continue;
+			
+			final int distance = buffer.distance(normalized, node.name, bound);
+			if(distance <= maxDistance) matches.add(new Match(node, distance));
+			if(distance > bound) continue;
+
+			//Triangle inequality: only the children at [distance - maxDistance, distance + maxDistance] can match
+			for(int i = 0; i < node.childCount; i++) {
+				if(Math.abs(node.childDistances[i] - distance) <= maxDistance) pending.push(node.children[i]);
+			}
+		}
+
+		matches.sort(Comparator.comparingInt(Match::distance).thenComparing(match -> match.node().name));
+
+		final List<CommandatorEntry> result = new ArrayList<>(Math.min(limit, matches.size()));
+		for(Match match : matches) {
+			for(CommandatorEntry entry : match.node().entries) {
+				if(result.size() == limit) return result;
+				result.add(entry);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the number of distinct normalized names
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Normalize a command name: accents, punctuation and case are ignored.<br/>
+	 * The names only made of ASCII characters, which are most of the commands, don't need the unicode normalization.
+	 * @param name The name
+	 * @return the normalized name
+	 */
+	static String normalize(String name) {
+		final StringBuilder sb = new StringBuilder(name.length());
+		for(int i = 0; i < name.length(); i++) {
+			final char c = name.charAt(i);
+			if(c >= 0x80) return StringHelper.getRawCharacterString(name).toLowerCase();
+
+			if((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) sb.append(c);
+			else if(c >= 'A' && c <= 'Z') sb.append((char)(c + ('a' - 'A')));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return the set of the characters of a string, the characters sharing a bit are considered equal
+	 */
+	private static long characters(String str) {
+		long set = 0L;
+		for(int i = 0; i < str.length(); i++) set |= 1L << (str.charAt(i) % Long.SIZE);
+		return set;
+	}
+
+	/**
+	 * An edit adds at most one character missing from the other string, and removes at most one
+	 * @return a lower bound of the distance between two strings, computed from their sets of characters
+	 */
+	private static int lowerBound(long a, long b) {
+		return Math.max(Long.bitCount(a & ~b), Long.bitCount(b & ~a));
+	}
+
+	/**
+	 * Compute the Damerau-Levenshtein distance between two strings, a transposition of two adjacent characters counts as one edit
+	 * @param a The first string
+	 * @param b The second string
+	 * @return the distance
+	 */
+	public static int distance(String a, String b) {
+		return buffer(a.length(), b.length()).distance(a, b, Integer.MAX_VALUE - 1);
+	}
+
+	/**
+	 * Get a buffer able to compare strings of the given lengths without growing, reused by the calling thread
+	 * @param firstLength The length of the first strings compared
+	 * @param secondLength The maximum length of the second strings compared
+	 * @return the buffer
+	 */
+	private static DistanceBuffer buffer(int firstLength, int secondLength) {
+		final long cells = (long)(firstLength + 2) * (secondLength + 2);
+		//Don't keep a large matrix for the lifetime of the thread
+		if(cells > MAX_RETAINED_CELLS) return new DistanceBuffer(Math.toIntExact(cells));
+
+		final DistanceBuffer buffer = BUFFERS.get();
+		buffer.ensureCapacity((int)cells);
+		return buffer;
+	}
+
+	private record Match(Node node, int distance) { }
+
+	private static final class Node {
+
+		private final String name;
+		private final CommandatorEntry[] entries;
+		private final long characters;
+		private int[] childDistances = new int[0];
+		private Node[] children = new Node[0];
+		private int childCount;
+		private int maxChildDistance;
+
+		private Node(String name, CommandatorEntry[] entries) {
+			this.name = name;
+			this.entries = entries;
+			this.characters = characters(name);
+		}
+
+		private void add(Node node) {
+			Node current = this;
+			while(true) {
+				final int distance = distance(current.name, node.name);
+
+				Node next = null;
+				for(int i = 0; i < current.childCount; i++) {
+					if(current.childDistances[i] == distance) {
+						next = current.children[i];
+						break;
+					}
+				}
+
+				if(next == null) {
+					current.addChild(distance, node);
+					return;
+				}
+				current = next;
+			}
+		}
+
+		private void addChild(int distance, Node node) {
+			if(childCount == children.length) {
+				final int capacity = Math.max(4, childCount * 2);
+				childDistances = Arrays.copyOf(childDistances, capacity);
+				children = Arrays.copyOf(children, capacity);
+			}
+			childDistances[childCount] = distance;
+			children[childCount++] = node;
+			maxChildDistance = Math.max(maxChildDistance, distance);
+		}
+	}
+
+	/**
+	 * Distance matrix, reused for every comparison of a search and by the next searches of the thread
+	 */
+	private static final class DistanceBuffer {
+
+		private int[] matrix;
+		//Last row of the first string where each character has been seen
+		private final int[] asciiRows = new int[128];
+		private Map<Character, Integer> otherRows;
+
+		private DistanceBuffer(int cells) {
+			this.matrix = new int[cells];
+		}
+
+		private void ensureCapacity(int cells) {
+			if(matrix.length < cells) matrix = new int[cells];
+		}
+
+		/**
+		 * Unrestricted Damerau-Levenshtein distance (Lowrance-Wagner). Unlike the optimal string alignment,
+		 * it satisfies the triangle inequality needed by the BK-tree.<br/>
+		 * The minimum of a row never decreases, so the computation stops as soon as a whole row is above the bound
+		 * @return the distance, or {@code bound + 1} if it is greater than the bound
+		 */
+		private int distance(String a, String b, int bound) {
+			final int n = a.length();
+			final int m = b.length();
+			if(Math.abs(n - m) > bound) return bound + 1;
+			final int width = m + 2;
+			if(matrix.length < (n + 2) * width) matrix = new int[(n + 2) * width];
+
+			Arrays.fill(asciiRows, 0);
+			if(otherRows != null) otherRows.clear();
+
+			final int[] h = matrix;
+			final int max = n + m;
+			h[0] = max;
+			for(int i = 0; i <= n; i++) {
+				h[(i + 1) * width] = max;
+				h[(i + 1) * width + 1] = i;
+			}
+			for(int j = 0; j <= m; j++) {
+				h[j + 1] = max;
+				h[width + j + 1] = j;
+			}
+
+			for(int i = 1; i <= n; i++) {
+				final char ac = a.charAt(i - 1);
+				int lastMatchColumn = 0;
+				int rowMin = i;
+
+				for(int j = 1; j <= m; j++) {
+					final char bc = b.charAt(j - 1);
+					final int i1 = lastRow(bc);
+					final int j1 = lastMatchColumn;
+
+					final int cost;
+					if(ac == bc) {
+						cost = 0;
+						lastMatchColumn = j;
+					}else {
+						cost = 1;
+					}
+
+					int value = h[i * width + j] + cost;
+					value = Math.min(value, h[(i + 1) * width + j] + 1);
+					value = Math.min(value, h[i * width + j + 1] + 1);
+					value = Math.min(value, h[i1 * width + j1] + (i - i1 - 1) + 1 + (j - j1 - 1));
+					h[(i + 1) * width + j + 1] = value;
+					if(value < rowMin) rowMin = value;
+				}
+				if(rowMin > bound) return bound + 1;
+
+				if(ac < 128) asciiRows[ac] = i;
+				else {
+					if(otherRows == null) otherRows = new HashMap<>();
+					otherRows.put(ac, i);
+				}
+			}
+
+			return Math.min(h[(n + 1) * width + m + 1], bound + 1);
+		}
+
+		private int lastRow(char c) {
+			if(c < 128) return asciiRows[c];
+			return otherRows == null ? 0 : otherRows.getOrDefault(c, 0);
+		}
+	}
+}
@@ -13,8 +13,10 @@ import apbiot.core.objects.Tuple;
  * A pseudo-AI using k-NN algorithm to determine what command the user wanted to write
  * class containing the method
  * @version 1.1.0
+ * @deprecated since 6.3.0, replaced by the {@link CommandatorIndex} used by {@link Commandator#suggest(String, int)}
  * @author 278deco
  */
+@Deprecated
 public abstract class CommandatorMethods {
 
 	protected volatile Set<CommandatorEntry> commandsList;
@@ -11,7 +11,9 @@ import apbiot.core.objects.Tuple;
  * Request class
  * @author 278deco
  * @version 1.1.0
+ * @deprecated since 6.3.0, replaced by the {@link CommandatorIndex} used by {@link Commandator#suggest(String, int)}
  */
+@Deprecated
 public class CommandatorRequest extends CommandatorMethods implements Runnable {
 
 	private volatile Optional<CommandatorEntry> requestedCommand;
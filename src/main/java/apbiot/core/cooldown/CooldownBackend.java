@@ -0,0 +1,56 @@
+package apbiot.core.cooldown;
+
+import java.util.UUID;
+
+/**
+ * Storage of the cooldowns of the users, keyed by (user, command).<br/>
+ * The methods are called while dispatching the commands and must answer from memory without blocking,
+ * an implementation sharing the cooldowns with other processes synchronizes in the background.
+ * <p>
+ * The client keys the cooldowns by {@link apbiot.core.command.AbstractCommandInstance#getStableID()}, which is the same in every process.
+ * @author 278deco
+ * @see CooldownStore
+ * @see DatabaseCooldownBackend
+ * @since 6.3.0
+ */
+public interface CooldownBackend {
+
+	/**
+	 * Get the remaining time of the cooldown of an user for a command
+	 * @param userId The id of the user
+	 * @param commandId The id of the command
+	 * @return the remaining time in nanoseconds or 0 if the user has no active cooldown
+	 */
+	long getRemainingNanos(long userId, UUID commandId);
+
+	/**
+	 * Start a cooldown if the user has no active cooldown for the command, the check and the write are atomic.<br/>
+	 * Used while dispatching a command so several messages sent at the same time cannot all pass the check
+	 * @param userId The id of the user
+	 * @param commandId The id of the command
+	 * @param durationNanos The duration of the cooldown in nanoseconds
+	 * @return 0 if the cooldown has been started, otherwise the remaining time in nanoseconds of the active cooldown
+	 */
+	long tryAcquire(long userId, UUID commandId, long durationNanos);
+
+	/**
+	 * Store a cooldown, replacing the previous one of the user for this command
+	 * @param userId The id of the user
+	 * @param commandId The id of the command
+	 * @param durationNanos The duration of the cooldown in nanoseconds
+	 */
+	void put(long userId, UUID commandId, long durationNanos);
+
+	/**
+	 * Remove the cooldown of an user for a command
+	 * @param userId The id of the user
+	 * @param commandId The id of the command
+	 * @return if a cooldown has been removed
+	 */
+	boolean remove(long userId, UUID commandId);
+
+	/**
+	 * Release the resources of the backend
+	 */
+	void shutdown();
+}
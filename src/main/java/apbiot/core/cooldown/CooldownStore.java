@@ -0,0 +1,491 @@
+package apbiot.core.cooldown;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent store of the cooldowns of the users, keyed by (user, command).<br/>
+ * The cooldowns are stored as primitive deadlines in striped open-addressing tables:
+ * a lookup or an insert costs a single probe sequence and doesn't allocate, the reads are lock-free in the common case.
+ * <p>
+ * The expired cooldowns are evicted by a hashed timing wheel ticking in the background.
+ * A cooldown past its deadline is never returned, even if it hasn't been evicted yet.
+ * This is the in-memory {@link CooldownBackend}, cooldowns aren't shared with other processes.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class CooldownStore implements CooldownBackend {
+
+	private static final int STRIPE_BITS = 6;
+	private static final int STRIPES = 1 << STRIPE_BITS;
+	private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+	private final Stripe[] stripes = new Stripe[STRIPES];
+	private final TimingWheel wheel;
+
+	//Commands are identified by a small index to keep the keys primitive
+	private final ConcurrentHashMap<UUID, Integer> commandIndexes = new ConcurrentHashMap<>();
+	private final AtomicInteger nextCommandIndex = new AtomicInteger(1);
+
+	/**
+	 * Create a new store using a timing wheel of 512 ticks of 1 second
+	 */
+	public CooldownStore() {
+		this(Duration.ofSeconds(1), 512);
+	}
+
+	/**
+	 * Create a new store
+	 * @param tickDuration The duration of a tick of the timing wheel, which is the precision of the eviction
+	 * @param wheelSize The number of slots of the timing wheel
+	 */
+	public CooldownStore(Duration tickDuration, int wheelSize) {
+		if(tickDuration.isNegative() || tickDuration.isZero()) throw new IllegalArgumentException("Tick duration must be strictly positive");
+		if(wheelSize <= 0) throw new IllegalArgumentException("Wheel size must be strictly positive");
+
+		for(int i = 0; i < STRIPES; i++) this.stripes[i] = new Stripe();
+		this.wheel = new TimingWheel(tickDuration.toNanos(), Integer.highestOneBit(wheelSize - 1 > 0 ? wheelSize - 1 : 1) << 1);
+	}
+
+	/**
+	 * Store a cooldown, replacing the previous one of the user for this command
+	 * @param userId The id of the user
+	 * @param commandId The id of the command
+	 * @param duration The duration of the cooldown
+	 */
+	public void put(long userId, UUID commandId, Duration duration) {
+		put(userId, commandId, duration.toNanos());
+	}
+
+	/**
+	 * Store a cooldown, replacing the previous one of the user for this command
+	 * @param userId The id of the user
+	 * @param commandId The id of the command
+	 * @param durationNanos The duration of the cooldown in nanoseconds
+	 */
+	@Override
+	public void put(long userId, UUID commandId, long durationNanos) {
+		final int command = commandIndex(commandId);
+		final long deadline = System.nanoTime() + durationNanos;
+
+		final long hash = hash(userId, command);
+		stripeOf(hash).put(userId, command, deadline, hash);
+		this.wheel.schedule(userId, command, deadline);
+	}
+
+	@Override
+	public long tryAcquire(long userId, UUID commandId, long durationNanos) {
+		//Most of the checks find an active cooldown or none, without taking the write lock
+		final long remaining = getRemainingNanos(userId, commandId);
+		if(remaining > 0) return remaining;
+
+		final int command = commandIndex(commandId);
+		final long now = System.nanoTime();
+		final long deadline = now + durationNanos;
+
+		final long hash = hash(userId, command);
+		final long previous = stripeOf(hash).putIfEnded(userId, command, deadline, hash, now);
+		if(previous != Stripe.ABSENT) return previous - now;
+
+		this.wheel.schedule(userId, command, deadline);
+		return 0;
+	}
+
+	/**
+	 * Get the remaining time of the cooldown of an user for a command
+	 * @param userId The id of the user
+	 * @param commandId The id of the command
+	 * @return the remaining time in nanoseconds or 0 if the user has no active cooldown
+	 */
+	@Override
+	public long getRemainingNanos(long userId, UUID commandId) {
+		final Integer command = this.commandIndexes.get(commandId);
+		if(command == null) return 0;
+
+		final long deadline = deadlineOf(userId, command);
+		if(deadline == Stripe.ABSENT) return 0;
+
+		final long remaining = deadline - System.nanoTime();
+		return remaining > 0 ? remaining : 0;
+	}
+
+	/**
+	 * Check if an user has an active cooldown for a command
+	 * @param userId The id of the user
+	 * @param commandId The id of the command
+	 * @return if the cooldown is still running
+	 */
+	public boolean isActive(long userId, UUID commandId) {
+		return getRemainingNanos(userId, commandId) > 0;
+	}
+
+	/**
+	 * Remove the cooldown of an user for a command
+	 * @param userId The id of the user
+	 * @param commandId The id of the command
+	 * @return if a cooldown has been removed
+	 */
+	@Override
+	public boolean remove(long userId, UUID commandId) {
+		final Integer command = this.commandIndexes.get(commandId);
+		if(command == null) return false;
+
+		final long hash = hash(userId, command);
+		return stripeOf(hash).remove(userId, command, hash, Long.MAX_VALUE, false);
+	}
+
+	/**
+	 * @return the number of cooldowns stored, including the expired ones not evicted yet
+	 */
+	public int size() {
+		int size = 0;
+		for(Stripe stripe : this.stripes) size += stripe.size();
+
+		return size;
+	}
+
+	/**
+	 * Remove every cooldown
+	 */
+	public void clear() {
+		for(Stripe stripe : this.stripes) stripe.clear();
+	}
+
+	/**
+	 * Stop the eviction of the expired cooldowns
+	 */
+	@Override
+	public void shutdown() {
+		this.wheel.shutdown();
+	}
+
+	private long deadlineOf(long userId, int command) {
+		final long hash = hash(userId, command);
+		return stripeOf(hash).get(userId, command, hash);
+	}
+
+	private int commandIndex(UUID commandId) {
+		final Integer index = this.commandIndexes.get(commandId);
+		return index != null ? index : this.commandIndexes.computeIfAbsent(commandId, id -> nextCommandIndex.getAndIncrement());
+	}
+
+	private Stripe stripeOf(long hash) {
+		return this.stripes[(int)(hash >>> (64 - STRIPE_BITS))];
+	}
+
+	private static long hash(long userId, int command) {
+		long h = userId ^ (command * 0x9E3779B97F4A7C15L);
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Open-addressing table using linear probing. A slot is empty when its user is 0, which is never a valid snowflake
+	 */
+	private static final class Stripe {
+
+		private static final long ABSENT = Long.MIN_VALUE;
+
+		private final StampedLock lock = new StampedLock();
+		private Table table = new Table(INITIAL_STRIPE_CAPACITY);
+		private int size;
+
+		private long get(long userId, int command, long hash) {
+			final long stamp = lock.tryOptimisticRead();
+			if(stamp != 0) {
+				final long deadline = find(table, userId, command, hash);
+				if(lock.validate(stamp)) return deadline;
+			}
+
+			final long readStamp = lock.readLock();
+			try {
+				return find(table, userId, command, hash);
+			}finally {
+				lock.unlockRead(readStamp);
+			}
+		}
+
+		private static long find(Table t, long userId, int command, long hash) {
+			final int mask = t.users.length - 1;
+			int i = (int)hash & mask;
+			for(int probes = 0; probes <= mask; probes++) {
+				final long user = t.users[i];
+				if(user == 0) return ABSENT;
+				if(user == userId && t.commands[i] == command) return t.deadlines[i];
+
+				i = (i + 1) & mask;
+			}
+
+			return ABSENT;
+		}
+
+		private void put(long userId, int command, long deadline, long hash) {
+			final long stamp = lock.writeLock();
+			try {
+				insert(userId, command, deadline, hash);
+			}finally {
+				lock.unlockWrite(stamp);
+			}
+		}
+
+		/**
+		 * Store a deadline unless the entry has one after {@code now}
+		 * @return the deadline of the entry if it is still running, {@link #ABSENT} if the new deadline has been stored
+		 */
+		private long putIfEnded(long userId, int command, long deadline, long hash, long now) {
+			final long stamp = lock.writeLock();
+			try {
+				final long current = find(table, userId, command, hash);
+				if(current != ABSENT && current - now > 0) return current;
+
+				insert(userId, command, deadline, hash);
+				return ABSENT;
+			}finally {
+				lock.unlockWrite(stamp);
+			}
+		}
+
+		/**
+		 * Insert or replace an entry, the write lock must be held
+		 */
+		private void insert(long userId, int command, long deadline, long hash) {
+			if((size + 1) * 2 > table.users.length) resize();
+
+			final Table t = table;
+			final int mask = t.users.length - 1;
+			int i = (int)hash & mask;
+			while(t.users[i] != 0) {
+				if(t.users[i] == userId && t.commands[i] == command) {
+					t.deadlines[i] = deadline;
+					return;
+				}
+				i = (i + 1) & mask;
+			}
+
+			t.users[i] = userId;
+			t.commands[i] = command;
+			t.deadlines[i] = deadline;
+			size++;
+		}
+
+		/**
+		 * Remove an entry
+		 * @param onlyIfExpired If true, the entry is only removed if its deadline is before {@code now}
+		 */
+		private boolean remove(long userId, int command, long hash, long now, boolean onlyIfExpired) {
+			final long stamp = lock.writeLock();
+			try {
+				final Table t = table;
+				final int mask = t.users.length - 1;
+				int i = (int)hash & mask;
+				while(t.users[i] != 0) {
+					if(t.users[i] == userId && t.commands[i] == command) {
+						if(onlyIfExpired && t.deadlines[i] - now > 0) return false;
+
+						removeAt(t, i);
+						size--;
+						return true;
+					}
+					i = (i + 1) & mask;
+				}
+
+				return false;
+			}finally {
+				lock.unlockWrite(stamp);
+			}
+		}
+
+		/**
+		 * Remove the entry at an index, shifting back the following entries of the cluster
+		 */
+		private static void removeAt(Table t, int i) {
+			final int mask = t.users.length - 1;
+			int j = i;
+			while(true) {
+				j = (j + 1) & mask;
+				if(t.users[j] == 0) break;
+
+				final int home = (int)hash(t.users[j], t.commands[j]) & mask;
+				//The entry can move to i if its home isn't cyclically between i (excluded) and j (included)
+				final boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+				if(!stays) {
+					t.users[i] = t.users[j];
+					t.commands[i] = t.commands[j];
+					t.deadlines[i] = t.deadlines[j];
+					i = j;
+				}
+			}
+
+			t.users[i] = 0;
+			t.commands[i] = 0;
+			t.deadlines[i] = 0;
+		}
+
+		private void resize() {
+			final Table old = table;
+			final Table t = new Table(old.users.length * 2);
+			final int mask = t.users.length - 1;
+
+			for(int i = 0; i < old.users.length; i++) {
+				if(old.users[i] == 0) continue;
+
+				int j = (int)hash(old.users[i], old.commands[i]) & mask;
+				while(t.users[j] != 0) j = (j + 1) & mask;
+
+				t.users[j] = old.users[i];
+				t.commands[j] = old.commands[i];
+				t.deadlines[j] = old.deadlines[i];
+			}
+
+			table = t;
+		}
+
+		private int size() {
+			final long stamp = lock.readLock();
+			try {
+				return size;
+			}finally {
+				lock.unlockRead(stamp);
+			}
+		}
+
+		private void clear() {
+			final long stamp = lock.writeLock();
+			try {
+				table = new Table(INITIAL_STRIPE_CAPACITY);
+				size = 0;
+			}finally {
+				lock.unlockWrite(stamp);
+			}
+		}
+	}
+
+	private static final class Table {
+
+		private final long[] users;
+		private final int[] commands;
+		private final long[] deadlines;
+
+		private Table(int capacity) {
+			this.users = new long[capacity];
+			this.commands = new int[capacity];
+			this.deadlines = new long[capacity];
+		}
+	}
+
+	/**
+	 * Hashed timing wheel. Each slot holds the keys of the cooldowns ending during its tick,
+	 * the cooldowns ending after a whole rotation stay in their slot until their deadline is reached
+	 */
+	private final class TimingWheel {
+
+		private final long tickNanos;
+		private final int mask;
+		private final WheelSlot[] slots;
+		private final ScheduledExecutorService ticker;
+
+		//Last tick whose slot has been processed, a slot is only processed once its whole tick has elapsed
+		private long processedTick;
+		//Buffers used by the ticker thread only
+		private long[] drainedUsers = new long[64];
+		private int[] drainedCommands = new int[64];
+
+		private TimingWheel(long tickNanos, int size) {
+			this.tickNanos = tickNanos;
+			this.mask = size - 1;
+			this.slots = new WheelSlot[size];
+			for(int i = 0; i < size; i++) this.slots[i] = new WheelSlot();
+
+			this.processedTick = Math.floorDiv(System.nanoTime(), tickNanos) - 1;
+			this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+				final Thread thread = new Thread(r, "Cooldown Timing Wheel");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.ticker.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+		}
+
+		private void schedule(long userId, int command, long deadline) {
+			this.slots[(int)Math.floorDiv(deadline, tickNanos) & mask].add(userId, command);
+		}
+
+		private void tick() {
+			final long now = System.nanoTime();
+			//The current tick is still running, its cooldowns will only have ended at the next tick
+			final long lastElapsedTick = Math.floorDiv(now, tickNanos) - 1;
+
+			while(this.processedTick < lastElapsedTick) {
+				this.processedTick++;
+				final int slotIndex = (int)this.processedTick & mask;
+				final int count = drain(this.slots[slotIndex]);
+
+				for(int i = 0; i < count; i++) {
+					final long userId = drainedUsers[i];
+					final int command = drainedCommands[i];
+					final long hash = hash(userId, command);
+					final Stripe stripe = stripeOf(hash);
+
+					final long deadline = stripe.get(userId, command, hash);
+					if(deadline == Stripe.ABSENT) continue;
+
+					if(deadline - now <= 0) {
+						stripe.remove(userId, command, hash, now, true);
+					}else if(((int)Math.floorDiv(deadline, tickNanos) & mask) == slotIndex) {
+						//Ends in a later rotation
+						this.slots[slotIndex].add(userId, command);
+					}
+					//Otherwise the cooldown has been renewed and is scheduled in another slot
+				}
+			}
+		}
+
+		private int drain(WheelSlot slot) {
+			synchronized(slot) {
+				if(slot.size > drainedUsers.length) {
+					drainedUsers = Arrays.copyOf(drainedUsers, slot.users.length);
+					drainedCommands = Arrays.copyOf(drainedCommands, slot.users.length);
+				}
+
+				System.arraycopy(slot.users, 0, drainedUsers, 0, slot.size);
+				System.arraycopy(slot.commands, 0, drainedCommands, 0, slot.size);
+
+				final int count = slot.size;
+				slot.size = 0;
+				return count;
+			}
+		}
+
+		private void shutdown() {
+			this.ticker.shutdownNow();
+		}
+	}
+
+	private static final class WheelSlot {
+
+		private long[] users = new long[8];
+		private int[] commands = new int[8];
+		private int size;
+
+		private synchronized void add(long userId, int command) {
+			if(size == users.length) {
+				users = Arrays.copyOf(users, size * 2);
+				commands = Arrays.copyOf(commands, size * 2);
+			}
+
+			users[size] = userId;
+			commands[size] = command;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,354 @@
+package apbiot.core.cooldown;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.reactivestreams.Publisher;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Statement;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link CooldownBackend} sharing the cooldowns between several processes through the database.<br/>
+ * The checks are answered by a local {@link CooldownStore} used as a near-cache, the database is never queried while dispatching a command:
+ * <ul>
+ * 	<li>new cooldowns are written behind, in batches sent as a single upsert every flush interval</li>
+ * 	<li>the cooldowns written by the other processes are pulled in the near-cache every sync interval, with a single query</li>
+ * </ul>
+ * The deadlines are stored as epoch milliseconds, the clocks of the processes should be synchronized.
+ * <p>
+ * The command ids must be identical in every process, otherwise the cooldowns written by a process never match the commands of the others.
+ * The client uses {@link apbiot.core.command.AbstractCommandInstance#getStableID()}, derived from the internal name of the command
+ * (or its static id): the processes must register the commands with the same internal names.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class DatabaseCooldownBackend implements CooldownBackend {
+
+	private static final Logger LOGGER = LogManager.getLogger(DatabaseCooldownBackend.class);
+
+	//Rows written by a process with a late clock must still be pulled
+	private static final long SYNC_OVERLAP_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+	private final Supplier<? extends Publisher<? extends Connection>> connections;
+	private final String table;
+	private final String nodeId = UUID.randomUUID().toString();
+	private final int maxBatchSize;
+
+	private final CooldownStore nearCache;
+	private final ConcurrentLinkedQueue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pendingCount = new AtomicInteger();
+	private final AtomicLong lastSync = new AtomicLong();
+
+	private final Disposable flusher;
+	private final Disposable synchronizer;
+
+	private DatabaseCooldownBackend(DatabaseCooldownBackend.Builder builder) {
+		this.connections = builder.connections;
+		this.table = builder.table;
+		this.maxBatchSize = builder.maxBatchSize;
+		this.nearCache = new CooldownStore();
+
+		createTable().block(builder.initTimeout);
+		this.lastSync.set(System.currentTimeMillis() - builder.maxCooldown.toMillis());
+
+		this.flusher = Flux.interval(builder.flushInterval)
+				.onBackpressureDrop()
+				.concatMap(tick -> flush().onErrorResume(e -> {
+					LOGGER.error("Couldn't write cooldowns to the database", e);
+					return Mono.empty();
+				}))
+				.subscribe();
+		this.synchronizer = Flux.interval(Duration.ZERO, builder.syncInterval)
+				.onBackpressureDrop()
+				.concatMap(tick -> synchronize().onErrorResume(e -> {
+					LOGGER.error("Couldn't read cooldowns from the database", e);
+					return Mono.empty();
+				}))
+				.subscribe();
+	}
+
+	@Override
+	public long getRemainingNanos(long userId, UUID commandId) {
+		return this.nearCache.getRemainingNanos(userId, commandId);
+	}
+
+	/**
+	 * The check is atomic within this process only: the cooldowns started by the other processes are seen after their next synchronization
+	 */
+	@Override
+	public long tryAcquire(long userId, UUID commandId, long durationNanos) {
+		final long remaining = this.nearCache.tryAcquire(userId, commandId, durationNanos);
+		if(remaining == 0) enqueue(userId, commandId, System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(durationNanos));
+
+		return remaining;
+	}
+
+	@Override
+	public void put(long userId, UUID commandId, long durationNanos) {
+		this.nearCache.put(userId, commandId, durationNanos);
+		enqueue(userId, commandId, System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(durationNanos));
+	}
+
+	@Override
+	public boolean remove(long userId, UUID commandId) {
+		//An ended deadline is written so the removal reaches the other processes
+		enqueue(userId, commandId, System.currentTimeMillis());
+		return this.nearCache.remove(userId, commandId);
+	}
+
+	private void enqueue(long userId, UUID commandId, long deadline) {
+		this.pendingWrites.add(new PendingWrite(userId, commandId.toString(), deadline));
+		this.pendingCount.incrementAndGet();
+	}
+
+	/**
+	 * Write the pending cooldowns, by batches of {@code maxBatchSize} cooldowns
+	 * @return a Mono completing when every pending cooldown has been written
+	 */
+	private Mono<Void> flush() {
+		return Flux.defer(() -> {
+			final List<List<PendingWrite>> batches = new ArrayList<>();
+			List<PendingWrite> batch = new ArrayList<>();
+
+			PendingWrite write;
+			while((write = this.pendingWrites.poll()) != null) {
+				this.pendingCount.decrementAndGet();
+				batch.add(write);
+				if(batch.size() == this.maxBatchSize) {
+					batches.add(batch);
+					batch = new ArrayList<>();
+				}
+			}
+			if(!batch.isEmpty()) batches.add(batch);
+
+			return Flux.fromIterable(batches);
+		}).concatMap(this::writeBatch).then();
+	}
+
+	private Mono<Void> writeBatch(List<PendingWrite> batch) {
+		final StringBuilder sql = new StringBuilder("INSERT INTO ").append(this.table).append(" (user_id, command_id, deadline, updated_at, node_id) VALUES ");
+		for(int i = 0; i < batch.size(); i++) sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?)");
+		sql.append(" ON DUPLICATE KEY UPDATE deadline = VALUES(deadline), updated_at = VALUES(updated_at), node_id = VALUES(node_id)");
+
+		return execute(connection -> {
+			final Statement statement = connection.createStatement(sql.toString());
+			final long now = System.currentTimeMillis();
+
+			int index = 0;
+			for(PendingWrite write : batch) {
+				statement.bind(index++, write.userId)
+					.bind(index++, write.commandId)
+					.bind(index++, write.deadline)
+					.bind(index++, now)
+					.bind(index++, this.nodeId);
+			}
+
+			return Flux.from(statement.execute()).flatMap(result -> result.getRowsUpdated()).then();
+		});
+	}
+
+	/**
+	 * Pull the cooldowns written by the other processes since the last synchronization in the near-cache
+	 * @return a Mono completing when the near-cache has been updated
+	 */
+	private Mono<Void> synchronize() {
+		final long since = this.lastSync.get() - SYNC_OVERLAP_MILLIS;
+		final long startedAt = System.currentTimeMillis();
+
+		return execute(connection -> Flux.from(connection.createStatement("SELECT user_id, command_id, deadline FROM "+this.table+" WHERE updated_at > ? AND node_id <> ?")
+					.bind(0, since)
+					.bind(1, this.nodeId)
+					.execute())
+				.flatMap(result -> result.map((row, metadata) -> new PendingWrite(row.get("user_id", Long.class), row.get("command_id", String.class), row.get("deadline", Long.class))))
+				.doOnNext(this::applyRemoteWrite)
+				.then())
+			.then(deleteEnded(startedAt))
+			.doOnSuccess(v -> this.lastSync.set(startedAt));
+	}
+
+	private void applyRemoteWrite(PendingWrite write) {
+		final UUID commandId = UUID.fromString(write.commandId);
+		final long remaining = write.deadline - System.currentTimeMillis();
+
+		if(remaining > 0) this.nearCache.put(write.userId, commandId, TimeUnit.MILLISECONDS.toNanos(remaining));
+		else this.nearCache.remove(write.userId, commandId);
+	}
+
+	private Mono<Void> deleteEnded(long now) {
+		//The rows are kept for a while after their deadline so the removals reach every process
+		return execute(connection -> Flux.from(connection.createStatement("DELETE FROM "+this.table+" WHERE deadline < ? AND updated_at < ?")
+					.bind(0, now - SYNC_OVERLAP_MILLIS)
+					.bind(1, now - SYNC_OVERLAP_MILLIS)
+					.execute())
+				.flatMap(result -> result.getRowsUpdated())
+				.then());
+	}
+
+	private Mono<Void> createTable() {
+		return execute(connection -> Flux.from(connection.createStatement("CREATE TABLE IF NOT EXISTS "+this.table+" ("
+					+ "user_id BIGINT NOT NULL, "
+					+ "command_id CHAR(36) NOT NULL, "
+					+ "deadline BIGINT NOT NULL, "
+					+ "updated_at BIGINT NOT NULL, "
+					+ "node_id CHAR(36) NOT NULL, "
+					+ "PRIMARY KEY (user_id, command_id), "
+					+ "INDEX (updated_at))")
+					.execute())
+				.flatMap(result -> result.getRowsUpdated())
+				.then());
+	}
+
+	private Mono<Void> execute(Function<Connection, Mono<Void>> action) {
+		return Mono.usingWhen(this.connections.get(), action, Connection::close);
+	}
+
+	/**
+	 * @return the number of cooldowns waiting to be written to the database
+	 */
+	public int getPendingWrites() {
+		return this.pendingCount.get();
+	}
+
+	/**
+	 * @return the id of this process in the database
+	 */
+	public String getNodeId() {
+		return this.nodeId;
+	}
+
+	/**
+	 * Stop the synchronization and write the pending cooldowns
+	 */
+	@Override
+	public void shutdown() {
+		this.flusher.dispose();
+		this.synchronizer.dispose();
+		this.nearCache.shutdown();
+
+		try {
+			flush().block(Duration.ofSeconds(10));
+		}catch(RuntimeException e) {
+			LOGGER.error("Couldn't write the pending cooldowns to the database", e);
+		}
+	}
+
+	/**
+	 * Create a new builder
+	 * @param connections The supplier of the database connections, e.g. the connection pool created by {@code DBFactory}
+	 * @return a new builder
+	 */
+	public static DatabaseCooldownBackend.Builder builder(Supplier<? extends Publisher<? extends Connection>> connections) {
+		return new DatabaseCooldownBackend.Builder(connections);
+	}
+
+	private static final class PendingWrite {
+
+		private final long userId;
+		private final String commandId;
+		private final long deadline;
+
+		private PendingWrite(long userId, String commandId, long deadline) {
+			this.userId = userId;
+			this.commandId = commandId;
+			this.deadline = deadline;
+		}
+	}
+
+	public static final class Builder {
+
+		private final Supplier<? extends Publisher<? extends Connection>> connections;
+		private String table = "apbiot_cooldowns";
+		private Duration flushInterval = Duration.ofMillis(250);
+		private Duration syncInterval = Duration.ofSeconds(1);
+		private Duration maxCooldown = Duration.ofDays(1);
+		private Duration initTimeout = Duration.ofSeconds(10);
+		private int maxBatchSize = 256;
+
+		private Builder(Supplier<? extends Publisher<? extends Connection>> connections) {
+			this.connections = connections;
+		}
+
+		/**
+		 * Set the name of the table storing the cooldowns, created if it doesn't exist
+		 * @param table The name of the table
+		 * @return this builder
+		 */
+		public Builder table(String table) {
+			if(!table.matches("[A-Za-z0-9_]+")) throw new IllegalArgumentException("Invalid table name "+table);
+			this.table = table;
+			return this;
+		}
+
+		/**
+		 * Set the interval between two writes of the new cooldowns
+		 * @param flushInterval The flush interval
+		 * @return this builder
+		 */
+		public Builder flushInterval(Duration flushInterval) {
+			if(flushInterval.isNegative() || flushInterval.isZero()) throw new IllegalArgumentException("Flush interval must be strictly positive");
+			this.flushInterval = flushInterval;
+			return this;
+		}
+
+		/**
+		 * Set the interval between two reads of the cooldowns written by the other processes
+		 * @param syncInterval The synchronization interval
+		 * @return this builder
+		 */
+		public Builder syncInterval(Duration syncInterval) {
+			if(syncInterval.isNegative() || syncInterval.isZero()) throw new IllegalArgumentException("Sync interval must be strictly positive");
+			this.syncInterval = syncInterval;
+			return this;
+		}
+
+		/**
+		 * Set the longest cooldown used by the commands, the cooldowns written during this duration are loaded when the backend starts
+		 * @param maxCooldown The longest cooldown
+		 * @return this builder
+		 */
+		public Builder maxCooldown(Duration maxCooldown) {
+			if(maxCooldown.isNegative()) throw new IllegalArgumentException("Max cooldown cannot be negative");
+			this.maxCooldown = maxCooldown;
+			return this;
+		}
+
+		/**
+		 * Set the number of cooldowns written by a single query
+		 * @param maxBatchSize The size of a batch
+		 * @return this builder
+		 */
+		public Builder maxBatchSize(int maxBatchSize) {
+			if(maxBatchSize <= 0) throw new IllegalArgumentException("Max batch size must be strictly positive");
+			this.maxBatchSize = maxBatchSize;
+			return this;
+		}
+
+		/**
+		 * Set the time allowed to create the table when the backend is built
+		 * @param initTimeout The timeout
+		 * @return this builder
+		 */
+		public Builder initTimeout(Duration initTimeout) {
+			this.initTimeout = initTimeout;
+			return this;
+		}
+
+		public DatabaseCooldownBackend build() {
+			return new DatabaseCooldownBackend(this);
+		}
+	}
+}
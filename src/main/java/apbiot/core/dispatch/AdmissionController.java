@@ -0,0 +1,272 @@
+package apbiot.core.dispatch;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import discord4j.common.util.Snowflake;
+
+/**
+ * Admission control applied by the client before running a command.<br/>
+ * A command is shed (refused) when:
+ * <ul>
+ * 	<li>the number of commands in flight reached the global limit</li>
+ * 	<li>the guild where the command has been sent consumed all the tokens of its bucket</li>
+ * 	<li>the {@link CommandExecutor} refused the command</li>
+ * 	<li>the command reached its maximum number of concurrent executions, see {@link CommandWatchdog}</li>
+ * </ul>
+ * The number of commands shed is counted for each {@link ShedReason}.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class AdmissionController {
+
+	private final int maxInFlight;
+	private final double guildBurst;
+	private final double guildRefillPerNano;
+	private final int maxTrackedGuilds;
+	private final long sweepIntervalNanos;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder admitted = new LongAdder();
+	private final Map<ShedReason, LongAdder> shed;
+
+	private final ConcurrentHashMap<Snowflake, TokenBucket> guildBuckets = new ConcurrentHashMap<>();
+	private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+	private AdmissionController(AdmissionController.Builder builder) {
+		this.maxInFlight = builder.maxInFlight;
+		this.guildBurst = builder.guildBurst;
+		this.guildRefillPerNano = builder.guildRatePerSecond / TimeUnit.SECONDS.toNanos(1);
+		this.maxTrackedGuilds = builder.maxTrackedGuilds;
+		//A bucket left alone for this time is full again, sweeping more often would not find more idle buckets
+		this.sweepIntervalNanos = Math.max(TimeUnit.SECONDS.toNanos(1), (long)Math.ceil(guildBurst / guildRefillPerNano));
+
+		final Map<ShedReason, LongAdder> counters = new EnumMap<>(ShedReason.class);
+		for(ShedReason reason : ShedReason.values()) counters.put(reason, new LongAdder());
+		this.shed = Collections.unmodifiableMap(counters);
+	}
+
+	/**
+	 * Check if a new command can be accepted. This check is cheap and should be made as soon as the command is known.<br/>
+	 * A token is consumed from the bucket of the guild if the command is admitted.
+	 * @param guildId The guild where the command has been sent, empty for private channels
+	 * @return the reason why the command has been shed or an empty optional if it is admitted
+	 */
+	public Optional<ShedReason> tryAdmit(Optional<Snowflake> guildId) {
+		if(inFlight.get() >= maxInFlight) return shed(ShedReason.IN_FLIGHT_LIMIT);
+
+		if(guildId.isPresent() && !acquireGuildToken(guildId.get())) return shed(ShedReason.GUILD_RATE_LIMIT);
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Reserve an in-flight slot right before the command is submitted.<br/>
+	 * Every successful call must be followed by a call to {@link #exit()} once the command has ended
+	 * @return the reason why the command has been shed or an empty optional if the slot has been reserved
+	 */
+	public Optional<ShedReason> tryEnter() {
+		int current;
+		do {
+			current = inFlight.get();
+			if(current >= maxInFlight) return shed(ShedReason.IN_FLIGHT_LIMIT);
+		}while(!inFlight.compareAndSet(current, current + 1));
+
+		admitted.increment();
+		return Optional.empty();
+	}
+
+	/**
+	 * Release the in-flight slot reserved by {@link #tryEnter()}
+	 */
+	public void exit() {
+		inFlight.decrementAndGet();
+	}
+
+	/**
+	 * Count a command shed outside of the controller
+	 * @param reason The reason why the command has been shed
+	 */
+	public void recordShed(ShedReason reason) {
+		shed.get(reason).increment();
+	}
+
+	private Optional<ShedReason> shed(ShedReason reason) {
+		recordShed(reason);
+		return Optional.of(reason);
+	}
+
+	private boolean acquireGuildToken(Snowflake guildId) {
+		final long now = System.nanoTime();
+		if(guildBuckets.size() > maxTrackedGuilds) sweepGuildBuckets(now);
+
+		return guildBuckets.computeIfAbsent(guildId, id -> new TokenBucket(guildBurst, now)).tryAcquire(now);
+	}
+
+	/**
+	 * Remove the full buckets, at most once per sweep interval and by a single thread.
+	 * The other admissions don't wait for the sweep and don't scan the buckets
+	 * @param now The current time
+	 */
+	private void sweepGuildBuckets(long now) {
+		final long scheduled = nextSweep.get();
+		if(now - scheduled < 0 || !nextSweep.compareAndSet(scheduled, now + sweepIntervalNanos)) return;
+
+		//Full buckets hold no information, they are recreated on demand
+		guildBuckets.values().removeIf(bucket -> bucket.isFull(now));
+	}
+
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * @return the number of commands currently running or waiting to run
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * @return the number of commands admitted since the creation of the controller
+	 */
+	public long getAdmittedCount() {
+		return admitted.sum();
+	}
+
+	/**
+	 * Get the number of commands shed for a reason since the creation of the controller
+	 * @param reason The reason
+	 * @return the number of commands shed
+	 */
+	public long getShedCount(ShedReason reason) {
+		return shed.get(reason).sum();
+	}
+
+	/**
+	 * @return the number of commands shed since the creation of the controller, for each reason
+	 */
+	public Map<ShedReason, Long> getShedCounts() {
+		final Map<ShedReason, Long> counts = new EnumMap<>(ShedReason.class);
+		shed.forEach((reason, counter) -> counts.put(reason, counter.sum()));
+
+		return counts;
+	}
+
+	@Override
+	public String toString() {
+		return "AdmissionController [inFlight="+getInFlight()+"/"+maxInFlight+", admitted="+getAdmittedCount()+", shed="+getShedCounts()+"]";
+	}
+
+	public static AdmissionController.Builder builder() {
+		return new AdmissionController.Builder();
+	}
+
+	public enum ShedReason {
+		/**
+		 * Too many commands were already running or waiting to run
+		 */
+		IN_FLIGHT_LIMIT,
+		/**
+		 * The guild sent too many commands in a short period
+		 */
+		GUILD_RATE_LIMIT,
+		/**
+		 * The {@link CommandExecutor} couldn't queue the command
+		 */
+		EXECUTOR_SATURATED,
+		/**
+		 * Too many executions of the same command were already running or waiting to run
+		 * @see CommandWatchdog
+		 */
+		COMMAND_CONCURRENCY_LIMIT;
+	}
+
+	private final class TokenBucket {
+
+		private double tokens;
+		private long lastRefill;
+
+		private TokenBucket(double tokens, long now) {
+			this.tokens = tokens;
+			this.lastRefill = now;
+		}
+
+		private synchronized boolean tryAcquire(long now) {
+			refill(now);
+			if(tokens < 1) return false;
+
+			tokens -= 1;
+			return true;
+		}
+
+		private synchronized boolean isFull(long now) {
+			refill(now);
+			return tokens >= guildBurst;
+		}
+
+		private void refill(long now) {
+			if(now > lastRefill) {
+				tokens = Math.min(guildBurst, tokens + (now - lastRefill) * guildRefillPerNano);
+				lastRefill = now;
+			}
+		}
+	}
+
+	public static final class Builder {
+
+		private int maxInFlight = 2048;
+		private double guildBurst = 20;
+		private double guildRatePerSecond = 5;
+		private int maxTrackedGuilds = 10_000;
+
+		private Builder() { }
+
+		/**
+		 * Set the maximum number of commands running or waiting to run at the same time
+		 * @param maxInFlight The global in-flight limit
+		 * @return this builder
+		 */
+		public Builder maxInFlight(int maxInFlight) {
+			if(maxInFlight <= 0) throw new IllegalArgumentException("Max in-flight must be strictly positive");
+			this.maxInFlight = maxInFlight;
+			return this;
+		}
+
+		/**
+		 * Set the rate limit applied to each guild
+		 * @param ratePerSecond The number of commands a guild can send each second on average
+		 * @param burst The number of commands a guild can send at once
+		 * @return this builder
+		 */
+		public Builder guildRateLimit(double ratePerSecond, int burst) {
+			if(ratePerSecond <= 0 || burst <= 0) throw new IllegalArgumentException("Guild rate limit must be strictly positive");
+			this.guildRatePerSecond = ratePerSecond;
+			this.guildBurst = burst;
+			return this;
+		}
+
+		/**
+		 * Set the number of guild buckets kept before the idle ones are evicted.<br/>
+		 * Above this number, the idle buckets are evicted at most once per refill time of a bucket, so the number of buckets can briefly exceed it
+		 * @param maxTrackedGuilds The number of buckets
+		 * @return this builder
+		 */
+		public Builder maxTrackedGuilds(int maxTrackedGuilds) {
+			if(maxTrackedGuilds <= 0) throw new IllegalArgumentException("Max tracked guilds must be strictly positive");
+			this.maxTrackedGuilds = maxTrackedGuilds;
+			return this;
+		}
+
+		public AdmissionController build() {
+			return new AdmissionController(this);
+		}
+	}
+}
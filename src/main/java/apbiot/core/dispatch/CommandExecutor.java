@@ -0,0 +1,580 @@
+package apbiot.core.dispatch;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Execution engine used by the client to run every command and component interaction.<br/>
+ * Two modes are available:
+ * <ul>
+ * 	<li>{@link ExecutionMode#VIRTUAL_THREAD}: one virtual thread per task, the concurrency is bounded by a semaphore</li>
+ * 	<li>{@link ExecutionMode#BOUNDED_POOL}: a fixed pool of platform threads backed by a bounded queue</li>
+ * </ul>
+ * In both modes, the tasks exceeding the concurrency limit wait in a queue of {@code queueCapacity} slots.
+ * When the queue is full, the {@link RejectionPolicy} is applied.
+ * <p>
+ * The waiting tasks are run by earliest deadline first. Each task is given a deadline when it is submitted,
+ * the interactions (which must be acknowledged within 3 seconds) use {@link #getInteractionDeadline()} while the native commands use
+ * {@link #getNativeDeadline()}. A native command waiting longer than its deadline thus runs before the interactions submitted later, so it cannot starve.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class CommandExecutor {
+
+	private static final Logger LOGGER = LogManager.getLogger(CommandExecutor.class);
+
+	/**
+	 * Maximum number of tasks running at the same time when it isn't set, four per available processor
+	 */
+	public static final int DEFAULT_MAX_CONCURRENCY = Math.max(4, Runtime.getRuntime().availableProcessors() * 4);
+
+	private static final Method VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+	private final ExecutionMode mode;
+	private final RejectionPolicy rejectionPolicy;
+	private final int maxConcurrency;
+	private final int queueCapacity;
+	private final Duration interactionDeadline;
+	private final Duration nativeDeadline;
+
+	private final ExecutorService executor;
+	private final Semaphore permits;
+	private final PriorityBlockingQueue<ScheduledTask> waitingTasks = new PriorityBlockingQueue<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private volatile boolean accepting = true;
+
+	private final AtomicInteger pendingTasks = new AtomicInteger();
+	private final AtomicInteger queuedTasks = new AtomicInteger();
+	private final AtomicInteger runningTasks = new AtomicInteger();
+	private final AtomicLong completedTasks = new AtomicLong();
+	private final AtomicLong rejectedTasks = new AtomicLong();
+
+	private CommandExecutor(CommandExecutor.Builder builder) {
+		this.rejectionPolicy = builder.rejectionPolicy;
+		this.maxConcurrency = builder.maxConcurrency;
+		this.queueCapacity = builder.queueCapacity;
+		this.interactionDeadline = builder.interactionDeadline;
+		this.nativeDeadline = builder.nativeDeadline;
+		this.permits = new Semaphore(this.maxConcurrency);
+
+		final ExecutorService virtualExecutor = builder.mode == ExecutionMode.VIRTUAL_THREAD ? createVirtualExecutor() : null;
+		if(builder.mode == ExecutionMode.VIRTUAL_THREAD && virtualExecutor == null) {
+			LOGGER.warn("Virtual threads aren't supported by the current runtime. Falling back to a bounded pool of {} threads.", this.maxConcurrency);
+		}
+
+		if(virtualExecutor != null) {
+			this.mode = ExecutionMode.VIRTUAL_THREAD;
+			this.executor = virtualExecutor;
+		}else {
+			this.mode = ExecutionMode.BOUNDED_POOL;
+			//The permits ensure the pool never receives more tasks than its threads
+			final ThreadPoolExecutor pool = new ThreadPoolExecutor(this.maxConcurrency, this.maxConcurrency,
+					60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(),
+					new NamedThreadFactory(builder.threadNamePrefix));
+			pool.allowCoreThreadTimeOut(true);
+
+			this.executor = pool;
+		}
+	}
+
+	/**
+	 * Submit a new task to the executor, using the {@link #getInteractionDeadline() interaction deadline}.<br/>
+	 * If the executor is saturated, the task is handled by the {@link RejectionPolicy} of this instance.
+	 * @param task The task to be executed
+	 * @return true if the task has been accepted (or handed off by {@link RejectionPolicy#CALLER_RUNS}), false if it has been discarded
+	 * @throws RejectedExecutionException if the task is rejected and the policy is {@link RejectionPolicy#ABORT}
+	 */
+	public boolean submit(Runnable task) throws RejectedExecutionException {
+		return submit(task, this.interactionDeadline);
+	}
+
+	/**
+	 * Submit a new task to the executor.<br/>
+	 * The waiting tasks are run by earliest deadline first.
+	 * If the executor is saturated, the task is handled by the {@link RejectionPolicy} of this instance.
+	 * @param task The task to be executed
+	 * @param deadline The time after which the task should have been started
+	 * @return true if the task has been accepted (or handed off by {@link RejectionPolicy#CALLER_RUNS}), false if it has been discarded
+	 * @throws RejectedExecutionException if the task is rejected and the policy is {@link RejectionPolicy#ABORT}
+	 * @see #getInteractionDeadline()
+	 * @see #getNativeDeadline()
+	 */
+	public boolean submit(Runnable task, Duration deadline) throws RejectedExecutionException {
+		return submit(task, deadline, null);
+	}
+
+	/**
+	 * Submit a new task to the executor.<br/>
+	 * The waiting tasks are run by earliest deadline first.
+	 * If the executor is saturated, the task is handled by the {@link RejectionPolicy} of this instance.
+	 * <p>
+	 * A task accepted by this method can still be dropped before it starts, if the executor is shut down while it is waiting.
+	 * The {@code onDropped} callback is then called instead of the task, so the resources reserved for the task can be released.
+	 * It isn't called when the task is refused by this method, the caller already knows it from the result.
+	 * @param task The task to be executed
+	 * @param deadline The time after which the task should have been started
+	 * @param onDropped Called if the task is accepted but never started, can be null
+	 * @return true if the task has been accepted (or handed off by {@link RejectionPolicy#CALLER_RUNS}), false if it has been discarded
+	 * @throws RejectedExecutionException if the task is rejected and the policy is {@link RejectionPolicy#ABORT}
+	 * @see #getInteractionDeadline()
+	 * @see #getNativeDeadline()
+	 */
+	public boolean submit(Runnable task, Duration deadline, Runnable onDropped) throws RejectedExecutionException {
+		if(!this.accepting || !tryReserveSlot()) return reject(task);
+
+		queuedTasks.incrementAndGet();
+		waitingTasks.offer(new ScheduledTask(task, onDropped, System.nanoTime() + deadline.toNanos(), sequence.getAndIncrement()));
+		drainWaitingTasks();
+
+		return true;
+	}
+
+	/**
+	 * Start the waiting tasks with the earliest deadline while a slot is free
+	 */
+	private void drainWaitingTasks() {
+		while(permits.tryAcquire()) {
+			final ScheduledTask next = waitingTasks.poll();
+			if(next == null) {
+				permits.release();
+				//A task may have been queued between the poll and the release
+				if(waitingTasks.isEmpty()) return;
+				continue;
+			}
+
+			try {
+				this.executor.execute(new StartedTask(next));
+			}catch(RejectedExecutionException e) {
+				//The underlying executor is shut down, none of the waiting tasks will start
+				permits.release();
+				dropTask(next);
+				dropWaitingTasks();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Release the slot of a task which will never start and notify its submitter
+	 * @param scheduled The task dropped
+	 */
+	private void dropTask(ScheduledTask scheduled) {
+		queuedTasks.decrementAndGet();
+		pendingTasks.decrementAndGet();
+		rejectedTasks.incrementAndGet();
+
+		if(scheduled.onDropped != null) {
+			try {
+				scheduled.onDropped.run();
+			}catch(RuntimeException e) {
+				LOGGER.error("Unexpected error while dropping a command task", e);
+			}
+		}
+	}
+
+	/**
+	 * Drop every waiting task
+	 * @return the number of tasks dropped
+	 */
+	private int dropWaitingTasks() {
+		int dropped = 0;
+		ScheduledTask next;
+		while((next = waitingTasks.poll()) != null) {
+			dropTask(next);
+			dropped++;
+		}
+
+		if(dropped > 0) LOGGER.warn("{} command task(s) dropped, the executor is shut down", dropped);
+		return dropped;
+	}
+
+	private void runTask(Runnable task) {
+		queuedTasks.decrementAndGet();
+		runningTasks.incrementAndGet();
+		try {
+			task.run();
+		}catch(RuntimeException e) {
+			LOGGER.error("Unexpected error while executing a command task", e);
+		}finally {
+			runningTasks.decrementAndGet();
+			pendingTasks.decrementAndGet();
+			completedTasks.incrementAndGet();
+		}
+	}
+
+	private boolean tryReserveSlot() {
+		final int limit = this.maxConcurrency + this.queueCapacity;
+		int current;
+		do {
+			current = pendingTasks.get();
+			if(current >= limit) return false;
+		}while(!pendingTasks.compareAndSet(current, current + 1));
+
+		return true;
+	}
+
+	private boolean reject(Runnable task) {
+		rejectedTasks.incrementAndGet();
+
+		switch(this.rejectionPolicy) {
+			case CALLER_RUNS -> {
+				if(isShutdown()) return false;
+
+				//The caller is a gateway thread, the task must never run inline
+				try {
+					Schedulers.boundedElastic().schedule(() -> {
+						runningTasks.incrementAndGet();
+						try {
+							task.run();
+						}catch(RuntimeException e) {
+							LOGGER.error("Unexpected error while executing a command task", e);
+						}finally {
+							runningTasks.decrementAndGet();
+							completedTasks.incrementAndGet();
+						}
+					});
+				}catch(RejectedExecutionException e) {
+					return false;
+				}
+				return true;
+			}
+			case DISCARD -> {
+				return false;
+			}
+			default -> throw new RejectedExecutionException("Command executor is saturated [running:"+getRunningTasks()+", queued:"+getQueuedTasks()+"]");
+		}
+	}
+
+	/**
+	 * Stop accepting new tasks and wait for the waiting and running ones to complete.<br/>
+	 * Once the timeout is reached, the running tasks are interrupted and the tasks which haven't started are dropped,
+	 * see {@link #submit(Runnable, Duration, Runnable)}
+	 * @param timeout The maximum time to wait for the tasks
+	 * @return true if every task has completed before the timeout
+	 */
+	public boolean shutdown(Duration timeout) {
+		this.accepting = false;
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		try {
+			//Let the waiting tasks start before closing the underlying executor
+			while(!waitingTasks.isEmpty() && System.nanoTime() < deadline) {
+				TimeUnit.MILLISECONDS.sleep(10);
+			}
+
+			this.executor.shutdown();
+			if(waitingTasks.isEmpty() && this.executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) return true;
+
+			dropNeverStarted(this.executor.shutdownNow());
+			return false;
+		}catch(InterruptedException e) {
+			dropNeverStarted(this.executor.shutdownNow());
+			Thread.currentThread().interrupt();
+			return false;
+		}finally {
+			dropWaitingTasks();
+		}
+	}
+
+	/**
+	 * Drop the tasks given to the underlying executor which never started
+	 * @param tasks The tasks returned by {@link ExecutorService#shutdownNow()}
+	 */
+	private void dropNeverStarted(List<Runnable> tasks) {
+		for(Runnable task : tasks) {
+			if(task instanceof StartedTask started) {
+				permits.release();
+				dropTask(started.scheduled);
+			}
+		}
+
+		if(!tasks.isEmpty()) LOGGER.warn("{} command task(s) dropped before starting while shutting down the executor", tasks.size());
+	}
+
+	public boolean isShutdown() {
+		return !this.accepting || this.executor.isShutdown();
+	}
+
+	public ExecutionMode getMode() {
+		return mode;
+	}
+
+	public RejectionPolicy getRejectionPolicy() {
+		return rejectionPolicy;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * @return the deadline given to the interactions (slash, user, message and component commands)
+	 */
+	public Duration getInteractionDeadline() {
+		return interactionDeadline;
+	}
+
+	/**
+	 * @return the deadline given to the native commands, which is also the maximum time they can be overtaken by the interactions
+	 */
+	public Duration getNativeDeadline() {
+		return nativeDeadline;
+	}
+
+	/**
+	 * @return the number of tasks accepted but waiting for a free slot
+	 */
+	public int getQueuedTasks() {
+		return queuedTasks.get();
+	}
+
+	/**
+	 * @return the number of tasks being executed
+	 */
+	public int getRunningTasks() {
+		return runningTasks.get();
+	}
+
+	/**
+	 * @return the number of tasks executed since the creation of the executor
+	 */
+	public long getCompletedTasks() {
+		return completedTasks.get();
+	}
+
+	/**
+	 * @return the number of tasks which couldn't be queued since the creation of the executor
+	 */
+	public long getRejectedTasks() {
+		return rejectedTasks.get();
+	}
+
+	@Override
+	public String toString() {
+		return "CommandExecutor [mode="+mode+", queued="+getQueuedTasks()+", running="+getRunningTasks()+
+				", completed="+getCompletedTasks()+", rejected="+getRejectedTasks()+"]";
+	}
+
+	/**
+	 * Tells if the current runtime is able to create virtual threads.<br/>
+	 * The virtual threads are a preview feature of Java 19 and 20, they are only supported if the preview features are enabled
+	 * @return if virtual threads are available
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return VIRTUAL_EXECUTOR_FACTORY != null;
+	}
+
+	private static Method findVirtualExecutorFactory() {
+		try {
+			final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			//The method exists as a preview API on Java 19 and 20 but throws if the preview features aren't enabled
+			((ExecutorService)factory.invoke(null)).shutdown();
+			return factory;
+		}catch(NoSuchMethodException | IllegalAccessException | InvocationTargetException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return a new virtual thread executor or null if the runtime cannot create one
+	 */
+	private static ExecutorService createVirtualExecutor() {
+		if(VIRTUAL_EXECUTOR_FACTORY == null) return null;
+
+		try {
+			return (ExecutorService)VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+		}catch(IllegalAccessException | InvocationTargetException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	public static CommandExecutor.Builder builder() {
+		return new CommandExecutor.Builder();
+	}
+
+	public enum ExecutionMode {
+		/**
+		 * Each task runs in its own virtual thread. Requires a runtime supporting virtual threads (Java 21, or Java 19 and 20 with the preview features enabled),
+		 * otherwise {@link #BOUNDED_POOL} is used
+		 */
+		VIRTUAL_THREAD,
+		/**
+		 * Tasks are run by a fixed pool of platform threads. This is the default mode
+		 */
+		BOUNDED_POOL;
+	}
+
+	public enum RejectionPolicy {
+		/**
+		 * Throw a {@link RejectedExecutionException} to the caller
+		 */
+		ABORT,
+		/**
+		 * Silently drop the task
+		 */
+		DISCARD,
+		/**
+		 * Run the task outside of the executor, on the {@link Schedulers#boundedElastic()} scheduler.<br/>
+		 * The task is never run by the thread submitting it: the commands are submitted from the gateway threads which must not block
+		 */
+		CALLER_RUNS;
+	}
+
+	private static final class ScheduledTask implements Comparable<ScheduledTask> {
+
+		private final Runnable task;
+		private final Runnable onDropped;
+		private final long deadline;
+		private final long sequence; //Keep the order of submission between tasks with the same deadline
+
+		private ScheduledTask(Runnable task, Runnable onDropped, long deadline, long sequence) {
+			this.task = task;
+			this.onDropped = onDropped;
+			this.deadline = deadline;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(ScheduledTask other) {
+			final int byDeadline = Long.compare(this.deadline - other.deadline, 0);
+			return byDeadline != 0 ? byDeadline : Long.compare(this.sequence, other.sequence);
+		}
+	}
+
+	/**
+	 * Task given to the underlying executor, holding a permit until it ends
+	 */
+	private final class StartedTask implements Runnable {
+
+		private final ScheduledTask scheduled;
+
+		private StartedTask(ScheduledTask scheduled) {
+			this.scheduled = scheduled;
+		}
+
+		@Override
+		public void run() {
+			try {
+				runTask(scheduled.task);
+			}finally {
+				permits.release();
+				drainWaitingTasks();
+			}
+		}
+	}
+
+	private static final class NamedThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+		private final String prefix;
+
+		private NamedThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			final Thread thread = new Thread(r, prefix+"-"+counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	public static final class Builder {
+
+		private ExecutionMode mode = ExecutionMode.BOUNDED_POOL;
+		private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+		private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+		private int queueCapacity = 1024;
+		private String threadNamePrefix = "Command Executor";
+		private Duration interactionDeadline = Duration.ofSeconds(2);
+		private Duration nativeDeadline = Duration.ofSeconds(10);
+
+		private Builder() { }
+
+		/**
+		 * Set how the tasks are run
+		 * @param mode The execution mode, {@link ExecutionMode#BOUNDED_POOL} by default
+		 * @return this builder
+		 */
+		public Builder mode(ExecutionMode mode) {
+			if(mode == null) throw new IllegalArgumentException("Execution mode cannot be null");
+			this.mode = mode;
+			return this;
+		}
+
+		public Builder rejectionPolicy(RejectionPolicy policy) {
+			this.rejectionPolicy = policy;
+			return this;
+		}
+
+		/**
+		 * Set the maximum number of tasks running at the same time.<br/>
+		 * In {@link ExecutionMode#BOUNDED_POOL} mode, this is the number of threads in the pool
+		 * @param maxConcurrency The maximum number of concurrent tasks
+		 * @return this builder
+		 */
+		public Builder maxConcurrency(int maxConcurrency) {
+			if(maxConcurrency <= 0) throw new IllegalArgumentException("Max concurrency must be strictly positive");
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Set the number of tasks allowed to wait for a free slot
+		 * @param queueCapacity The capacity of the queue
+		 * @return this builder
+		 */
+		public Builder queueCapacity(int queueCapacity) {
+			if(queueCapacity < 0) throw new IllegalArgumentException("Queue capacity cannot be negative");
+			this.queueCapacity = queueCapacity;
+			return this;
+		}
+
+		/**
+		 * Set the deadlines used to order the waiting tasks.<br/>
+		 * The interaction deadline should stay under the 3 seconds given by Discord to acknowledge an interaction.
+		 * The native deadline is the maximum time a native command can be overtaken by interactions
+		 * @param interactionDeadline The deadline of the interactions
+		 * @param nativeDeadline The deadline of the native commands
+		 * @return this builder
+		 */
+		public Builder deadlines(Duration interactionDeadline, Duration nativeDeadline) {
+			if(interactionDeadline.isNegative() || nativeDeadline.isNegative()) throw new IllegalArgumentException("Deadlines cannot be negative");
+			this.interactionDeadline = interactionDeadline;
+			this.nativeDeadline = nativeDeadline;
+			return this;
+		}
+
+		public Builder threadNamePrefix(String prefix) {
+			this.threadNamePrefix = prefix;
+			return this;
+		}
+
+		public CommandExecutor build() {
+			return new CommandExecutor(this);
+		}
+	}
+}
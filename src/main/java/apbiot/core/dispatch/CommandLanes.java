@@ -0,0 +1,164 @@
+package apbiot.core.dispatch;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import discord4j.common.util.Snowflake;
+
+/**
+ * Ordered execution lanes running on a {@link CommandExecutor}.<br/>
+ * Each lane is a mailbox identified by a {@link Snowflake} (a channel or a guild): the tasks of a lane run one after another,
+ * in the order they have been submitted, while the tasks of different lanes run in parallel.
+ * A lane only exists while it has tasks to run, the idle lanes are removed immediately.
+ * @author 278deco
+ * @since 6.3.0
+ * @see ExecutionOrdering
+ */
+public class CommandLanes {
+
+	private static final Logger LOGGER = LogManager.getLogger(CommandLanes.class);
+
+	private final CommandExecutor executor;
+	private final int maxLaneSize;
+
+	//Every change of a lane is made inside a compute call on its key
+	private final ConcurrentHashMap<Snowflake, Lane> lanes = new ConcurrentHashMap<>();
+	private final AtomicLong droppedTasks = new AtomicLong();
+
+	/**
+	 * Create new execution lanes
+	 * @param executor The executor running the tasks
+	 * @param maxLaneSize The maximum number of tasks waiting in a lane
+	 */
+	public CommandLanes(CommandExecutor executor, int maxLaneSize) {
+		if(maxLaneSize <= 0) throw new IllegalArgumentException("Max lane size must be strictly positive");
+
+		this.executor = executor;
+		this.maxLaneSize = maxLaneSize;
+	}
+
+	/**
+	 * Submit a task to a lane. The task is given to the executor once every previous task of the lane has ended.
+	 * @param key The key of the lane
+	 * @param task The task to be executed
+	 * @param deadline The deadline given to the executor, see {@link CommandExecutor#submit(Runnable, Duration)}
+	 * @param onDropped Called if the task is accepted by the lane but later refused or dropped by the executor
+	 * @return true if the task has been accepted, false if the lane is full or the executor refused the task
+	 */
+	public boolean submit(Snowflake key, Runnable task, Duration deadline, Runnable onDropped) {
+		final LaneTask laneTask = new LaneTask(task, deadline, onDropped);
+		final boolean[] result = new boolean[2]; //0: accepted, 1: must be started
+
+		this.lanes.compute(key, (k, lane) -> {
+			if(lane == null) {
+				result[0] = result[1] = true;
+				return new Lane();
+			}
+
+			if(lane.waiting.size() >= this.maxLaneSize) return lane;
+
+			lane.waiting.add(laneTask);
+			result[0] = true;
+			return lane;
+		});
+
+		if(result[1] && !start(key, laneTask)) {
+			//The first task of the lane has been refused, let the next ones run
+			next(key);
+			return false;
+		}
+
+		return result[0];
+	}
+
+	private boolean start(Snowflake key, LaneTask laneTask) {
+		try {
+			return this.executor.submit(() -> {
+				try {
+					laneTask.task.run();
+				}finally {
+					next(key);
+				}
+			}, laneTask.deadline, () -> {
+				drop(key, laneTask);
+				next(key);
+			});
+		}catch(RejectedExecutionException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Start the next task of a lane, removing the lane if it is empty
+	 * @param key The key of the lane
+	 */
+	private void next(Snowflake key) {
+		LaneTask next;
+		do {
+			final LaneTask[] polled = new LaneTask[1];
+			this.lanes.computeIfPresent(key, (k, lane) -> {
+				polled[0] = lane.waiting.poll();
+				return polled[0] == null ? null : lane;
+			});
+
+			next = polled[0];
+			if(next == null) return;
+
+			if(start(key, next)) return;
+
+			drop(key, next);
+		}while(true);
+	}
+
+	private void drop(Snowflake key, LaneTask laneTask) {
+		droppedTasks.incrementAndGet();
+		LOGGER.warn("A command task waiting in lane {} has been refused by the executor", key.asString());
+		try {
+			laneTask.onDropped.run();
+		}catch(RuntimeException e) {
+			LOGGER.error("Unexpected error while dropping a command task", e);
+		}
+	}
+
+	/**
+	 * @return the number of lanes with running or waiting tasks
+	 */
+	public int getActiveLanes() {
+		return this.lanes.size();
+	}
+
+	/**
+	 * @return the number of tasks accepted by a lane but refused by the executor
+	 */
+	public long getDroppedTasks() {
+		return this.droppedTasks.get();
+	}
+
+	public int getMaxLaneSize() {
+		return maxLaneSize;
+	}
+
+	private static final class Lane {
+		private final Queue<LaneTask> waiting = new ArrayDeque<>();
+	}
+
+	private static final class LaneTask {
+
+		private final Runnable task;
+		private final Duration deadline;
+		private final Runnable onDropped;
+
+		private LaneTask(Runnable task, Duration deadline, Runnable onDropped) {
+			this.task = task;
+			this.deadline = deadline;
+			this.onDropped = onDropped;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package apbiot.core.dispatch;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import apbiot.core.command.AbstractCommandInstance;
+import apbiot.core.command.ApplicationCommandInstance;
+import apbiot.core.command.ComponentCommandInstance;
+import apbiot.core.command.NativeCommandInstance;
+import apbiot.core.command.SlashCommandInstance;
+import apbiot.core.helper.CommandHelper;
+import apbiot.core.objects.enums.ApplicationCommandType;
+
+/**
+ * Immutable snapshot of the command mappings used to route the events received by the client.<br/>
+ * A table is never modified once created: every update produces a new table which is then published as a whole,
+ * so the readers can use it without taking any lock and always observe a consistent set of mappings.<br/>
+ * The lookup indexes are built once with the table, a lookup by name or by component id costs a single hash probe
+ * whatever the number of commands.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class CommandRoutingTable {
+
+	public static final CommandRoutingTable EMPTY = new CommandRoutingTable(Map.of(), Map.of(), Map.of(), Map.of());
+
+	private final Map<String, NativeCommandInstance> nativeCommands;
+	private final Map<String, SlashCommandInstance> slashCommands;
+	private final Map<String, ApplicationCommandInstance> applicationCommands;
+	private final Map<String, ComponentCommandInstance> componentCommands;
+
+	//Folded command name to instance, for each type of command
+	private final Map<ApplicationCommandType, Map<String, AbstractCommandInstance>> nameIndex;
+	//Command's shorten id to instance
+	private final Map<String, AbstractCommandInstance> idIndex;
+
+	private CommandRoutingTable(Map<String, NativeCommandInstance> nativeCommands, Map<String, SlashCommandInstance> slashCommands,
+			Map<String, ApplicationCommandInstance> applicationCommands, Map<String, ComponentCommandInstance> componentCommands) {
+		this.nativeCommands = Map.copyOf(nativeCommands);
+		this.slashCommands = Map.copyOf(slashCommands);
+		this.applicationCommands = Map.copyOf(applicationCommands);
+		this.componentCommands = Map.copyOf(componentCommands);
+
+		this.nameIndex = new EnumMap<>(ApplicationCommandType.class);
+		this.nameIndex.put(ApplicationCommandType.NATIVE, buildNameIndex(this.nativeCommands));
+		this.nameIndex.put(ApplicationCommandType.CHAT_INPUT, buildNameIndex(this.slashCommands));
+		final Map<String, AbstractCommandInstance> applicationIndex = buildNameIndex(this.applicationCommands);
+		this.nameIndex.put(ApplicationCommandType.USER, applicationIndex);
+		this.nameIndex.put(ApplicationCommandType.MESSAGE, applicationIndex);
+
+		//Inserted by order of priority, the first command registered for an id is kept
+		final Map<String, AbstractCommandInstance> ids = new HashMap<>();
+		this.componentCommands.values().forEach(cmd -> ids.putIfAbsent(cmd.getShortenID(), cmd));
+		this.slashCommands.values().forEach(cmd -> ids.putIfAbsent(cmd.getShortenID(), cmd));
+		this.nativeCommands.values().forEach(cmd -> ids.putIfAbsent(cmd.getShortenID(), cmd));
+		this.idIndex = Map.copyOf(ids);
+	}
+
+	private static Map<String, AbstractCommandInstance> buildNameIndex(Map<String, ? extends AbstractCommandInstance> commands) {
+		final Map<String, AbstractCommandInstance> index = new HashMap<>(commands.size() * 2);
+		commands.forEach((name, cmd) -> index.putIfAbsent(foldName(name), cmd));
+
+		return Map.copyOf(index);
+	}
+
+	private static String foldName(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Create a new table replacing the native commands of this one
+	 * @param mapping The new native command mapping
+	 * @return a new CommandRoutingTable
+	 */
+	public CommandRoutingTable withNativeCommands(Map<String, NativeCommandInstance> mapping) {
+		return new CommandRoutingTable(mapping, slashCommands, applicationCommands, componentCommands);
+	}
+
+	/**
+	 * Create a new table replacing the slash commands of this one
+	 * @param mapping The new slash command mapping
+	 * @return a new CommandRoutingTable
+	 */
+	public CommandRoutingTable withSlashCommands(Map<String, SlashCommandInstance> mapping) {
+		return new CommandRoutingTable(nativeCommands, mapping, applicationCommands, componentCommands);
+	}
+
+	/**
+	 * Create a new table replacing the user and message commands of this one
+	 * @param mapping The new application command mapping
+	 * @return a new CommandRoutingTable
+	 */
+	public CommandRoutingTable withApplicationCommands(Map<String, ApplicationCommandInstance> mapping) {
+		return new CommandRoutingTable(nativeCommands, slashCommands, mapping, componentCommands);
+	}
+
+	/**
+	 * Create a new table replacing the component commands of this one
+	 * @param mapping The new component command mapping
+	 * @return a new CommandRoutingTable
+	 */
+	public CommandRoutingTable withComponentCommands(Map<String, ComponentCommandInstance> mapping) {
+		return new CommandRoutingTable(nativeCommands, slashCommands, applicationCommands, mapping);
+	}
+
+	/**
+	 * Create a new table holding the same mappings and fresh indexes.<br/>
+	 * Used to publish again the commands once they have been rebuilt
+	 * @return a new CommandRoutingTable
+	 */
+	public CommandRoutingTable republish() {
+		return new CommandRoutingTable(nativeCommands, slashCommands, applicationCommands, componentCommands);
+	}
+
+	/**
+	 * Search a command by its name, ignoring the case
+	 * @param providedCmdName The name of the command
+	 * @param type The type of the command
+	 * @return the command instance or null if it doesn't exist
+	 */
+	public AbstractCommandInstance findByName(String providedCmdName, ApplicationCommandType type) {
+		if(providedCmdName == null) return null;
+
+		final Map<String, AbstractCommandInstance> index = nameIndex.get(type);
+		if(index == null) throw new IllegalArgumentException("Unexpected value: " + type);
+
+		return index.get(foldName(providedCmdName));
+	}
+
+	/**
+	 * Search a command owning a component id.<br/>
+	 * The command's part of the id is extracted using {@link CommandHelper#COMMAND_ID_SEPARATOR}
+	 * @param providedCmdId The custom id of the component
+	 * @return the command instance or null if it doesn't exist
+	 */
+	public AbstractCommandInstance findById(String providedCmdId) {
+		if(providedCmdId == null) return null;
+
+		return idIndex.get(CommandHelper.getCommandShortenID(providedCmdId));
+	}
+
+	/**
+	 * Tells if the table contains commands of the given type
+	 * @param type The type of the command
+	 * @return if no command of this type is registered
+	 */
+	public boolean isEmpty(ApplicationCommandType type) {
+		return switch(type) {
+			case NATIVE -> nativeCommands.isEmpty();
+			case CHAT_INPUT -> slashCommands.isEmpty();
+			case MESSAGE, USER -> applicationCommands.isEmpty();
+			default -> throw new IllegalArgumentException("Unexpected value: " + type);
+		};
+	}
+
+	public Map<String, NativeCommandInstance> getNativeCommands() {
+		return nativeCommands;
+	}
+
+	public Map<String, SlashCommandInstance> getSlashCommands() {
+		return slashCommands;
+	}
+
+	public Map<String, ApplicationCommandInstance> getApplicationCommands() {
+		return applicationCommands;
+	}
+
+	public Map<String, ComponentCommandInstance> getComponentCommands() {
+		return componentCommands;
+	}
+}
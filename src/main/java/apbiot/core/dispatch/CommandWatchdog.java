@@ -0,0 +1,242 @@
+package apbiot.core.dispatch;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import apbiot.core.command.AbstractCommandInstance;
+import apbiot.core.pems.BaseProgramEventEnum;
+import apbiot.core.pems.ProgramEventManager;
+import apbiot.core.pems.events.CommandTimeoutEvent;
+
+/**
+ * Watchdog monitoring the commands executed by the client.<br/>
+ * Every command has a deadline, defined by {@link AbstractCommandInstance#getExecutionDeadline()} or by the default deadline of the watchdog.
+ * When a command runs past its deadline, the thread executing it is interrupted and a
+ * {@link BaseProgramEventEnum#COMMAND_TIMED_OUT} event is dispatched.
+ * <p>
+ * The watchdog also limits the number of executions of the same command running or waiting to run at the same time,
+ * so a single slow command cannot take every worker of the {@link CommandExecutor}.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class CommandWatchdog {
+
+	private static final Logger LOGGER = LogManager.getLogger(CommandWatchdog.class);
+
+	private final Duration defaultDeadline;
+	private final int defaultMaxConcurrentExecutions;
+
+	private final ConcurrentHashMap<UUID, AtomicInteger> executionsPerCommand = new ConcurrentHashMap<>();
+	private final Set<Execution> runningExecutions = ConcurrentHashMap.newKeySet();
+
+	private final ScheduledExecutorService scheduler;
+
+	private CommandWatchdog(CommandWatchdog.Builder builder) {
+		this.defaultDeadline = builder.defaultDeadline;
+		this.defaultMaxConcurrentExecutions = builder.defaultMaxConcurrentExecutions;
+
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			final Thread thread = new Thread(r, "Command Watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		final long interval = builder.checkInterval.toMillis();
+		this.scheduler.scheduleWithFixedDelay(this::checkExecutions, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Reserve an execution slot for a command
+	 * @param cmd The command to be executed
+	 * @return the execution or an empty optional if the command reached its maximum number of concurrent executions
+	 */
+	public Optional<Execution> tryStart(AbstractCommandInstance cmd) {
+		final int limit = cmd.getMaxConcurrentExecutions() > 0 ? cmd.getMaxConcurrentExecutions() : this.defaultMaxConcurrentExecutions;
+		final AtomicInteger counter = this.executionsPerCommand.computeIfAbsent(cmd.getID(), id -> new AtomicInteger());
+
+		int current;
+		do {
+			current = counter.get();
+			if(current >= limit) return Optional.empty();
+		}while(!counter.compareAndSet(current, current + 1));
+
+		return Optional.of(new Execution(cmd, cmd.getExecutionDeadline().orElse(this.defaultDeadline), counter));
+	}
+
+	private void checkExecutions() {
+		final long now = System.nanoTime();
+
+		for(Execution execution : this.runningExecutions) {
+			try {
+				execution.cancelIfExpired(now);
+			}catch(RuntimeException e) {
+				LOGGER.error("Unexpected error while cancelling command {}", execution.cmd.getInternalName(), e);
+			}
+		}
+	}
+
+	/**
+	 * Get the number of executions of a command running or waiting to run
+	 * @param cmd The command
+	 * @return the number of executions
+	 */
+	public int getExecutions(AbstractCommandInstance cmd) {
+		final AtomicInteger counter = this.executionsPerCommand.get(cmd.getID());
+		return counter == null ? 0 : counter.get();
+	}
+
+	public Duration getDefaultDeadline() {
+		return defaultDeadline;
+	}
+
+	public int getDefaultMaxConcurrentExecutions() {
+		return defaultMaxConcurrentExecutions;
+	}
+
+	/**
+	 * Stop monitoring the commands
+	 */
+	public void shutdown() {
+		this.scheduler.shutdownNow();
+	}
+
+	public static CommandWatchdog.Builder builder() {
+		return new CommandWatchdog.Builder();
+	}
+
+	/**
+	 * A single execution of a command, from its submission to its end
+	 */
+	public final class Execution {
+
+		private final AbstractCommandInstance cmd;
+		private final Duration deadline;
+		private final AtomicInteger counter;
+
+		private Thread thread;
+		private long startTime;
+		private boolean timedOut;
+		private boolean ended;
+
+		private Execution(AbstractCommandInstance cmd, Duration deadline, AtomicInteger counter) {
+			this.cmd = cmd;
+			this.deadline = deadline;
+			this.counter = counter;
+		}
+
+		/**
+		 * Mark the execution as running on the current thread. The deadline starts from this call
+		 */
+		public void begin() {
+			synchronized(this) {
+				if(ended) return;
+
+				this.thread = Thread.currentThread();
+				this.startTime = System.nanoTime();
+			}
+			runningExecutions.add(this);
+		}
+
+		/**
+		 * Mark the execution as ended and release its slot. Must be called exactly once
+		 */
+		public void end() {
+			final boolean interrupted;
+			synchronized(this) {
+				if(ended) return;
+
+				this.ended = true;
+				interrupted = this.timedOut && this.thread == Thread.currentThread();
+				this.thread = null;
+			}
+
+			runningExecutions.remove(this);
+			counter.decrementAndGet();
+
+			//Do not leak the interruption to the next task run by this thread
+			if(interrupted) Thread.interrupted();
+		}
+
+		private void cancelIfExpired(long now) {
+			final long elapsed;
+			synchronized(this) {
+				if(ended || timedOut || thread == null) return;
+
+				elapsed = now - startTime;
+				if(elapsed < deadline.toNanos()) return;
+
+				this.timedOut = true;
+				this.thread.interrupt();
+			}
+
+			ProgramEventManager.get().dispatchEvent(BaseProgramEventEnum.COMMAND_TIMED_OUT, new CommandTimeoutEvent(
+					cmd.getInternalName(),
+					Duration.ofNanos(elapsed),
+					deadline));
+		}
+
+		/**
+		 * @return if the execution has been cancelled by the watchdog
+		 */
+		public synchronized boolean isTimedOut() {
+			return timedOut;
+		}
+	}
+
+	public static final class Builder {
+
+		private Duration defaultDeadline = Duration.ofSeconds(30);
+		private int defaultMaxConcurrentExecutions = Math.max(1, CommandExecutor.DEFAULT_MAX_CONCURRENCY / 2);
+		private Duration checkInterval = Duration.ofMillis(500);
+
+		private Builder() { }
+
+		/**
+		 * Set the deadline applied to the commands which doesn't define their own
+		 * @param deadline The default deadline
+		 * @return this builder
+		 */
+		public Builder defaultDeadline(Duration deadline) {
+			if(deadline.isNegative() || deadline.isZero()) throw new IllegalArgumentException("Deadline must be strictly positive");
+			this.defaultDeadline = deadline;
+			return this;
+		}
+
+		/**
+		 * Set the maximum number of executions of the same command applied to the commands which doesn't define their own.<br/>
+		 * It should stay below the concurrency of the {@link CommandExecutor}, so a single command cannot take every worker
+		 * @param maxConcurrentExecutions The default maximum number of executions, half of {@link CommandExecutor#DEFAULT_MAX_CONCURRENCY} by default
+		 * @return this builder
+		 */
+		public Builder defaultMaxConcurrentExecutions(int maxConcurrentExecutions) {
+			if(maxConcurrentExecutions <= 0) throw new IllegalArgumentException("Max concurrent executions must be strictly positive");
+			this.defaultMaxConcurrentExecutions = maxConcurrentExecutions;
+			return this;
+		}
+
+		/**
+		 * Set the interval between two checks of the running commands
+		 * @param interval The interval
+		 * @return this builder
+		 */
+		public Builder checkInterval(Duration interval) {
+			if(interval.isNegative() || interval.isZero()) throw new IllegalArgumentException("Check interval must be strictly positive");
+			this.checkInterval = interval;
+			return this;
+		}
+
+		public CommandWatchdog build() {
+			return new CommandWatchdog(this);
+		}
+	}
+}
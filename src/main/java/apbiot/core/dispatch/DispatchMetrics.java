@@ -0,0 +1,113 @@
+package apbiot.core.dispatch;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import apbiot.core.objects.enums.ApplicationCommandType;
+
+/**
+ * Registry of the latencies measured while dispatching the commands.<br/>
+ * A {@link LatencyHistogram} is kept for each {@link DispatchStage}, command and {@link ApplicationCommandType}.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class DispatchMetrics {
+
+	/**
+	 * Name used to record the stages of the commands which couldn't be found
+	 */
+	public static final String UNKNOWN_COMMAND = "<unknown>";
+
+	private static volatile DispatchMetrics instance;
+
+	private final Map<ApplicationCommandType, ConcurrentHashMap<String, LatencyHistogram[]>> histograms;
+
+	private DispatchMetrics() {
+		final Map<ApplicationCommandType, ConcurrentHashMap<String, LatencyHistogram[]>> map = new EnumMap<>(ApplicationCommandType.class);
+		for(ApplicationCommandType type : ApplicationCommandType.values()) map.put(type, new ConcurrentHashMap<>());
+
+		this.histograms = Collections.unmodifiableMap(map);
+	}
+
+	public static DispatchMetrics get() {
+		if(instance == null) {
+			synchronized (DispatchMetrics.class) {
+				if(instance == null) instance = new DispatchMetrics();
+			}
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Record the time spent by a command in a stage
+	 * @param command The internal name of the command
+	 * @param type The type of the command
+	 * @param stage The stage
+	 * @param nanos The time spent in nanoseconds
+	 */
+	public void record(String command, ApplicationCommandType type, DispatchStage stage, long nanos) {
+		getStages(command, type)[stage.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Record the time spent by a command in a stage, from a start time to now
+	 * @param command The internal name of the command
+	 * @param type The type of the command
+	 * @param stage The stage
+	 * @param startNanos The start of the stage, as given by {@link System#nanoTime()}
+	 */
+	public void recordSince(String command, ApplicationCommandType type, DispatchStage stage, long startNanos) {
+		record(command, type, stage, System.nanoTime() - startNanos);
+	}
+
+	private LatencyHistogram[] getStages(String command, ApplicationCommandType type) {
+		return this.histograms.get(type).computeIfAbsent(command, name -> {
+			final LatencyHistogram[] stages = new LatencyHistogram[DispatchStage.values().length];
+			for(int i = 0; i < stages.length; i++) stages[i] = new LatencyHistogram();
+
+			return stages;
+		});
+	}
+
+	/**
+	 * Get the histogram of a stage for a command
+	 * @param command The internal name of the command
+	 * @param type The type of the command
+	 * @param stage The stage
+	 * @return the histogram or null if nothing has been recorded for this command
+	 */
+	public LatencyHistogram getHistogram(String command, ApplicationCommandType type, DispatchStage stage) {
+		final LatencyHistogram[] stages = this.histograms.get(type).get(command);
+		return stages == null ? null : stages[stage.ordinal()];
+	}
+
+	/**
+	 * Get every histogram recorded for a type of command
+	 * @param type The type of the command
+	 * @return an unmodifiable map of the histograms of each stage, by command
+	 */
+	public Map<String, Map<DispatchStage, LatencyHistogram>> getHistograms(ApplicationCommandType type) {
+		final Map<String, Map<DispatchStage, LatencyHistogram>> result = new ConcurrentHashMap<>();
+		this.histograms.get(type).forEach((command, stages) -> {
+			final Map<DispatchStage, LatencyHistogram> byStage = new EnumMap<>(DispatchStage.class);
+			for(DispatchStage stage : DispatchStage.values()) {
+				if(stages[stage.ordinal()].getCount() > 0) byStage.put(stage, stages[stage.ordinal()]);
+			}
+			result.put(command, Collections.unmodifiableMap(byStage));
+		});
+
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Remove every recorded latency
+	 */
+	public void reset() {
+		this.histograms.values().forEach(map -> map.values().forEach(stages -> {
+			for(LatencyHistogram histogram : stages) histogram.reset();
+		}));
+	}
+}
@@ -0,0 +1,37 @@
+package apbiot.core.dispatch;
+
+/**
+ * Stages followed by a command from the reception of the gateway event to its end
+ * @author 278deco
+ * @since 6.3.0
+ */
+public enum DispatchStage {
+	/**
+	 * Tokenization of the user's message. Only used by the native commands
+	 */
+	PARSE,
+	/**
+	 * Search of the command in the {@link CommandRoutingTable}
+	 */
+	LOOKUP,
+	/**
+	 * Search of an active cooldown for the user
+	 */
+	COOLDOWN_CHECK,
+	/**
+	 * Resolution of the permissions of the member
+	 */
+	PERMISSION_CHECK,
+	/**
+	 * Time spent by the command in the queue of the {@link CommandExecutor}
+	 */
+	QUEUE_WAIT,
+	/**
+	 * Execution of the command itself
+	 */
+	EXECUTE,
+	/**
+	 * Replies sent by the client instead of the command (cooldown, permission error, overloaded client...)
+	 */
+	REPLY;
+}
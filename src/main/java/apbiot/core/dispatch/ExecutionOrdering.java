@@ -0,0 +1,23 @@
+package apbiot.core.dispatch;
+
+/**
+ * Ordering guaranteed between the executions of a command
+ * @author 278deco
+ * @since 6.3.0
+ * @see CommandLanes
+ */
+public enum ExecutionOrdering {
+	/**
+	 * The executions can run in parallel, without any order
+	 */
+	UNORDERED,
+	/**
+	 * The executions triggered from the same channel run one after another, in the order they have been received
+	 */
+	PER_CHANNEL,
+	/**
+	 * The executions triggered from the same guild run one after another, in the order they have been received.<br/>
+	 * Private channels are ordered by channel
+	 */
+	PER_GUILD;
+}
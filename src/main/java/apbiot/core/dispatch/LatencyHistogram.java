@@ -0,0 +1,116 @@
+package apbiot.core.dispatch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies, using log-linear buckets in the manner of HdrHistogram.<br/>
+ * Values are stored in microseconds. Each power of two is split into {@value #SUB_BUCKET_COUNT} linear buckets,
+ * so the value reported for a percentile is within about 6% of the real value.
+ * Recording a value costs a few atomic increments and doesn't allocate.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	//Highest trackable value is 2^40 microseconds (about 12 days), larger values are clamped
+	private static final int MAGNITUDES = 40 - SUB_BUCKET_BITS + 1;
+	private static final long MAX_VALUE = (1L << 40) - 1;
+
+	private final AtomicLongArray buckets = new AtomicLongArray((MAGNITUDES + 1) * SUB_BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a new latency
+	 * @param nanos The latency in nanoseconds
+	 */
+	public void record(long nanos) {
+		final long micros = Math.min(MAX_VALUE, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+
+		buckets.incrementAndGet(bucketIndex(micros));
+		count.incrementAndGet();
+		sum.addAndGet(micros);
+		max.accumulateAndGet(micros, Math::max);
+	}
+
+	private static int bucketIndex(long value) {
+		if(value < SUB_BUCKET_COUNT) return (int)value;
+
+		//The SUB_BUCKET_BITS bits following the highest bit select the linear bucket
+		final int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		final int subBucket = (int)(value >>> magnitude) - SUB_BUCKET_COUNT;
+
+		return (magnitude + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	private static long bucketUpperValue(int index) {
+		if(index < SUB_BUCKET_COUNT) return index;
+
+		final int magnitude = index / SUB_BUCKET_COUNT - 1;
+		final long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+		return ((subBucket + 1) << magnitude) - 1;
+	}
+
+	/**
+	 * Get the value under which a percentage of the recorded latencies are
+	 * @param percentile The percentile, between 0 and 100
+	 * @return the latency in microseconds
+	 */
+	public long getValueAtPercentile(double percentile) {
+		final long total = count.get();
+		if(total == 0) return 0;
+
+		final long target = Math.max(1, (long)Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+		long seen = 0;
+		for(int i = 0; i < buckets.length(); i++) {
+			seen += buckets.get(i);
+			if(seen >= target) return Math.min(bucketUpperValue(i), getMax());
+		}
+
+		return getMax();
+	}
+
+	/**
+	 * @return the number of latencies recorded
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the mean of the recorded latencies in microseconds
+	 */
+	public double getMean() {
+		final long total = count.get();
+		return total == 0 ? 0 : (double)sum.get() / total;
+	}
+
+	/**
+	 * @return the highest latency recorded in microseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Remove every recorded latency
+	 */
+	public void reset() {
+		for(int i = 0; i < buckets.length(); i++) buckets.set(i, 0);
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d mean=%.0fus p50=%dus p90=%dus p99=%dus p99.9=%dus max=%dus",
+				getCount(), getMean(), getValueAtPercentile(50), getValueAtPercentile(90), getValueAtPercentile(99), getValueAtPercentile(99.9), getMax());
+	}
+}
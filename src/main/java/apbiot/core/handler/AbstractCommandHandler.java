@@ -10,6 +10,7 @@ import apbiot.core.command.ApplicationCommandInstance;
 import apbiot.core.command.ComponentCommandInstance;
 import apbiot.core.command.NativeCommandInstance;
 import apbiot.core.command.SlashCommandInstance;
+import apbiot.core.command.autocomplete.AutocompleteRegistry;
 import apbiot.core.i18n.LanguageManager;
 import apbiot.core.pems.BaseProgramEventEnum;
 import apbiot.core.pems.ProgramEventManager;
@@ -108,8 +109,10 @@ public abstract class AbstractCommandHandler extends Handler {
 		
 		SLASH_COMMANDS.forEach((key, value) -> {
 			final List<ApplicationCommandOptionData> optionsData = new ArrayList<>();
+			AutocompleteRegistry.get().unregisterCommand(value.getInternalName());
 			value.getCommandOptions(new ArrayList<>()).forEach(opt -> {
 				opt.updateLocalizationMapping(value.getInternalName());
+				opt.registerAutocompleteSources(value.getInternalName());
 				optionsData.add(opt.get());
 			});
 			
@@ -153,6 +153,8 @@ public class ArgumentHelper {
 	 * @param command the whole command containing the command name and the arguments
 	 * @return the list of arguments as {@link String}
 	 * @since 2.0
+	 * @deprecated since 6.3.0
+	 * @see apbiot.core.command.informations.NativeCommandTokens#parse(CharSequence, String)
 	 */
 	public static List<String> formatCommandArguments(boolean isPrefixSplitted, String command) {
 		if(command == "") return Arrays.asList("");
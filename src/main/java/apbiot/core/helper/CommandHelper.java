@@ -47,6 +47,17 @@ public class CommandHelper {
 		return separator != -1 && componentID.length() > 1 ? componentID.substring(separator+1) : null;
 	}
 	
+	/**
+	 * Get the shorten id of the command owning a component (without the component's name)
+	 * @param componentID The id received
+	 * @return the command's shorten id or the whole id if it doesn't contain any separator
+	 * @since 6.3.0
+	 */
+	public static String getCommandShortenID(String componentID) {
+		final int separator = componentID.indexOf(COMMAND_ID_SEPARATOR);
+		return separator != -1 ? componentID.substring(0, separator) : componentID;
+	}
+	
 	/**
 	 * Get the command send by the user and its argument(s)
 	 * @param userMessage The message sent by the user
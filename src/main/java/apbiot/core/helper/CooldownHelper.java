@@ -2,13 +2,17 @@ package apbiot.core.helper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import apbiot.core.command.AbstractCommandInstance;
 import apbiot.core.command.UserCommandCooldown;
+import apbiot.core.cooldown.CooldownStore;
 import apbiot.core.utils.Emojis;
 import discord4j.core.object.entity.Guild;
+import discord4j.core.object.entity.Member;
 import discord4j.core.object.entity.User;
 import discord4j.core.object.entity.channel.MessageChannel;
+import reactor.core.publisher.Mono;
 
 public class CooldownHelper {
 
@@ -30,7 +34,9 @@ public class CooldownHelper {
 	 * @param chan The {@link MessageChannel} where the user send the message
 	 * @return boolean if the user can execute the command
 	 * @since 3.0
+	 * @deprecated Scans the whole list for each command, use {@link CooldownStore} instead
 	 */
+	@Deprecated
 	public static boolean canExecuteCommand(List<UserCommandCooldown> list, User u, MessageChannel chan) {
 		for(UserCommandCooldown cmdU : list) {
 			if(cmdU.getUser().getId().compareTo(u.getId()) == 0) {
@@ -52,7 +58,9 @@ public class CooldownHelper {
 	 * @param list The list which contains the user list cooldown
 	 * @return the list without null instance
 	 * @since 3.0
+	 * @deprecated Copies the whole list, {@link CooldownStore} evicts the ended cooldowns by itself
 	 */
+	@Deprecated
 	public synchronized static List<UserCommandCooldown> wipeNullInstance(List<UserCommandCooldown> list) {
 		final List<UserCommandCooldown> memory = new ArrayList<>(list);
 		
@@ -84,4 +92,34 @@ public class CooldownHelper {
 		}
 	}
 	
-}
+	/**
+	 * Used to create an new command cooldown without blocking
+	 * @param cmd The command executed by the user
+	 * @param user The targeted user
+	 * @param member The targeted member if the command has been executed in a guild
+	 * @return a mono containing the new UserCommandCooldown or an empty mono if no cooldown is needed
+	 * @see apbiot.core.command.UserCommandCooldown
+	 * @since 6.3.0
+	 */
+	public static Mono<UserCommandCooldown> createNewCooldown(AbstractCommandInstance cmd, User user, Optional<Member> member) {
+		return needsCooldown(cmd, member).flatMap(needCooldown -> 
+			needCooldown ? Mono.just(new UserCommandCooldown(cmd, user, cmd.getCooldown().getTimer())) : Mono.empty());
+	}
+	
+	/**
+	 * Check if the cooldown of a command applies to a member, depending on the roles restricted or bypassing the cooldown
+	 * @param cmd The command executed by the user
+	 * @param member The targeted member if the command has been executed in a guild
+	 * @return a mono containing true if a cooldown must be applied
+	 * @since 6.3.0
+	 */
+	public static Mono<Boolean> needsCooldown(AbstractCommandInstance cmd, Optional<Member> member) {
+		if(cmd.getCooldown().isWithoutCooldown()) return Mono.just(false);
+		
+		final Mono<Boolean> haveTheRole = member.isPresent() ? 
+				PermissionHelper.hasAnyRole(cmd.getCooldown().getRoles(), member.get()) : Mono.just(false);
+		
+		return haveTheRole.map(hasRole -> cmd.getCooldown().isARestrictingCooldown() ? hasRole : !hasRole);
+	}
+	
+}
\ No newline at end of file
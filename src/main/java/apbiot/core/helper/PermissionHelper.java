@@ -5,7 +5,8 @@ import java.util.Objects;
 import java.util.Optional;
 
 import apbiot.core.permissions.CommandPermission;
-import apbiot.core.permissions.Permissions;
+import apbiot.core.permissions.MemberPermissionCache;
+import apbiot.core.permissions.MemberPermissions;
 import apbiot.core.utils.Emojis;
 import discord4j.common.util.Snowflake;
 import discord4j.core.object.entity.Guild;
@@ -15,7 +16,7 @@ import discord4j.core.object.entity.User;
 import discord4j.core.object.entity.channel.Channel;
 import discord4j.core.object.entity.channel.Channel.Type;
 import discord4j.rest.util.Permission;
-import discord4j.rest.util.PermissionSet;
+import reactor.core.publisher.Mono;
 
 public class PermissionHelper {
 
@@ -29,9 +30,9 @@ public class PermissionHelper {
 	public static boolean comparePermission(Member user, List<Permission> permissions) {
 		if (permissions == null || permissions.isEmpty()) return true;
 
-		final PermissionSet userPermissions = user.getBasePermissions().block();
+		final MemberPermissions memberPermissions = MemberPermissionCache.get().getPermissions(user).block();
 		for (Permission perm : permissions) {
-			if (!userPermissions.contains(perm))
+			if (!memberPermissions.hasPermission(perm))
 				return false;
 		}
 		return true;
@@ -82,20 +83,38 @@ public class PermissionHelper {
 		Objects.requireNonNull(user);
 		Objects.requireNonNull(cmdPerm);
 		
-		if(cmdPerm.areNoPermissionsRequired()) {	
-			return true;
-		}else if(cmdPerm.isDeveloperCommand()) {
-			return user.getId().compareTo(ownerID) == 0;
-		}else {
-			final PermissionSet userPermissions = user.getBasePermissions().block();
-			for(Permissions p : cmdPerm.getPermissions()) {
-				if ((p.isDiscordPermission() && userPermissions.contains(p.getPermission())) ||
-					(p.isRolePermission() && user.getRoles().any(role -> role.getName().equals(p.getRole())).block()))
-					return cmdPerm.areRestrictivePermissions() ? false : true;
-			}
-				
-			return cmdPerm.areRestrictivePermissions() ? true : false;
-		}
+		return cmdPerm.getCompiled().test(user, ownerID).block();
+	}
+	
+	/**
+	 * Used to tell if the user can execute a command or not without blocking
+	 * @param user The specified user
+	 * @param cmdPerm The command instance
+	 * @param ownerID The id of the bot's owner
+	 * @return a mono emitting if the user have all the required permissions or not
+	 * @see #doesUserHavePermissions(Member, CommandPermission, Snowflake)
+	 * @since 6.3.0
+	 */
+	public static Mono<Boolean> hasPermissions(Member user, CommandPermission cmdPerm, Snowflake ownerID) {
+		return Mono.defer(() -> {
+			Objects.requireNonNull(user);
+			Objects.requireNonNull(cmdPerm);
+			
+			return cmdPerm.getCompiled().test(user, ownerID);
+		});
+	}
+	
+	/**
+	 * Check if an user have at least one of the specified roles without blocking
+	 * @param names The roles' name
+	 * @param user The targeted user
+	 * @return a mono emitting if the user have one of the roles
+	 * @since 6.3.0
+	 */
+	public static Mono<Boolean> hasAnyRole(List<String> names, Member user) {
+		if(names.isEmpty()) return Mono.just(false);
+		
+		return MemberPermissionCache.get().getPermissions(user).map(memberPermissions -> memberPermissions.hasAnyRoleNamed(names));
 	}
 	
 	/**
@@ -106,11 +125,9 @@ public class PermissionHelper {
 	 * @since 2.0
 	 */
 	public static boolean userHaveTheRole(List<String> names, Member user) {
-		for (String roleName : names) {
-			if (user.getRoles().any(role -> role.getName().equals(roleName)).block()) return true;
-		}
+		if(names.isEmpty()) return false;
 		
-		return false;
+		return MemberPermissionCache.get().getPermissions(user).block().hasAnyRoleNamed(names);
 	}
 	
 	/**
@@ -123,11 +140,7 @@ public class PermissionHelper {
 	public static boolean userHaveTheRole(List<String> names, Optional<Member> user) {
 		if(user.isEmpty()) return false;
 		
-		for (String roleName : names) {
-			if (user.get().getRoles().any(role -> role.getName().equals(roleName)).block()) return true;
-		}
-		
-		return false;
+		return userHaveTheRole(names, user.get());
 	}
 	
 	/**
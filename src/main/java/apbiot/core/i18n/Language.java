@@ -22,7 +22,11 @@ public class Language {
 	private String name, region;
 	private String code, discordCode;
 
-	private Map<String, String> entries;
+	//Values indexed by the code of their key in the dictionary, null if the language doesn't define the key
+	private LocalizationDictionary dictionary;
+	private String[] values;
+	//Templates compiled on first use, indexed like the values. A race only compiles a template twice
+	private LocalizedTemplate[] templates;
 
 	public Language(Directory dir, String code) throws LocalizationReadingException, LocalizationKeyFormatException {
 		readFile(dir.getPath().resolve(code + ".json"), code);
@@ -35,6 +39,25 @@ public class Language {
 	public Language(Path path) throws LocalizationReadingException, LocalizationKeyFormatException {
 		readFile(path, path.getFileName().toString().replace(".json", ""));
 	}
+	
+	/**
+	 * Copy a language, binding its values to another dictionary
+	 * @param source The language to copy
+	 * @param dictionary The dictionary, it must contain every key of the source
+	 */
+	Language(Language source, LocalizationDictionary dictionary) {
+		this.name = source.name;
+		this.region = source.region;
+		this.code = source.code;
+		this.discordCode = source.discordCode;
+		this.dictionary = dictionary;
+		this.values = new String[dictionary.size()];
+		this.templates = new LocalizedTemplate[dictionary.size()];
+		
+		for(int i = 0; i < source.values.length; i++) {
+			if(source.values[i] != null) this.values[dictionary.codeOf(source.dictionary.keyOf(i))] = source.values[i];
+		}
+	}
 
 	@SuppressWarnings("unchecked")
 	private void readFile(Path fullPath, String code) throws LocalizationReadingException, LocalizationKeyFormatException {
@@ -47,13 +70,13 @@ public class Language {
 			reader = Files.newBufferedReader(fullPath);
 							
 			final JSONParser parser = new JSONParser(new JSONLexer(reader));
-			this.entries = (Map<String,String>)parser.parse();
+			final Map<String, String> entries = (Map<String,String>)parser.parse();
 			
 			//Check the validity of the file
-			this.region = this.entries.get("language.region");
-			this.name = this.entries.get("language.name");
-			this.code = this.entries.get("language.code");
-			this.discordCode = this.entries.get("language.discordcode");
+			this.region = entries.get("language.region");
+			this.name = entries.get("language.name");
+			this.code = entries.get("language.code");
+			this.discordCode = entries.get("language.discordcode");
 			
 			if(this.region == null || this.name == null || this.code == null || this.discordCode == null)
 				throw new LocalizationKeyFormatException("Missing language keys information (region/name/code/discordcode)");
@@ -63,11 +86,19 @@ public class Language {
 				throw new LocalizationReadingException("Invalid language code "+code);
 			
 			//Check the validity of the entries
-			for(Map.Entry<String, String> entry : this.entries.entrySet()) {
+			for(Map.Entry<String, String> entry : entries.entrySet()) {
 				if(!ENTRY_PATTERN.matcher(entry.getKey()).matches()) {
 					throw new LocalizationKeyFormatException("Format error with key "+entry.getKey());
 				}
-			}			
+			}
+			
+			//The language is bound to its own dictionary until the LanguageManager binds it to the shared one
+			this.dictionary = LocalizationDictionary.EMPTY.extend(entries.keySet());
+			this.values = new String[this.dictionary.size()];
+			this.templates = new LocalizedTemplate[this.dictionary.size()];
+			for(Map.Entry<String, String> entry : entries.entrySet()) {
+				this.values[this.dictionary.codeOf(entry.getKey())] = entry.getValue();
+			}
 						
 		}catch(JSONParseException e) {
 			throw new LocalizationReadingException("Unable to parse localization file "+code, e);
@@ -88,7 +119,7 @@ public class Language {
 	 * @return The localization depending on the key
 	 */
 	public final String getOrDefault(String key) {
-		return this.entries.getOrDefault(key, key);
+		return getOrDefault(key, key);
 	}
 	
 	/**
@@ -101,9 +132,67 @@ public class Language {
 	 * @return The localization depending on the key
 	 */
 	public final String getOrDefault(String key, String defaultValue) {
-		return this.entries.getOrDefault(key, defaultValue);
+		final String value = get(this.dictionary.codeOf(key));
+		return value != null ? value : defaultValue;
 	}
 	
+	/**
+	 * Get the localization associated with the code of a key. <br/>
+	 * The code can be obtained once with {@link LanguageManager#getKeyCode(String)}, it doesn't change when the languages are reloaded.
+	 * 
+	 * @param keyCode The code of the key in the {@link LocalizationDictionary}
+	 * @return The localization or null if the language doesn't define the key
+	 */
+	public final String get(int keyCode) {
+		return keyCode >= 0 && keyCode < this.values.length ? this.values[keyCode] : null;
+	}
+	
+	
+	/**
+	 * Get the compiled template of the localization associated with the key. <br/>
+	 * The template is parsed on the first call and cached by the language.
+	 * If no localization is found for the given key, returns a template of the key.
+	 * 
+	 * @param key The key bound to the localization
+	 * @return The template of the localization
+	 * @see LocalizedTemplate
+	 */
+	public final LocalizedTemplate getTemplate(String key) {
+		final LocalizedTemplate template = getTemplate(this.dictionary.codeOf(key));
+		return template != null ? template : LocalizedTemplate.literal(key);
+	}
+	
+	/**
+	 * Get the compiled template of the localization associated with the code of a key. <br/>
+	 * The template is parsed on the first call and cached by the language.
+	 * 
+	 * @param keyCode The code of the key in the {@link LocalizationDictionary}
+	 * @return The template of the localization or null if the language doesn't define the key
+	 */
+	public final LocalizedTemplate getTemplate(int keyCode) {
+		final String value = get(keyCode);
+		if(value == null) return null;
+		
+		LocalizedTemplate template = this.templates[keyCode];
+		if(template == null) {
+			template = LocalizedTemplate.compile(value);
+			this.templates[keyCode] = template;
+		}
+		return template;
+	}
+	
+	/**
+	 * Render the localization associated with the key, replacing its placeholders with the arguments. <br/>
+	 * If no localization is found for the given key, returns the key as a result.
+	 * 
+	 * @param key The key bound to the localization
+	 * @param args The arguments of the placeholders
+	 * @return The rendered localization
+	 * @see LocalizedTemplate
+	 */
+	public final String format(String key, Object... args) {
+		return getTemplate(key).format(args);
+	}
 	
 	/**
 	 * Get the localization associated with the key. <br/>
@@ -117,7 +206,8 @@ public class Language {
 	 * @return The localization depending on the key
 	 */
 	public final String getOrElse(String key, String otherKey) {
-		return this.entries.getOrDefault(key, this.entries.getOrDefault(otherKey, key));
+		final String value = get(this.dictionary.codeOf(key));
+		return value != null ? value : getOrDefault(otherKey, key);
 	}
 	
 	/**
@@ -126,7 +216,7 @@ public class Language {
 	 * @return true if the key has a mapping
 	 */
 	public final boolean hasKey(String key) {
-		return this.entries.containsKey(key);
+		return get(this.dictionary.codeOf(key)) != null;
 	}
 	
 	/**
@@ -198,6 +288,13 @@ public class Language {
 		return discordCode;
 	}
 	
+	/**
+	 * @return the dictionary the values of this language are bound to
+	 */
+	LocalizationDictionary getDictionary() {
+		return dictionary;
+	}
+	
 	@Override
 	public String toString() {
 		return "Language [name=" + name + ", region=" + region + ", code=" + code + "]";
@@ -0,0 +1,163 @@
+package apbiot.core.i18n;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Watch a folder of language files and reload the files changed in the {@link LanguageManager}.<br/>
+ * The files are parsed on the watcher thread, then the languages are swapped in a new snapshot: the lookups are never blocked.
+ * A file which cannot be read leaves the previous version of its language loaded, a deleted file unloads its language.
+ * <p>
+ * The changes are gathered during a short delay, so a file saved in several writes is only parsed once.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class LanguageFolderWatcher implements Closeable {
+
+	private static final Logger LOGGER = LogManager.getLogger(LanguageFolderWatcher.class);
+
+	private final Path folder;
+	private final Duration debounce;
+	private final WatchService watchService;
+	private final Thread thread;
+
+	private volatile boolean running = true;
+
+	private LanguageFolderWatcher(LanguageFolderWatcher.Builder builder) throws IOException {
+		this.folder = builder.folder.toAbsolutePath().normalize();
+		this.debounce = builder.debounce;
+
+		this.watchService = FileSystems.getDefault().newWatchService();
+		try {
+			this.folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		}catch(IOException e) {
+			this.watchService.close();
+			throw e;
+		}
+
+		this.thread = new Thread(this::watch, "Language-Watcher");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	private void watch() {
+		try {
+			while(running) {
+				WatchKey key = watchService.take();
+
+				final Set<Path> changed = new LinkedHashSet<>();
+				boolean overflow = false;
+				//Gather the changes until the folder stays quiet for the debounce delay
+				while(key != null) {
+					for(WatchEvent<?> event : key.pollEvents()) {
+						if(event.kind() == StandardWatchEventKinds.OVERFLOW) overflow = true;
+						else changed.add(folder.resolve((Path)event.context()));
+					}
+
+					if(!key.reset()) {
+						LOGGER.warn("Language folder {} is no longer accessible, stopping the watcher", folder);
+						running = false;
+					}
+					key = running ? watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS) : null;
+				}
+
+				if(overflow) {
+					LOGGER.info("Too many changes in language folder {}, reloading every language", folder);
+					LanguageManager.get().reloadLanguagesFolder(folder);
+				}else {
+					changed.forEach(this::handleChange);
+				}
+			}
+		}catch(InterruptedException | ClosedWatchServiceException e) {
+			//The watcher is closed
+		}catch(RuntimeException e) {
+			LOGGER.error("Unexpected error in language folder watcher, stopping it", e);
+		}
+	}
+
+	private void handleChange(Path file) {
+		final String fileName = file.getFileName().toString();
+		if(!fileName.endsWith(".json")) return;
+
+		if(Files.isRegularFile(file)) {
+			LOGGER.info("Reloading language {}...", fileName);
+			LanguageManager.get().reloadLanguageFile(file);
+		}else if(!Files.exists(file)) {
+			LanguageManager.get().unloadLanguageFile(file);
+		}
+	}
+
+	/**
+	 * @return the folder watched
+	 */
+	public Path getFolder() {
+		return folder;
+	}
+
+	/**
+	 * @return if the watcher is still watching the folder
+	 */
+	public boolean isRunning() {
+		return running && thread.isAlive();
+	}
+
+	/**
+	 * Stop watching the folder, the languages loaded stay in the {@link LanguageManager}
+	 */
+	@Override
+	public void close() throws IOException {
+		this.running = false;
+		this.watchService.close();
+		this.thread.interrupt();
+	}
+
+	public static LanguageFolderWatcher.Builder builder(Path folder) {
+		return new LanguageFolderWatcher.Builder(folder);
+	}
+
+	public static final class Builder {
+
+		private final Path folder;
+		private Duration debounce = Duration.ofMillis(250);
+
+		private Builder(Path folder) {
+			this.folder = folder;
+		}
+
+		/**
+		 * Set the delay without change after which the changed files are reloaded
+		 * @param debounce The delay, 250 milliseconds by default
+		 * @return this builder
+		 */
+		public Builder debounce(Duration debounce) {
+			if(debounce == null || debounce.isNegative()) throw new IllegalArgumentException("Debounce delay cannot be negative");
+			this.debounce = debounce;
+			return this;
+		}
+
+		/**
+		 * Start watching the folder
+		 * @return the watcher
+		 * @throws IOException if the folder cannot be watched
+		 */
+		public LanguageFolderWatcher start() throws IOException {
+			if(folder == null || !Files.isDirectory(folder)) throw new IllegalArgumentException("Language folder "+folder+" is not a directory");
+			return new LanguageFolderWatcher(this);
+		}
+	}
+}
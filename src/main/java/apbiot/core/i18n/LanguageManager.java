@@ -3,12 +3,13 @@ package apbiot.core.i18n;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
 import org.apache.logging.log4j.LogManager;
@@ -23,9 +24,12 @@ public class LanguageManager {
 	private static final Logger LOGGER = LogManager.getLogger(LanguageManager.class);
 	
 	private static volatile LanguageManager instance;
-	private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
-		
-	private Set<Language> localizations = new HashSet<>();
+	private static final ReentrantLock LOCK = new ReentrantLock();
+	
+	//Immutable snapshot replaced on each load, the lookups don't take any lock
+	private volatile Localizations localizations = new Localizations(LocalizationDictionary.EMPTY, new Language[0], Map.of());
+	//Code of the language read from each file, guarded by the lock
+	private final Map<Path, String> languageFiles = new HashMap<>();
 	
 	private LanguageManager() {
 	}
@@ -50,10 +54,38 @@ public class LanguageManager {
 	
 	public void loadLanguagesFolder(Path folderPath) {
 		try {
-			LOCK.writeLock().lock();
+			LOCK.lock();
 			
-			final Stream<Path> paths = Files.list(folderPath);
+			publish(this.localizations.byCode(), readLanguagesFolder(folderPath, Map.of()));
+		}finally {
+			LOCK.unlock();
+		}
+	}
+	
+	public void reloadLanguagesFolder(Path folderPath) {
+		try {
+			LOCK.lock();
+
+			final Path folder = folderPath.toAbsolutePath().normalize();
+			languageFiles.keySet().removeIf(file -> file.startsWith(folder) && !Files.exists(file));
 			
+			//The languages are replaced at once, the lookups never see an empty manager
+			publish(Map.of(), readLanguagesFolder(folderPath, this.localizations.byCode()));
+		} finally {
+			LOCK.unlock();
+		}
+	}
+	
+	/**
+	 * Read the language files of a folder. Must be called holding the lock
+	 * @param folderPath The folder
+	 * @param previous The languages kept when their file cannot be read, keyed by code
+	 * @return the languages read
+	 */
+	private List<Language> readLanguagesFolder(Path folderPath, Map<String, Language> previous) {
+		final List<Language> languages = new ArrayList<>();
+		
+		try(Stream<Path> paths = Files.list(folderPath)) {
 			paths.forEach(path -> {
 				if(Files.isDirectory(path)) return;
 				
@@ -63,81 +95,178 @@ public class LanguageManager {
 				LOGGER.info("Loading language {}...", fileName);
 				
 				try {
-					localizations.add(new Language(path));
+					final Language language = new Language(path);
+					languages.add(language);
+					languageFiles.put(path.toAbsolutePath().normalize(), language.getCode());
 					
 				} catch (LocalizationReadingException | LocalizationKeyFormatException e) {
-					LOGGER.warn("Skipping language file {} with cause {}", fileName, e);
+					final String code = languageFiles.get(path.toAbsolutePath().normalize());
+					if(code != null && previous.containsKey(code)) {
+						LOGGER.warn("Keeping the previous version of language file {} with cause {}", fileName, e);
+						languages.add(previous.get(code));
+					}else {
+						LOGGER.warn("Skipping language file {} with cause {}", fileName, e);
+					}
 				}
 			});
-			paths.close();
 			
 		} catch (IOException e) {
 			LOGGER.warn("Error while loading language files directory {}", e);
-		}finally {
-			LOCK.writeLock().unlock();
-		}
-	}
-	
-	public void reloadLanguagesFolder(Path folderPath) {
-		try {
-			LOCK.writeLock().lock();
-
-			localizations.clear();
-			loadLanguagesFolder(folderPath);
-
-		} finally {
-			LOCK.writeLock().unlock();
 		}
+		
+		return languages;
 	}
 	
 	public void loadLanguage(Path folderPath, String languageCode) {
-		handleLanguageMapping(folderPath, languageCode, false);
+		handleLanguageMapping(folderPath, languageCode);
     }
 	
 	public void reloadLanguage(Path folderPath, String languageCode) {
-		handleLanguageMapping(folderPath, languageCode, true);
+		handleLanguageMapping(folderPath, languageCode);
     }
 	
-	private void handleLanguageMapping(Path folderPath, String languageCode, boolean reload) {
+	private void handleLanguageMapping(Path folderPath, String languageCode) {
+		final Path path = folderPath.resolve(languageCode + ".json");
+		if(!Files.exists(path)) {
+			LOGGER.warn("Language file {} does not exist", languageCode);
+			return;
+		}
+		
+		LOGGER.info("Loading language {}...", languageCode);
+		reloadLanguageFile(path);
+	}
+	
+	/**
+	 * Load or reload a language file. The file is parsed before taking the lock, then the language is published.<br/>
+	 * If the file cannot be read, the previous version of the language stays loaded
+	 * @param path The language file
+	 * @return true if the language has been published
+	 */
+	public boolean reloadLanguageFile(Path path) {
+		final Path file = path.toAbsolutePath().normalize();
+		final Language language;
 		try {
-            LOCK.writeLock().lock();
-            
-            final Path path = folderPath.resolve(languageCode + ".json");
-            if(!Files.exists(path)) {
-                LOGGER.warn("Language file {} does not exist", languageCode);
-                return;
-            }
-            
-            LOGGER.info("Loading language {}...", languageCode);
-            
-            try {
-            	final Language language = new Language(path);
-            	if(reload) localizations.remove(language);
-                localizations.add(language);
-                
-            } catch (LocalizationReadingException | LocalizationKeyFormatException e) {
-                LOGGER.warn("Skipping language file {} with cause {}", languageCode, e);
-            }
-            
-        }finally {
-            LOCK.writeLock().unlock();
-        }
+			language = new Language(file);
+		} catch (LocalizationReadingException | LocalizationKeyFormatException e) {
+			LOGGER.warn("Keeping the previous version of language file {} with cause {}", file.getFileName(), e);
+			return false;
+		}
+		
+		try {
+			LOCK.lock();
+			
+			final Map<String, Language> kept = new LinkedHashMap<>(this.localizations.byCode());
+			//The code of the language may have been changed in the file
+			final String previousCode = languageFiles.put(file, language.getCode());
+			if(previousCode != null && !previousCode.equals(language.getCode())) kept.remove(previousCode);
+			
+			publish(kept, List.of(language));
+			return true;
+		}finally {
+			LOCK.unlock();
+		}
 	}
 	
-	public Optional<Language> getLanguage(String languageCode) {
+	/**
+	 * Unload the language read from a file, if any
+	 * @param path The language file
+	 */
+	public void unloadLanguageFile(Path path) {
 		try {
-			LOCK.readLock().lock();
-
-			for (Language language : localizations) {
-				if (language.getCode().equals(languageCode))
-					return Optional.of(language);
-			}
-
-		} finally {
-			LOCK.readLock().unlock();
+			LOCK.lock();
+			
+			final String code = languageFiles.remove(path.toAbsolutePath().normalize());
+			//Another file may define the same language
+			if(code == null || languageFiles.containsValue(code)) return;
+			
+			final Map<String, Language> kept = new LinkedHashMap<>(this.localizations.byCode());
+			kept.remove(code);
+			publish(kept, List.of());
+			LOGGER.info("Unloaded language {}", code);
+		}finally {
+			LOCK.unlock();
 		}
+	}
+	
+	/**
+	 * Bind the languages to a dictionary containing all their keys and publish them.<br/>
+	 * The dictionary only grows, so the code of a key stays the same across the reloads. Must be called holding the lock
+	 * @param kept The languages kept from the current snapshot, keyed by code
+	 * @param loaded The languages loaded, replacing the kept languages with the same code
+	 */
+	private void publish(Map<String, Language> kept, List<Language> loaded) {
+		final Map<String, Language> languages = new LinkedHashMap<>(kept);
+		for(Language language : loaded) languages.put(language.getCode(), language);
+		
+		LocalizationDictionary dictionary = this.localizations.dictionary();
+		for(Language language : languages.values()) {
+			if(language.getDictionary() != dictionary) dictionary = dictionary.extend(language.getDictionary().keys());
+		}
+		
+		final Language[] bound = new Language[languages.size()];
+		int index = 0;
+		for(Language language : languages.values()) {
+			final Language boundLanguage = language.getDictionary() == dictionary ? language : new Language(language, dictionary);
+			bound[index++] = boundLanguage;
+			languages.put(boundLanguage.getCode(), boundLanguage);
+		}
+		
+		this.localizations = new Localizations(dictionary, bound, Map.copyOf(languages));
+	}
+	
+	public Optional<Language> getLanguage(String languageCode) {
+		return languageCode == null ? Optional.empty() : Optional.ofNullable(this.localizations.byCode().get(languageCode));
+	}
+	
+	/**
+	 * @return the languages loaded
+	 */
+	public List<Language> getLanguages() {
+		return List.of(this.localizations.languages());
+	}
+	
+	/**
+	 * Get the code of a localization key, to get its localization with {@link Language#get(int)} without hashing the key on each lookup.<br/>
+	 * The code of a key doesn't change when the languages are reloaded
+	 * @param key The localization key
+	 * @return the code of the key or {@link LocalizationDictionary#UNKNOWN_KEY} if no language defines it
+	 */
+	public int getKeyCode(String key) {
+		return this.localizations.dictionary().codeOf(key);
+	}
+	
+	/**
+	 * Render the localization of a key in a language, replacing its placeholders with the arguments.<br/>
+	 * If the language or the key is not found, the key is returned
+	 * @param languageCode The language code
+	 * @param key The localization key
+	 * @param args The arguments of the placeholders
+	 * @return the rendered localization
+	 * @see LocalizedTemplate
+	 */
+	public String format(String languageCode, String key, Object... args) {
+		final Language language = languageCode == null ? null : this.localizations.byCode().get(languageCode);
+		return language != null ? language.format(key, args) : key;
+	}
+	
+	/**
+	 * Get the localization of a key in every language
+	 * @param key The localization key
+	 * @return A map with the discord language code as key and the localization
+	 */
+	private Map<String, String> getLocalizationMapping(String key) {
+		final Localizations snapshot = this.localizations;
+		final int code = snapshot.dictionary().codeOf(key);
 
-		return Optional.empty();
+		final Map<String, String> entries = new HashMap<>();
+		if(code == LocalizationDictionary.UNKNOWN_KEY) return entries;
+		
+		for (Language language : snapshot.languages()) {
+			final String value = language.get(code);
+			if(value != null) entries.put(language.getDiscordCode(), value);
+		}
+		
+		return entries;
 	}
 	
 	/**
@@ -150,14 +279,7 @@ public class LanguageManager {
 	 */
 	public Map<String, String> getCommandLocalizationMapping(String commandName, String localizationKey) {
 		final String key = "commands.discord."+commandName+"."+localizationKey;
-
-		final Map<String, String> entries = new HashMap<>();
-		
-		for (Language language : localizations) {
-			if(language.hasKey(key)) entries.put(language.getDiscordCode(), language.getOrDefault(key));
-		}
-		
-		return entries;
+		return getLocalizationMapping(key);
 	}
 	
 	/**
@@ -171,14 +293,7 @@ public class LanguageManager {
 	 */
 	public Map<String, String> getOptionLocalizationMapping(String commandName, String optionName, String localizationKey) {
 		final String key = "options.discord."+commandName +"."+ optionName +"."+ localizationKey;
-
-		final Map<String, String> entries = new HashMap<>();
-		
-		for (Language language : localizations) {
-			if(language.hasKey(key)) entries.put(language.getDiscordCode(), language.getOrDefault(key));
-		}
-		
-		return entries;
+		return getLocalizationMapping(key);
 	}
 	
 	/**
@@ -193,14 +308,9 @@ public class LanguageManager {
 	 */
 	public Map<String, String> getChoiceLocalizationMapping(String commandName, String optionName, String choiceName, String localizationKey) {
 		final String key = "choices.discord."+commandName +"."+ optionName +"."+ choiceName +"."+ localizationKey;
-
-		final Map<String, String> entries = new HashMap<>();
-		
-		for (Language language : localizations) {
-			if(language.hasKey(key)) entries.put(language.getDiscordCode(), language.getOrDefault(key));
-		}
-		
-		return entries;
+		return getLocalizationMapping(key);
 	}
 	
+	private record Localizations(LocalizationDictionary dictionary, Language[] languages, Map<String, Language> byCode) { }
+	
 }
@@ -0,0 +1,109 @@
+package apbiot.core.i18n;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dictionary of the localization keys shared by all the {@link Language}, each key is bound to an integer code.<br/>
+ * The languages store their values in an array indexed by this code, so a key is only stored once whatever the number of languages.
+ * The dictionary is immutable, adding keys creates a new dictionary keeping the codes of the existing ones.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class LocalizationDictionary {
+
+	/**
+	 * Code returned for a key which isn't in the dictionary
+	 */
+	public static final int UNKNOWN_KEY = -1;
+
+	static final LocalizationDictionary EMPTY = new LocalizationDictionary(new String[0]);
+
+	private final String[] keys;
+	//Open addressing table, each slot holds the code of a key plus one (zero for an empty slot)
+	private final int[] slots;
+	private final int mask;
+
+	private LocalizationDictionary(String[] keys) {
+		this.keys = keys;
+
+		//Load factor of 0.5 at most
+		int capacity = 2;
+		while(capacity < keys.length * 2) capacity <<= 1;
+		this.slots = new int[capacity];
+		this.mask = capacity - 1;
+
+		for(int code = 0; code < keys.length; code++) {
+			int slot = spread(keys[code].hashCode()) & mask;
+			while(slots[slot] != 0) slot = (slot + 1) & mask;
+			slots[slot] = code + 1;
+		}
+	}
+
+	/**
+	 * Create a dictionary containing the keys of this one, with the same codes, followed by the new keys
+	 * @param newKeys The keys to add, the keys already in the dictionary are ignored
+	 * @return the new dictionary, or this dictionary if every key is already known
+	 */
+	public LocalizationDictionary extend(Collection<String> newKeys) {
+		final Set<String> added = new LinkedHashSet<>();
+		for(String key : newKeys) {
+			if(codeOf(key) == UNKNOWN_KEY) added.add(key);
+		}
+		if(added.isEmpty()) return this;
+
+		final String[] extended = Arrays.copyOf(keys, keys.length + added.size());
+		int code = keys.length;
+		for(String key : added) extended[code++] = key;
+
+		return new LocalizationDictionary(extended);
+	}
+
+	/**
+	 * Get the code of a key
+	 * @param key The localization key
+	 * @return the code of the key or {@link #UNKNOWN_KEY}
+	 */
+	public int codeOf(String key) {
+		if(key == null) return UNKNOWN_KEY;
+
+		int slot = spread(key.hashCode()) & mask;
+		int code;
+		while((code = slots[slot]) != 0) {
+			if(keys[code - 1].equals(key)) return code - 1;
+			slot = (slot + 1) & mask;
+		}
+		return UNKNOWN_KEY;
+	}
+
+	/**
+	 * Get the key bound to a code
+	 * @param code The code
+	 * @return the key
+	 */
+	public String keyOf(int code) {
+		return keys[code];
+	}
+
+	/**
+	 * @return the keys, ordered by code
+	 */
+	public List<String> keys() {
+		return Collections.unmodifiableList(Arrays.asList(keys));
+	}
+
+	/**
+	 * @return the number of keys
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -0,0 +1,166 @@
+package apbiot.core.i18n;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Localized value parsed once into literal parts and positional placeholders.<br/>
+ * A placeholder is written {@code {0}}, {@code {1}}, ... and is replaced by the argument at this index when the template is rendered.
+ * Two braces <code>{{</code> are written as a literal brace, any other brace is kept as it is.
+ * <p>
+ * Example : {@code "{0} a gagné {1} points"} rendered with {@code "Alice", 12} gives {@code "Alice a gagné 12 points"}.
+ * <p>
+ * The templates are immutable and cached by the {@link Language}, see {@link Language#getTemplate(String)}.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class LocalizedTemplate {
+
+	private static final int MAX_BUFFER_CAPACITY = 4096;
+	private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+	//literals[i] is followed by the argument arguments[i], the last literal ends the template
+	private final String[] literals;
+	private final int[] arguments;
+	private final int argumentCount;
+	private final int literalLength;
+
+	private LocalizedTemplate(String[] literals, int[] arguments) {
+		this.literals = literals;
+		this.arguments = arguments;
+
+		int max = -1, length = 0;
+		for(int argument : arguments) max = Math.max(max, argument);
+		for(String literal : literals) length += literal.length();
+
+		this.argumentCount = max + 1;
+		this.literalLength = length;
+	}
+
+	/**
+	 * Parse a template
+	 * @param value The localized value
+	 * @return the compiled template
+	 */
+	public static LocalizedTemplate compile(String value) {
+		final List<String> literals = new ArrayList<>();
+		final List<Integer> arguments = new ArrayList<>();
+		final StringBuilder literal = new StringBuilder(value.length());
+
+		int i = 0;
+		while(i < value.length()) {
+			final char c = value.charAt(i);
+			if(c != '{') {
+				literal.append(c);
+				i++;
+				continue;
+			}
+
+			if(i + 1 < value.length() && value.charAt(i + 1) == '{') {
+				literal.append('{');
+				i += 2;
+				continue;
+			}
+
+			//Only {digits} is a placeholder, the other braces are part of the text
+			int end = i + 1;
+			while(end < value.length() && value.charAt(end) >= '0' && value.charAt(end) <= '9' && end - i <= 4) end++;
+			if(end == i + 1 || end >= value.length() || value.charAt(end) != '}') {
+				literal.append(c);
+				i++;
+				continue;
+			}
+
+			literals.add(literal.toString());
+			literal.setLength(0);
+			arguments.add(Integer.parseInt(value, i + 1, end, 10));
+			i = end + 1;
+		}
+		literals.add(literal.toString());
+
+		return new LocalizedTemplate(literals.toArray(String[]::new), arguments.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	/**
+	 * Create a template without placeholder
+	 * @param value The text of the template, its braces aren't parsed
+	 * @return the template
+	 */
+	public static LocalizedTemplate literal(String value) {
+		return new LocalizedTemplate(new String[] {value}, new int[0]);
+	}
+
+	/**
+	 * Render the template at the end of a builder.<br/>
+	 * The numbers and booleans are appended without creating an intermediate string.
+	 * A placeholder without argument is rendered as it is written
+	 * @param builder The builder
+	 * @param args The arguments of the placeholders
+	 * @return the builder
+	 */
+	public StringBuilder render(StringBuilder builder, Object... args) {
+		builder.append(literals[0]);
+		for(int i = 0; i < arguments.length; i++) {
+			final int index = arguments[i];
+			if(args != null && index < args.length) appendArgument(builder, args[index]);
+			else builder.append('{').append(index).append('}');
+
+			builder.append(literals[i + 1]);
+		}
+		return builder;
+	}
+
+	/**
+	 * Render the template in a buffer reused by the calling thread
+	 * @param args The arguments of the placeholders
+	 * @return the rendered string
+	 */
+	public String format(Object... args) {
+		if(arguments.length == 0) return literals[0];
+
+		StringBuilder builder = BUFFERS.get();
+		//Don't keep a large buffer for the lifetime of the thread
+		if(builder.capacity() > MAX_BUFFER_CAPACITY) {
+			builder = new StringBuilder(256);
+			BUFFERS.set(builder);
+		}
+
+		builder.setLength(0);
+		return render(builder, args).toString();
+	}
+
+	private static void appendArgument(StringBuilder builder, Object argument) {
+		if(argument instanceof CharSequence sequence) builder.append(sequence);
+		else if(argument instanceof Integer value) builder.append(value.intValue());
+		else if(argument instanceof Long value) builder.append(value.longValue());
+		else if(argument instanceof Double value) builder.append(value.doubleValue());
+		else if(argument instanceof Float value) builder.append(value.floatValue());
+		else if(argument instanceof Boolean value) builder.append(value.booleanValue());
+		else if(argument instanceof Character value) builder.append(value.charValue());
+		else builder.append(argument);
+	}
+
+	/**
+	 * @return the number of arguments expected, the highest placeholder index plus one
+	 */
+	public int getArgumentCount() {
+		return argumentCount;
+	}
+
+	/**
+	 * @return the length of the template without its placeholders
+	 */
+	public int getLiteralLength() {
+		return literalLength;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder(literalLength + arguments.length * 3);
+		builder.append(literals[0]);
+		for(int i = 0; i < arguments.length; i++) {
+			builder.append('{').append(arguments[i]).append('}').append(literals[i + 1]);
+		}
+		return builder.toString();
+	}
+}
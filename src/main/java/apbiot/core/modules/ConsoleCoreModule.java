@@ -3,6 +3,7 @@ package apbiot.core.modules;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -13,16 +14,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import apbiot.core.command.SystemCommand;
+import apbiot.core.command.informations.NativeCommandTokens;
+import apbiot.core.command.primary.CoreSystemCommandPrimary;
 import apbiot.core.exceptions.CoreModuleLaunchingException;
 import apbiot.core.exceptions.CoreModuleLoadingException;
 import apbiot.core.exceptions.CoreModuleShutdownException;
-import apbiot.core.helper.ArgumentHelper;
 import apbiot.core.pems.LoggableProgramEvent;
-import apbiot.core.pems.ProgramEvent;
+import apbiot.core.pems.EventSubscriber;
 import apbiot.core.pems.ProgramEvent.EventPriority;
 import apbiot.core.pems.events.CommandsListParsedEvent;
 
-public class ConsoleCoreModule extends CoreModule {
+public class ConsoleCoreModule extends CoreModule implements EventSubscriber {
 
 	private static final String COMMAND_NOT_FOUND_MSG = "Cannot recognize command input. Type 'help' to get the whole list of commands.";
 	
@@ -30,6 +32,8 @@ public class ConsoleCoreModule extends CoreModule {
 	
 	private BufferedReader inputReader;
 	private Map<Set<String>, SystemCommand> commandMap = new HashMap<>();
+	//Built-in commands, used when no command of the commandMap matches the input
+	private final Map<Set<String>, SystemCommand> coreCommandMap = new HashMap<>();
 	
 	public ConsoleCoreModule() {
 		super(UUID.randomUUID());
@@ -51,6 +55,12 @@ public class ConsoleCoreModule extends CoreModule {
 		this.coreHealthy.set(true);
 		
 		this.inputReader = new BufferedReader(new InputStreamReader(System.in));
+		
+		registerCoreCommand(new CoreSystemCommandPrimary());
+	}
+	
+	private void registerCoreCommand(SystemCommand command) {
+		this.coreCommandMap.put(command.getNames(), command);
 	}
 
 	
@@ -73,11 +83,24 @@ public class ConsoleCoreModule extends CoreModule {
 							continue;
 						}
 						
+						//The console has no prefix, the line is tokenized once for every command
+						final NativeCommandTokens tokens = NativeCommandTokens.parse(input, "");
+						final String commandName = tokens.getCommandName();
+						
 						boolean found = false;
 						for(var entry : commandMap.entrySet()) {
-							if(entry.getKey().contains(input.split(" +")[0])) {
+							if(entry.getKey().contains(commandName)) {
 								found = true;
-								entry.getValue().execute(ArgumentHelper.formatCommandArguments(false, input));
+								entry.getValue().execute(new ArrayList<>(tokens.getArguments()));
+							}
+						}
+						
+						if(!found) {
+							for(var entry : coreCommandMap.entrySet()) {
+								if(entry.getKey().contains(commandName)) {
+									found = true;
+									entry.getValue().execute(new ArrayList<>(tokens.getArguments()));
+								}
 							}
 						}
 						
@@ -114,14 +137,12 @@ public class ConsoleCoreModule extends CoreModule {
 	}
 	
 	@Override
-	public void onEventReceived(ProgramEvent e, EventPriority priority) {
-		if(e instanceof CommandsListParsedEvent) {
-			final Optional<Map<Set<String>, SystemCommand>> map = ((CommandsListParsedEvent)e).getConsoleCoreCommands();
+	public void subscribeEvents(Registry registry) {
+		registry.on(CommandsListParsedEvent.class, EventPriority.HIGH, e -> {
+			final Optional<Map<Set<String>, SystemCommand>> map = e.getConsoleCoreCommands();
 			if(map.isPresent()) this.commandMap = map.get();
-			
-		}else if(e instanceof LoggableProgramEvent) {
-			LOGGER.log(((LoggableProgramEvent)e).getLogPriority().getLevel(), ((LoggableProgramEvent)e).getLoggerMessage());
-		}
+		});
+		registry.on(LoggableProgramEvent.class, EventPriority.LOW, e -> LOGGER.log(e.getLogPriority().getLevel(), e.getLoggerMessage()));
 	}
 	
 	@Override
@@ -26,8 +26,7 @@ import apbiot.core.exceptions.CoreModuleShutdownException;
 import apbiot.core.exceptions.NonExistingFileInstanceException;
 import apbiot.core.io.NoCloseInputStream;
 import apbiot.core.pems.BaseProgramEventEnum;
-import apbiot.core.pems.ProgramEvent;
-import apbiot.core.pems.ProgramEvent.EventPriority;
+import apbiot.core.pems.EventSubscriber;
 import apbiot.core.pems.ProgramEventManager;
 import marshmalliow.core.builder.DotenvManager;
 import marshmalliow.core.helpers.SecurityHelper;
@@ -39,7 +38,7 @@ import marshmalliow.core.security.EncryptionType;
 import marshmalliow.core.security.FileCredentials;
 import marshmalliow.core.security.SaltSize;
 
-public class CredentialsCoreModule extends CoreModule {
+public class CredentialsCoreModule extends CoreModule implements EventSubscriber {
 
 	private static final Path DEFAULT_ENCRYPTED_CREDENTIALS_FILE_NAME = Path.of(".encredentials");
 	private static final Path DEFAULT_CREDENTIALS_FILE_NAME = Path.of(".credentials");
@@ -223,8 +222,8 @@ public class CredentialsCoreModule extends CoreModule {
 	}
 	
 	@Override
-	public void onEventReceived(ProgramEvent e, EventPriority priority) {
-
+	public void subscribeEvents(Registry registry) {
+		//No event needed
 	}
 
 	@Override
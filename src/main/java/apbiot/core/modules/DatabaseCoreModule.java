@@ -8,13 +8,13 @@ import org.mariadb.r2dbc.util.HostAddress;
 import apbiot.core.exceptions.CoreModuleLaunchingException;
 import apbiot.core.exceptions.CoreModuleLoadingException;
 import apbiot.core.exceptions.CoreModuleShutdownException;
-import apbiot.core.pems.ProgramEvent;
+import apbiot.core.pems.EventSubscriber;
 import apbiot.core.pems.ProgramEvent.EventPriority;
 import apbiot.core.pems.events.DatabaseCredentialsAcquiredEvent;
 import marshmalliow.core.database.DBFactory;
 import marshmalliow.core.database.security.DBCredentials;
 
-public class DatabaseCoreModule extends CoreModule {
+public class DatabaseCoreModule extends CoreModule implements EventSubscriber {
 	
 	private HostAddress host;
 	private String username;
@@ -78,14 +78,13 @@ public class DatabaseCoreModule extends CoreModule {
 	}
 	
 	@Override
-	public void onEventReceived(ProgramEvent e, EventPriority priority) {
-		if(priority == EventPriority.HIGH && e instanceof DatabaseCredentialsAcquiredEvent) {
-			final DatabaseCredentialsAcquiredEvent event = ((DatabaseCredentialsAcquiredEvent)e);
+	public void subscribeEvents(Registry registry) {
+		registry.on(DatabaseCredentialsAcquiredEvent.class, EventPriority.HIGH, event -> {
 			this.host = event.getHostAddress();
 			this.username = event.getUsername();
 			this.password = event.getPassword();
 			this.databaseName = event.getDatabaseName();
-		}
+		});
 	}
 
 	@Override
@@ -7,11 +7,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import apbiot.core.builder.ClientBuilder;
+import apbiot.core.cooldown.CooldownBackend;
+import apbiot.core.dispatch.AdmissionController;
+import apbiot.core.dispatch.CommandExecutor;
+import apbiot.core.dispatch.CommandWatchdog;
 import apbiot.core.exceptions.CoreModuleLaunchingException;
 import apbiot.core.exceptions.CoreModuleLoadingException;
 import apbiot.core.exceptions.CoreModuleShutdownException;
 import apbiot.core.exceptions.UnbuiltBotException;
-import apbiot.core.pems.ProgramEvent;
+import apbiot.core.pems.EventSubscriber;
 import apbiot.core.pems.ProgramEvent.EventPriority;
 import apbiot.core.pems.actions.CommandRebuildAction;
 import apbiot.core.pems.events.CommandsListParsedEvent;
@@ -22,7 +26,7 @@ import discord4j.core.object.presence.ClientPresence;
 import discord4j.gateway.intent.IntentSet;
 import discord4j.rest.http.client.ClientException;
 
-public class DiscordCoreModule extends CoreModule {
+public class DiscordCoreModule extends CoreModule implements EventSubscriber {
 	
 	private static final Logger LOGGER = LogManager.getLogger(ConsoleCoreModule.class);
 	
@@ -37,10 +41,62 @@ public class DiscordCoreModule extends CoreModule {
 
 	//Builder
 	private ClientBuilder clientBuilder;
+	private Optional<CommandExecutor> commandExecutor = Optional.empty();
+	private Optional<AdmissionController> admissionController = Optional.empty();
+	private Optional<CommandWatchdog> commandWatchdog = Optional.empty();
+	private Optional<CooldownBackend> cooldownBackend = Optional.empty();
 	
 	public DiscordCoreModule() {
 		super(UUID.randomUUID());
 	}
+	
+	/**
+	 * Set the {@link CommandExecutor} running the commands.<br/>
+	 * Must be called before the module is initialized, the default executor of the client is used otherwise
+	 * @param commandExecutor The executor used by the client
+	 * @return this module
+	 * @see ClientBuilder#setCommandExecutor(CommandExecutor)
+	 */
+	public DiscordCoreModule setCommandExecutor(CommandExecutor commandExecutor) {
+		this.commandExecutor = Optional.ofNullable(commandExecutor);
+		return this;
+	}
+	
+	/**
+	 * Set the {@link AdmissionController} shedding the commands when the client is overloaded.<br/>
+	 * Must be called before the module is initialized, the default controller of the client is used otherwise
+	 * @param admissionController The admission controller used by the client
+	 * @return this module
+	 * @see ClientBuilder#setAdmissionController(AdmissionController)
+	 */
+	public DiscordCoreModule setAdmissionController(AdmissionController admissionController) {
+		this.admissionController = Optional.ofNullable(admissionController);
+		return this;
+	}
+	
+	/**
+	 * Set the {@link CommandWatchdog} cancelling the commands running past their deadline.<br/>
+	 * Must be called before the module is initialized, the default watchdog of the client is used otherwise
+	 * @param commandWatchdog The watchdog used by the client
+	 * @return this module
+	 * @see ClientBuilder#setCommandWatchdog(CommandWatchdog)
+	 */
+	public DiscordCoreModule setCommandWatchdog(CommandWatchdog commandWatchdog) {
+		this.commandWatchdog = Optional.ofNullable(commandWatchdog);
+		return this;
+	}
+	
+	/**
+	 * Set the {@link CooldownBackend} storing the cooldowns, e.g. shared with other processes.<br/>
+	 * Must be called before the module is initialized, the cooldowns are kept in memory otherwise
+	 * @param cooldownBackend The cooldown backend used by the client
+	 * @return this module
+	 * @see ClientBuilder#setCooldownBackend(CooldownBackend)
+	 */
+	public DiscordCoreModule setCooldownBackend(CooldownBackend cooldownBackend) {
+		this.cooldownBackend = Optional.ofNullable(cooldownBackend);
+		return this;
+	}
 
 	@Override
 	public void executeAssertion() {
@@ -49,6 +105,10 @@ public class DiscordCoreModule extends CoreModule {
 	@Override
 	public void init() throws CoreModuleLoadingException {
 		this.clientBuilder = new ClientBuilder();
+		this.commandExecutor.ifPresent(this.clientBuilder::setCommandExecutor);
+		this.admissionController.ifPresent(this.clientBuilder::setAdmissionController);
+		this.commandWatchdog.ifPresent(this.clientBuilder::setCommandWatchdog);
+		this.cooldownBackend.ifPresent(this.clientBuilder::setCooldownBackend);
 		this.clientBuilder.createNewInstance();
 		
 		this.coreHealthy.set(true);
@@ -97,33 +157,24 @@ public class DiscordCoreModule extends CoreModule {
 	}
 	
 	@Override
-	public void onEventReceived(ProgramEvent e, EventPriority priority) {
-		if(priority == EventPriority.HIGH) {
-			if(e instanceof CommandsListParsedEvent) {
-				final CommandsListParsedEvent parsed = (CommandsListParsedEvent)e;
-				clientBuilder.updateNativeCommandMapping(parsed.getDiscordCoreNativeCommands());
-				clientBuilder.updateSlashCommandMapping(parsed.getDiscordCoreSlashCommands());
-				clientBuilder.updateApplicationCommandMapping(parsed.getDiscordCoreApplicationCommands());
-				clientBuilder.updateComponentCommandMapping(parsed.getDiscordCoreComponentCommands());
-				clientBuilder.buildCommandator();
-				
-			}else if(e instanceof ConfigurationLoadedEvent) {
-				final ConfigurationLoadedEvent parsed = (ConfigurationLoadedEvent)e;
-				this.prefix = parsed.getInstancePrefix();
-				this.intents = parsed.getInstanceIntentSet();
-				this.defaultPresence = parsed.getInstanceClientPresence(); 
-
-			}else if(e instanceof InstanceTokenAcquieredEvent) {
-				this.tokenSecret = ((InstanceTokenAcquieredEvent)e).getClientToken();
-			//EVENT_ACTIONS
-			}else if(e instanceof CommandRebuildAction) {
-				clientBuilder.rebuildCommandMapping(((CommandRebuildAction)e).getScope());
-			}
-		}
+	public void subscribeEvents(Registry registry) {
+		registry.on(CommandsListParsedEvent.class, EventPriority.HIGH, parsed -> {
+			clientBuilder.updateNativeCommandMapping(parsed.getDiscordCoreNativeCommands());
+			clientBuilder.updateSlashCommandMapping(parsed.getDiscordCoreSlashCommands());
+			clientBuilder.updateApplicationCommandMapping(parsed.getDiscordCoreApplicationCommands());
+			clientBuilder.updateComponentCommandMapping(parsed.getDiscordCoreComponentCommands());
+			clientBuilder.buildCommandator();
+		});
+		registry.on(ConfigurationLoadedEvent.class, EventPriority.HIGH, parsed -> {
+			this.prefix = parsed.getInstancePrefix();
+			this.intents = parsed.getInstanceIntentSet();
+			this.defaultPresence = parsed.getInstanceClientPresence(); 
+		});
+		registry.on(InstanceTokenAcquieredEvent.class, EventPriority.HIGH, e -> this.tokenSecret = e.getClientToken());
+		//EVENT_ACTIONS
+		registry.on(CommandRebuildAction.class, EventPriority.HIGH, e -> clientBuilder.rebuildCommandMapping(e.getScope()));
 		
-		if(priority == EventPriority.INTERMEDIATE && e instanceof CoreModulesReadyEvent) {
-			clientBuilder.setReady(true);
-		}
+		registry.on(CoreModulesReadyEvent.class, EventPriority.INTERMEDIATE, e -> clientBuilder.setReady(true));
 	}
 
 	@Override
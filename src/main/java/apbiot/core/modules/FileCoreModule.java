@@ -14,10 +14,11 @@ import org.apache.logging.log4j.Logger;
 import apbiot.core.exceptions.CoreModuleLaunchingException;
 import apbiot.core.exceptions.CoreModuleLoadingException;
 import apbiot.core.exceptions.CoreModuleShutdownException;
+import apbiot.core.i18n.LanguageFolderWatcher;
 import apbiot.core.i18n.LanguageManager;
 import apbiot.core.io.json.JSONClientConfiguration;
 import apbiot.core.pems.BaseProgramEventEnum;
-import apbiot.core.pems.ProgramEvent;
+import apbiot.core.pems.EventSubscriber;
 import apbiot.core.pems.ProgramEvent.EventPriority;
 import apbiot.core.pems.ProgramEventManager;
 import apbiot.core.pems.events.DirectoriesLoadedEvent;
@@ -30,11 +31,12 @@ import marshmalliow.core.builder.IOFactory;
 import marshmalliow.core.builder.JSONFactory;
 import marshmalliow.core.objects.Directory;
 
-public class FileCoreModule extends CoreModule {
+public class FileCoreModule extends CoreModule implements EventSubscriber {
 
 	private static final Logger LOGGER = LogManager.getLogger(FileCoreModule.class);
 
 	private DirectoryManager directoryManager;
+	private LanguageFolderWatcher languageWatcher;
 
 	public FileCoreModule() {
 		super(UUID.randomUUID());
@@ -109,6 +111,12 @@ public class FileCoreModule extends CoreModule {
 			final Path languagePath = Path.of("config/lang");
 			if(Files.exists(languagePath)) {
 				LanguageManager.get().loadLanguagesFolder(languagePath);
+				
+				try {
+					this.languageWatcher = LanguageFolderWatcher.builder(languagePath).start();
+				}catch(IOException e) {
+					LOGGER.warn("Couldn't watch the language folder, language files won't be reloaded on change", e);
+				}
 			}else {
 				LOGGER.warn("No language folder was found. Localized string might be appear broken.");
 			}
@@ -126,6 +134,15 @@ public class FileCoreModule extends CoreModule {
 	@Override
 	public void shutdown() throws CoreModuleShutdownException {
 		this.coreRunning.set(true);
+		if(this.languageWatcher != null) {
+			//The files must still be saved if the watcher cannot be closed
+			try {
+				this.languageWatcher.close();
+			}catch(IOException e) {
+				LOGGER.warn("Couldn't stop watching the language folder", e);
+			}
+		}
+		
 		try {
 			IOCacheManager.get().saveAll();
 		} catch (IOException e) {
@@ -136,11 +153,11 @@ public class FileCoreModule extends CoreModule {
 	}
 
 	@Override
-	public void onEventReceived(ProgramEvent e, EventPriority priority) {
-		if(e instanceof DirectoriesLoadedEvent) {
-			final Set<Directory> directories = ((DirectoriesLoadedEvent)e).getDirectories();
+	public void subscribeEvents(Registry registry) {
+		registry.on(DirectoriesLoadedEvent.class, EventPriority.INTERMEDIATE, e -> {
+			final Set<Directory> directories = e.getDirectories();
 			if(this.directoryManager != null && directories != null) this.directoryManager.registerNewDirectories(directories);
-		}
+		});
 	}
 
 	@Override
@@ -0,0 +1,108 @@
+package apbiot.core.pems;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import apbiot.core.pems.EventLane.OverflowPolicy;
+import apbiot.core.pems.ProgramEvent.EventPriority;
+
+/**
+ * Asynchronous delivery of the program events, enabled with {@link ProgramEventManager#enableAsynchronousDelivery(AsyncEventBus)}.<br/>
+ * An {@link EventLane} is created for each {@link EventPriority}. The subscriptions of a listener are all delivered by the lane
+ * of its highest priority, so a listener receives the events in the order they have been dispatched.
+ * <p>
+ * The events whose key is {@link ProgramEventEnumerator#isSynchronous() synchronous} are still delivered on the dispatching thread.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class AsyncEventBus {
+
+	private final Map<EventPriority, EventLane> lanes = new EnumMap<>(EventPriority.class);
+
+	private AsyncEventBus(AsyncEventBus.Builder builder) {
+		for(EventPriority priority : EventPriority.values()) {
+			this.lanes.put(priority, new EventLane(priority, builder.laneCapacity, builder.overflowPolicy));
+		}
+	}
+
+	/**
+	 * Queue an event in a lane
+	 * @param priority The priority of the lane
+	 * @param event The event
+	 * @param subscriptions The subscriptions of the lane receiving the event
+	 * @return if the event has been accepted by the lane
+	 */
+	boolean offer(EventPriority priority, ProgramEvent event, EventSubscription<?>[] subscriptions) {
+		return this.lanes.get(priority).offer(event, subscriptions);
+	}
+
+	/**
+	 * Get the lane delivering the subscriptions of a priority
+	 * @param priority The priority
+	 * @return the lane
+	 */
+	public EventLane getLane(EventPriority priority) {
+		return this.lanes.get(priority);
+	}
+
+	/**
+	 * Stop the lanes, the events already queued are delivered
+	 * @param timeout The maximum time to wait for each lane
+	 * @return if every queued event has been delivered
+	 */
+	public boolean shutdown(Duration timeout) {
+		boolean drained = true;
+		for(EventLane lane : this.lanes.values()) drained &= lane.shutdown(timeout);
+
+		return drained;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("Event lanes:");
+		this.lanes.values().forEach(lane -> sb.append("\n  ").append(lane));
+
+		return sb.toString();
+	}
+
+	public static AsyncEventBus.Builder builder() {
+		return new AsyncEventBus.Builder();
+	}
+
+	public static final class Builder {
+
+		private int laneCapacity = 4096;
+		private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+		private Builder() { }
+
+		/**
+		 * Set the number of events each lane can hold before the overflow policy is applied
+		 * @param laneCapacity The capacity of a lane
+		 * @return this builder
+		 */
+		public Builder laneCapacity(int laneCapacity) {
+			if(laneCapacity <= 0) throw new IllegalArgumentException("Lane capacity must be strictly positive");
+			this.laneCapacity = laneCapacity;
+			return this;
+		}
+
+		/**
+		 * Set what happens when an event is dispatched to a full lane.<br/>
+		 * The events are mostly dispatched from the gateway threads, which must not wait: {@link OverflowPolicy#BLOCK} should only be chosen
+		 * if the events are dispatched from threads allowed to block. The events dropped are counted by the lanes
+		 * @param overflowPolicy The overflow policy, {@link OverflowPolicy#DROP_OLDEST} by default
+		 * @return this builder
+		 */
+		public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+			if(overflowPolicy == null) throw new IllegalArgumentException("Overflow policy cannot be null");
+			this.overflowPolicy = overflowPolicy;
+			return this;
+		}
+
+		public AsyncEventBus build() {
+			return new AsyncEventBus(this);
+		}
+	}
+}
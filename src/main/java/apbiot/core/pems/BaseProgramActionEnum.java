@@ -1,21 +1,31 @@
 package apbiot.core.pems;
 
+import java.util.Optional;
+import java.util.function.Function;
+
 import apbiot.core.pems.actions.CommandRebuildAction;
 
 public enum BaseProgramActionEnum implements ProgramEventEnumerator {
 	
-	COMMAND_REBUILD_ACTION(CommandRebuildAction.class),
+	COMMAND_REBUILD_ACTION(CommandRebuildAction.class, CommandRebuildAction::new),
 	
-	UNDEFINED(null);
+	UNDEFINED(null, null);
 	
 	private final Class<? extends ProgramEvent> cls;
-	private BaseProgramActionEnum(Class<? extends ProgramEvent> cls) {
+	private final Function<Object[], ProgramEvent> factory;
+	private BaseProgramActionEnum(Class<? extends ProgramEvent> cls, Function<Object[], ProgramEvent> factory) {
 		this.cls = cls;
+		this.factory = factory;
 	}
 	
 	@Override
 	public Class<? extends ProgramEvent> getEventClass() {
 		return cls;
 	}
+	
+	@Override
+	public Optional<Function<Object[], ProgramEvent>> getEventFactory() {
+		return Optional.ofNullable(factory);
+	}
 
 }
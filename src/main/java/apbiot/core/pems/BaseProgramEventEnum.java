@@ -1,9 +1,13 @@
 package apbiot.core.pems;
 
+import java.util.Optional;
+import java.util.function.Function;
+
 import apbiot.core.pems.events.CacheCredentialsAcquieredEvent;
 import apbiot.core.pems.events.CommandErrorEvent;
 import apbiot.core.pems.events.CommandListBuildEvent;
 import apbiot.core.pems.events.CommandReceivedEvent;
+import apbiot.core.pems.events.CommandTimeoutEvent;
 import apbiot.core.pems.events.CommandsListParsedEvent;
 import apbiot.core.pems.events.ConfigurationLoadedEvent;
 import apbiot.core.pems.events.CoreModuleInitializationEvent;
@@ -18,41 +22,67 @@ import apbiot.core.pems.events.InstanceConnectedEvent;
 import apbiot.core.pems.events.InstanceDisconnectedEvent;
 import apbiot.core.pems.events.InstanceTokenAcquieredEvent;
 import apbiot.core.pems.events.ProgramStoppingEvent;
+import apbiot.core.pems.events.SlowListenerEvent;
 
 public enum BaseProgramEventEnum implements ProgramEventEnumerator {
 	
-	CORE_MODULE_INIT_EVENT(CoreModuleInitializationEvent.class),
-	CORE_MODULE_LAUNCH_EVENT(CoreModuleLaunchEvent.class),
-	CORE_MODULE_SHUTDOWN_EVENT(CoreModuleShutdownEvent.class),
-	CORE_MODULES_READY_EVENT(CoreModulesReadyEvent.class),
+	CORE_MODULE_INIT_EVENT(CoreModuleInitializationEvent.class, CoreModuleInitializationEvent::new),
+	CORE_MODULE_LAUNCH_EVENT(CoreModuleLaunchEvent.class, CoreModuleLaunchEvent::new),
+	CORE_MODULE_SHUTDOWN_EVENT(CoreModuleShutdownEvent.class, CoreModuleShutdownEvent::new),
+	CORE_MODULES_READY_EVENT(CoreModulesReadyEvent.class, CoreModulesReadyEvent::new),
+	
+	CONFIGURATION_LOADED_EVENT(ConfigurationLoadedEvent.class, ConfigurationLoadedEvent::new),
+	DIRECTORIES_LOADED_EVENT(DirectoriesLoadedEvent.class, DirectoriesLoadedEvent::new),
+	FILES_REGISTRATION_EVENT(FileRegistrationEvent.class, FileRegistrationEvent::new),
 	
-	CONFIGURATION_LOADED_EVENT(ConfigurationLoadedEvent.class),
-	DIRECTORIES_LOADED_EVENT(DirectoriesLoadedEvent.class),
-	FILES_REGISTRATION_EVENT(FileRegistrationEvent.class),
+	EXTERNAL_API_CREDENTIALS_ACQUIERED(ExternalAPICredentialsAcquieredEvent.class, ExternalAPICredentialsAcquieredEvent::new),
+	DATABASE_CREDENTIALS_ACQUIERED(DatabaseCredentialsAcquiredEvent.class, DatabaseCredentialsAcquiredEvent::new),
+	CACHE_CREDENTIALS_ACQUIERED(CacheCredentialsAcquieredEvent.class, CacheCredentialsAcquieredEvent::new),
+	CLIENT_INSTANCE_TOKEN_ACQUIERED(InstanceTokenAcquieredEvent.class, InstanceTokenAcquieredEvent::new),
 	
-	EXTERNAL_API_CREDENTIALS_ACQUIERED(ExternalAPICredentialsAcquieredEvent.class),
-	DATABASE_CREDENTIALS_ACQUIERED(DatabaseCredentialsAcquiredEvent.class),
-	CACHE_CREDENTIALS_ACQUIERED(CacheCredentialsAcquieredEvent.class),
-	CLIENT_INSTANCE_TOKEN_ACQUIERED(InstanceTokenAcquieredEvent.class),
+	CLIENT_INSTANCE_CONNECTED(InstanceConnectedEvent.class, InstanceConnectedEvent::new),
+	CLIENT_INSTANCE_DISCONNECTED(InstanceDisconnectedEvent.class, InstanceDisconnectedEvent::new),
 	
-	CLIENT_INSTANCE_CONNECTED(InstanceConnectedEvent.class),
-	CLIENT_INSTANCE_DISCONNECTED(InstanceDisconnectedEvent.class),
+	COMMAND_LIST_BUILD(CommandListBuildEvent.class, CommandListBuildEvent::new, false),
+	COMMAND_LIST_PARSED(CommandsListParsedEvent.class, CommandsListParsedEvent::new),
+	COMMAND_RECEIVED(CommandReceivedEvent.class, CommandReceivedEvent::new, false),
+	COMMMAND_ERROR(CommandErrorEvent.class, CommandErrorEvent::new, false),
+	COMMAND_TIMED_OUT(CommandTimeoutEvent.class, CommandTimeoutEvent::new, false),
 	
-	COMMAND_LIST_BUILD(CommandListBuildEvent.class),
-	COMMAND_LIST_PARSED(CommandsListParsedEvent.class),
-	COMMAND_RECEIVED(CommandReceivedEvent.class),
-	COMMMAND_ERROR(CommandErrorEvent.class),
+	SLOW_LISTENER(SlowListenerEvent.class, SlowListenerEvent::new, false),
 	
-	SHUTTING_DOWN_PROGRAM(ProgramStoppingEvent.class),
+	SHUTTING_DOWN_PROGRAM(ProgramStoppingEvent.class, ProgramStoppingEvent::new),
 	
-	UNDEFINED(null);
+	UNDEFINED(null, null);
 	
 	private Class<? extends ProgramEvent> eventClass;
-	private BaseProgramEventEnum(Class<? extends ProgramEvent> cls) {
+	private Function<Object[], ProgramEvent> eventFactory;
+	private boolean synchronous;
+	private BaseProgramEventEnum(Class<? extends ProgramEvent> cls, Function<Object[], ProgramEvent> factory) {
+		this(cls, factory, true);
+	}
+	
+	private BaseProgramEventEnum(Class<? extends ProgramEvent> cls, Function<Object[], ProgramEvent> factory, boolean synchronous) {
 		this.eventClass = cls;
+		this.eventFactory = factory;
+		this.synchronous = synchronous;
 	}
 	
 	public Class<? extends ProgramEvent> getEventClass() {
 		return eventClass;
 	}
+	
+	@Override
+	public Optional<Function<Object[], ProgramEvent>> getEventFactory() {
+		return Optional.ofNullable(eventFactory);
+	}
+	
+	/**
+	 * Only the events fired while running the commands can be delivered asynchronously,
+	 * the lifecycle events are always delivered on the dispatching thread
+	 */
+	@Override
+	public boolean isSynchronous() {
+		return synchronous;
+	}
 }
@@ -0,0 +1,77 @@
+package apbiot.core.pems;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent by an {@link EventSubscription} handling a class of events.<br/>
+ * Recording a delivery only updates counters, the statistics can be read at any time without stopping the deliveries.
+ * @author 278deco
+ * @see ProgramEventManager#getSubscriptions()
+ * @since 6.3.0
+ */
+public final class DeliveryStatistics {
+
+	private static final long REPORT_INTERVAL = Duration.ofSeconds(10).toNanos();
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+	private final LongAdder slowCount = new LongAdder();
+	private final AtomicLong lastReport = new AtomicLong(System.nanoTime() - REPORT_INTERVAL);
+
+	DeliveryStatistics() { }
+
+	void record(long elapsedNanos) {
+		count.increment();
+		totalNanos.add(elapsedNanos);
+		if(elapsedNanos > maxNanos.get()) maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+	}
+
+	/**
+	 * Count a slow delivery
+	 * @param now The current {@link System#nanoTime()}
+	 * @return if the delivery should be reported, at most once every 10 seconds
+	 */
+	boolean recordSlow(long now) {
+		slowCount.increment();
+
+		final long last = lastReport.get();
+		return now - last >= REPORT_INTERVAL && lastReport.compareAndSet(last, now);
+	}
+
+	void reset() {
+		count.reset();
+		totalNanos.reset();
+		maxNanos.set(0L);
+		slowCount.reset();
+	}
+
+	/**
+	 * @return the number of events handled
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	public long getAverageNanos() {
+		final long events = getCount();
+		return events == 0 ? 0L : getTotalNanos() / events;
+	}
+
+	/**
+	 * @return the number of deliveries slower than the threshold of the {@link ProgramEventManager}
+	 */
+	public long getSlowCount() {
+		return slowCount.sum();
+	}
+}
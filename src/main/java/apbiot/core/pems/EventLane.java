@@ -0,0 +1,243 @@
+package apbiot.core.pems;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import apbiot.core.pems.ProgramEvent.EventPriority;
+
+/**
+ * Bounded ring buffer of events consumed by a single thread, used by the {@link AsyncEventBus}.<br/>
+ * The events are delivered in the order they have been accepted, so a subscription always receives the events of a lane in order.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class EventLane {
+
+	private static final Logger LOGGER = LogManager.getLogger(EventLane.class);
+
+	private final EventPriority priority;
+	private final OverflowPolicy overflowPolicy;
+
+	private final ProgramEvent[] events;
+	private final EventSubscription<?>[][] targets;
+	private int head;
+	private int size;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+
+	private final AtomicInteger maxDepth = new AtomicInteger();
+	private final LongAdder delivered = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+
+	private final Thread consumer;
+	private volatile boolean running = true;
+
+	EventLane(EventPriority priority, int capacity, OverflowPolicy overflowPolicy) {
+		this.priority = priority;
+		this.overflowPolicy = overflowPolicy;
+		this.events = new ProgramEvent[capacity];
+		this.targets = new EventSubscription<?>[capacity][];
+
+		this.consumer = new Thread(this::consume, "Program Event Lane "+priority);
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+	}
+
+	/**
+	 * Add an event to the lane, applying the {@link OverflowPolicy} if the lane is full
+	 * @param event The event
+	 * @param subscriptions The subscriptions receiving the event, in delivery order
+	 * @return if the event has been accepted
+	 */
+	boolean offer(ProgramEvent event, EventSubscription<?>[] subscriptions) {
+		try {
+			lock.lock();
+			while(size == events.length) {
+				if(!running) return drop();
+
+				switch(overflowPolicy) {
+					case DROP_NEWEST:
+						return drop();
+					case DROP_OLDEST:
+						events[head] = null;
+						targets[head] = null;
+						head = (head + 1) % events.length;
+						size--;
+						dropped.increment();
+						break;
+					case BLOCK:
+						if(Thread.currentThread() == consumer) {
+							//A listener of this lane dispatched an event, waiting would never end
+							lock.unlock();
+							try {
+								deliver(event, subscriptions);
+							}finally {
+								lock.lock();
+							}
+							return true;
+						}
+						notFull.awaitUninterruptibly();
+						break;
+				}
+			}
+
+			final int tail = (head + size) % events.length;
+			events[tail] = event;
+			targets[tail] = subscriptions;
+			size++;
+			maxDepth.accumulateAndGet(size, Math::max);
+			notEmpty.signal();
+
+			return true;
+		}finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean drop() {
+		dropped.increment();
+		return false;
+	}
+
+	private void consume() {
+		while(true) {
+			final ProgramEvent event;
+			final EventSubscription<?>[] subscriptions;
+			try {
+				lock.lock();
+				while(size == 0) {
+					if(!running) return;
+					notEmpty.awaitUninterruptibly();
+				}
+
+				event = events[head];
+				subscriptions = targets[head];
+				events[head] = null;
+				targets[head] = null;
+				head = (head + 1) % events.length;
+				size--;
+				notFull.signal();
+			}finally {
+				lock.unlock();
+			}
+
+			deliver(event, subscriptions);
+		}
+	}
+
+	private void deliver(ProgramEvent event, EventSubscription<?>[] subscriptions) {
+		for(EventSubscription<?> subscription : subscriptions) {
+			try {
+				subscription.deliver(event);
+			}catch(RuntimeException e) {
+				failed.increment();
+				LOGGER.error("Unexpected error while delivering {} to {}", event.getClass().getSimpleName(), subscription, e);
+			}
+		}
+		delivered.increment();
+	}
+
+	/**
+	 * Stop accepting events and wait for the events already accepted to be delivered
+	 * @param timeout The maximum time to wait
+	 * @return if every event has been delivered
+	 */
+	boolean shutdown(Duration timeout) {
+		try {
+			lock.lock();
+			running = false;
+			notEmpty.signalAll();
+			notFull.signalAll();
+		}finally {
+			lock.unlock();
+		}
+
+		if(Thread.currentThread() == consumer) return false;
+		try {
+			consumer.join(TimeUnit.NANOSECONDS.toMillis(timeout.toNanos()) + 1);
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return !consumer.isAlive();
+	}
+
+	public EventPriority getPriority() {
+		return priority;
+	}
+
+	public int getCapacity() {
+		return events.length;
+	}
+
+	/**
+	 * @return the number of events waiting to be delivered
+	 */
+	public int getDepth() {
+		try {
+			lock.lock();
+			return size;
+		}finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the highest number of events which waited in the lane at the same time
+	 */
+	public int getMaxDepth() {
+		return maxDepth.get();
+	}
+
+	/**
+	 * @return the number of events delivered by the lane
+	 */
+	public long getDeliveredCount() {
+		return delivered.sum();
+	}
+
+	/**
+	 * @return the number of events dropped because the lane was full or stopped
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * @return the number of deliveries which threw an exception
+	 */
+	public long getFailedCount() {
+		return failed.sum();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-12s depth=%d/%d maxDepth=%d delivered=%d dropped=%d failed=%d",
+				priority, getDepth(), getCapacity(), getMaxDepth(), getDeliveredCount(), getDroppedCount(), getFailedCount());
+	}
+
+	public enum OverflowPolicy {
+		/**
+		 * The dispatching thread waits until the lane has room for the event.<br/>
+		 * Must not be used when the events are dispatched from a non-blocking thread, like the gateway threads
+		 */
+		BLOCK,
+		/**
+		 * The dispatched event is dropped
+		 */
+		DROP_NEWEST,
+		/**
+		 * The oldest event of the lane is dropped to make room for the dispatched event
+		 */
+		DROP_OLDEST;
+	}
+}
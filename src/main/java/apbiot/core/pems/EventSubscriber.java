@@ -0,0 +1,37 @@
+package apbiot.core.pems;
+
+import java.util.function.Consumer;
+
+import apbiot.core.pems.ProgramEvent.EventPriority;
+
+/**
+ * {@link EventListener} declaring the classes of events it is interested in.<br/>
+ * When added to the {@link ProgramEventManager}, {@link #subscribeEvents(Registry)} is called once
+ * and the listener only receives the events it subscribed to, {@link #onEventReceived(ProgramEvent, EventPriority)} is never called.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public interface EventSubscriber extends EventListener {
+
+	/**
+	 * Register the subscriptions of this listener
+	 * @param registry The registry of the subscriptions
+	 */
+	void subscribeEvents(Registry registry);
+
+	@Override
+	default void onEventReceived(ProgramEvent e, EventPriority priority) { }
+
+	public interface Registry {
+
+		/**
+		 * Subscribe to a class of events
+		 * @param <E> The class of the events
+		 * @param eventClass The class of the events, the events of its subclasses are also received
+		 * @param priority The priority of the delivery
+		 * @param handler The handler of the events
+		 * @return this registry
+		 */
+		<E extends ProgramEvent> Registry on(Class<E> eventClass, EventPriority priority, Consumer<? super E> handler);
+	}
+}
@@ -0,0 +1,108 @@
+package apbiot.core.pems;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import apbiot.core.pems.ProgramEvent.EventPriority;
+
+/**
+ * Subscription of a handler to a class of events, registered in the {@link ProgramEventManager}.<br/>
+ * The handler receives the events of this class and of its subclasses. The subscriptions interested in an event
+ * are called by order of {@link EventPriority} ({@link EventPriority#HIGH} first), then by order of registration.
+ * @author 278deco
+ * @param <E> The class of the events
+ * @see ProgramEventManager#subscribe(Class, EventPriority, Consumer)
+ * @since 6.3.0
+ */
+public final class EventSubscription<E extends ProgramEvent> {
+
+	static final Comparator<EventSubscription<?>> DELIVERY_ORDER =
+			Comparator.<EventSubscription<?>, EventPriority>comparing(EventSubscription::getPriority).thenComparingLong(subscription -> subscription.sequence);
+
+	private static final AtomicLong SEQUENCE = new AtomicLong();
+
+	private final Class<E> eventClass;
+	private final EventPriority priority;
+	private final Consumer<? super E> handler;
+	private final EventListener owner;
+	private final long sequence = SEQUENCE.getAndIncrement();
+	private final Map<Class<? extends ProgramEvent>, DeliveryStatistics> statistics = new ConcurrentHashMap<>();
+
+	EventSubscription(Class<E> eventClass, EventPriority priority, Consumer<? super E> handler, EventListener owner) {
+		this.eventClass = eventClass;
+		this.priority = priority;
+		this.handler = handler;
+		this.owner = owner;
+	}
+
+	/**
+	 * Check if the subscription is interested in a class of events
+	 * @param cls The class of the events
+	 * @return if the events of this class are delivered to the subscription
+	 */
+	public boolean accepts(Class<? extends ProgramEvent> cls) {
+		return this.eventClass.isAssignableFrom(cls);
+	}
+
+	void deliver(ProgramEvent event) {
+		final long start = System.nanoTime();
+		try {
+			this.handler.accept(this.eventClass.cast(event));
+		}finally {
+			final long end = System.nanoTime();
+			final Class<? extends ProgramEvent> cls = event.getClass();
+			
+			DeliveryStatistics stats = this.statistics.get(cls);
+			if(stats == null) stats = this.statistics.computeIfAbsent(cls, key -> new DeliveryStatistics());
+			stats.record(end - start);
+			
+			final ProgramEventManager manager = ProgramEventManager.get();
+			if(manager.isSlowDelivery(end - start) && stats.recordSlow(end)) manager.reportSlowDelivery(this, event, end - start);
+		}
+	}
+
+	public Class<E> getEventClass() {
+		return eventClass;
+	}
+
+	public EventPriority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * @return the listener which registered the subscription, empty if it has been registered directly
+	 */
+	public Optional<EventListener> getOwner() {
+		return Optional.ofNullable(owner);
+	}
+
+	/**
+	 * @return the name of the class of the listener which registered the subscription, or of the handler if it has been registered directly
+	 */
+	public String getListenerName() {
+		final String name = (owner != null ? owner.getClass() : handler.getClass()).getName();
+		final int lambda = name.indexOf("$$Lambda");
+		return lambda >= 0 ? name.substring(0, lambda) : name;
+	}
+	
+	/**
+	 * @return the time spent handling each class of events received by the subscription
+	 */
+	public Map<Class<? extends ProgramEvent>, DeliveryStatistics> getStatistics() {
+		return Collections.unmodifiableMap(statistics);
+	}
+	
+	void resetStatistics() {
+		this.statistics.values().forEach(DeliveryStatistics::reset);
+	}
+	
+	@Override
+	public String toString() {
+		return "EventSubscription [eventClass="+eventClass.getSimpleName()+", priority="+priority+", owner="+(owner != null ? owner.getClass().getSimpleName() : null)+"]";
+	}
+}
@@ -8,6 +8,14 @@ public abstract class LoggableProgramEvent extends ProgramEvent {
 		super(arguments);
 	}
 	
+	/**
+	 * @see ProgramEvent#ProgramEvent()
+	 * @since 6.3.0
+	 */
+	protected LoggableProgramEvent() {
+		super();
+	}
+	
 	public abstract String getLoggerMessage();
 	public abstract LogPriority getLogPriority();
 	
@@ -4,24 +4,60 @@ import java.util.Optional;
 
 public abstract class ProgramEvent {
 	
-	protected Object[] arguments;
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+	
+	//Volatile: the arguments can be packed by a lane thread while the event is delivered by the other lanes
+	protected volatile Object[] arguments;
 	
 	public ProgramEvent(Object[] arguments) {
 		this.arguments = arguments;
 	}
 	
+	/**
+	 * Create an event holding its data in typed fields.<br/>
+	 * The positional arguments are only built by {@link #packArguments()} if a listener still reads them.
+	 * @since 6.3.0
+	 */
+	protected ProgramEvent() {
+		this.arguments = null;
+	}
+	
+	/**
+	 * Build the positional arguments of an event created with typed fields, in the order documented by the event class
+	 * @return the positional arguments
+	 * @since 6.3.0
+	 */
+	protected Object[] packArguments() {
+		return NO_ARGUMENTS;
+	}
+	
+	/**
+	 * The array is fully built before being published, two threads packing it at the same time build equal arrays
+	 */
+	private Object[] arguments() {
+		Object[] args = this.arguments;
+		if(args == null) {
+			args = packArguments();
+			this.arguments = args;
+		}
+		return args;
+	}
+	
+	
 	public final Object getEventArgument(int index) {
-		if(index >= 0 && index < this.arguments.length) {
-			return this.arguments[index];
+		final Object[] args = arguments();
+		if(index >= 0 && index < args.length) {
+			return args[index];
 		}
 		
 		return null;
 	}
 	
 	public <E> E getEventArgument(Class<E> castingClass, int index) {
-		if(index >= 0 && index < this.arguments.length) {
+		final Object[] args = arguments();
+		if(index >= 0 && index < args.length) {
 			try {
-				return castingClass.cast(this.arguments[index]);
+				return castingClass.cast(args[index]);
 			}catch(ClassCastException e) {
 				return null;
 			}
@@ -31,17 +67,19 @@ public abstract class ProgramEvent {
 	}
 	
 	public final Optional<Object> getEventArgumentAsOptional(int index) {
-		if(index >= 0 && index < this.arguments.length) {
-			return Optional.ofNullable(this.arguments[index]);
+		final Object[] args = arguments();
+		if(index >= 0 && index < args.length) {
+			return Optional.ofNullable(args[index]);
 		}
 		
 		return Optional.empty();
 	}
 	
 	public <E> Optional<E> getEventArgumentAsOptional(Class<E> castingClass, int index) {
-		if(index >= 0 && index < this.arguments.length) {
+		final Object[] args = arguments();
+		if(index >= 0 && index < args.length) {
 			try {
-				return Optional.ofNullable(castingClass.cast(this.arguments[index]));
+				return Optional.ofNullable(castingClass.cast(args[index]));
 			}catch(ClassCastException e) {
 				return Optional.empty();
 			}
@@ -51,7 +89,7 @@ public abstract class ProgramEvent {
 	}
 	
 	public final Object getEventArgumentSize() {
-		return this.arguments.length;
+		return arguments().length;
 	}
 
 	public abstract EventPriority getPriority();
@@ -1,5 +1,28 @@
 package apbiot.core.pems;
 
+import java.util.Optional;
+import java.util.function.Function;
+
 public interface ProgramEventEnumerator {
 	Class<? extends ProgramEvent> getEventClass();
+	
+	/**
+	 * Get the factory creating the events of this key from their arguments.<br/>
+	 * If no factory is given, one is generated once from the {@code (Object[])} constructor of the event class
+	 * @return the factory of the events or an empty optional
+	 * @since 6.3.0
+	 */
+	default Optional<Function<Object[], ProgramEvent>> getEventFactory() {
+		return Optional.empty();
+	}
+	
+	/**
+	 * Check if the events of this key must be delivered on the dispatching thread, even when an {@link AsyncEventBus} is enabled.<br/>
+	 * Lifecycle events must be synchronous so the listeners have handled them when the dispatch returns
+	 * @return if the delivery is synchronous
+	 * @since 6.3.0
+	 */
+	default boolean isSynchronous() {
+		return false;
+	}
 }
@@ -1,12 +1,27 @@
 package apbiot.core.pems;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import apbiot.core.pems.ProgramEvent.EventPriority;
+import apbiot.core.pems.events.SlowListenerEvent;
 import apbiot.core.pems.exceptions.EventDispatchException;
 
 public class ProgramEventManager {
@@ -14,7 +29,19 @@ public class ProgramEventManager {
 	private static volatile ProgramEventManager instance;
 	private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
 	
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+	
+	
 	private final Set<EventListener> listeners;
+	private final List<EventSubscription<?>> subscriptions = new ArrayList<>();
+	//Subscriptions interested in each class of events, sorted by delivery order. Cleared when a subscription changes
+	private final ConcurrentHashMap<Class<? extends ProgramEvent>, Route> routes = new ConcurrentHashMap<>();
+	
+	private volatile AsyncEventBus asyncEventBus;
+	//Factories resolved once for each key, the events are then created by a direct call
+	private final ConcurrentHashMap<ProgramEventEnumerator, Function<Object[], ProgramEvent>> eventFactories = new ConcurrentHashMap<>();
+	
+	private volatile long slowListenerThreshold = Duration.ofMillis(50).toNanos();
 	
 	private ProgramEventManager() {
 		this.listeners = ConcurrentHashMap.newKeySet();
@@ -32,27 +59,69 @@ public class ProgramEventManager {
 	
 	/**
 	 * Dispatch a {@link ProgramEvent} to every listeners registered at the time of the call of this method.<br/>
+	 * Only the subscriptions interested in the class of the event are called, by order of priority.
+	 * The listeners which aren't {@link EventSubscriber} receive every event, with the {@link EventPriority#INTERMEDIATE} priority.<br/>
+	 * If an {@link AsyncEventBus} is enabled and the key isn't {@link ProgramEventEnumerator#isSynchronous() synchronous},
+	 * the event is queued in the lanes of the bus and this method returns without waiting for the listeners.<br/>
 	 * No verification are made before sending an event with specific arguments. If the arguments sent doesn't match required ones,
 	 * some check needs to be performed in the event class itself. 
 	 * @param event The event to be sent to every listeners
 	 * @param eventArguments The argument populating the event. Can be null or empty.
 	 * @throws EventDispatchException
-	 * @see EventListener#onEventReceived(ProgramEvent, apbiot.core.pems.ProgramEvent.EventPriority)
+	 * @see EventListener#onEventReceived(ProgramEvent, EventPriority)
 	 */
 	public void dispatchEvent(ProgramEventEnumerator event, Object[] eventArguments) throws EventDispatchException {
 		try {
 			LOCK.readLock().lock();
 			
+			//Nobody listens to this class of events, the event doesn't need to be built
+			final Class<? extends ProgramEvent> eventClass = event.getEventClass();
+			if(eventClass != null && getRoute(eventClass).subscriptions.length == 0) return;
+			
 			final ProgramEvent peObj = buildEventClass(event, eventArguments);
-			listeners.forEach(listener -> listener.onEventReceived(peObj, peObj.getPriority()));
+			deliverEvent(event, peObj, getRoute(peObj.getClass()));
+		}finally {
+			LOCK.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Dispatch an event already built by the caller, see {@link #dispatchEvent(ProgramEventEnumerator, Object[])}.<br/>
+	 * The event is delivered as is, which avoids building and reading positional arguments for the events declaring typed fields.
+	 * @param event The key of the event
+	 * @param eventObject The event to be sent to every listeners, must be an instance of the class of the key
+	 * @throws EventDispatchException if the event doesn't match the class of the key
+	 * @since 6.3.0
+	 */
+	public void dispatchEvent(ProgramEventEnumerator event, ProgramEvent eventObject) throws EventDispatchException {
+		final Class<? extends ProgramEvent> eventClass = event.getEventClass();
+		if(eventClass == null || !eventClass.isInstance(eventObject)) {
+			throw new EventDispatchException("Event "+(eventObject != null ? eventObject.getClass().getSimpleName() : null)+" doesn't match key "+event+"!");
+		}
+		
+		try {
+			LOCK.readLock().lock();
+			deliverEvent(event, eventObject, getRoute(eventObject.getClass()));
 		}finally {
 			LOCK.readLock().unlock();
 		}
 	}
 	
+	private void deliverEvent(ProgramEventEnumerator event, ProgramEvent peObj, Route route) {
+		final AsyncEventBus bus = this.asyncEventBus;
+		if(bus != null && !event.isSynchronous()) {
+			for(EventPriority priority : EventPriority.values()) {
+				final EventSubscription<?>[] lane = route.lanes[priority.ordinal()];
+				if(lane.length > 0) bus.offer(priority, peObj, lane);
+			}
+		}else {
+			for(EventSubscription<?> subscription : route.subscriptions) subscription.deliver(peObj);
+		}
+	}
+	
 	
 	public void dispatchEvent(ProgramEventEnumerator event) throws EventDispatchException {
-		dispatchEvent(event, new Object[] {});
+		dispatchEvent(event, NO_ARGUMENTS);
 	}
 	
 	public void dispatchDedicatedEvent(ProgramEventEnumerator event, Object[] eventArguments, Class<? extends EventListener>[] dedicatedListeners) throws EventDispatchException {
@@ -62,7 +131,7 @@ public class ProgramEventManager {
 	}
 
 	public void dispatchDedicatedEvent(ProgramEventEnumerator event, Class<? extends EventListener>[] dedicatedListeners) throws EventDispatchException {
-		dispatchDedicatedEvent(event, new Object[] {}, dedicatedListeners);
+		dispatchDedicatedEvent(event, NO_ARGUMENTS, dedicatedListeners);
 	}
 	
 	public void dispatchDedicatedEvent(ProgramEventEnumerator event, Object[] eventArguments, Set<Class<? extends EventListener>> dedicatedListeners) throws EventDispatchException {
@@ -70,52 +139,320 @@ public class ProgramEventManager {
 			LOCK.readLock().lock();
 			final ProgramEvent peObj = buildEventClass(event, eventArguments);
 			
-			listeners.forEach(listener -> {
-				if(dedicatedListeners.contains(listener.getClass())) listener.onEventReceived(peObj, peObj.getPriority());
-			});
+			for(EventSubscription<?> subscription : getRoute(peObj.getClass()).subscriptions) {
+				if(subscription.getOwner().isPresent() && dedicatedListeners.contains(subscription.getOwner().get().getClass())) subscription.deliver(peObj);
+			}
 		}finally {
 			LOCK.readLock().unlock();
 		}
 	}
 	
 	public void dispatchDedicatedEvent(ProgramEventEnumerator event, Set<Class<? extends EventListener>> dedicatedListeners) throws EventDispatchException {
-		dispatchDedicatedEvent(event, new Object[] {}, dedicatedListeners);
+		dispatchDedicatedEvent(event, NO_ARGUMENTS, dedicatedListeners);
 	}
 	
 	private ProgramEvent buildEventClass(ProgramEventEnumerator event, Object[] eventArguments) throws EventDispatchException {
-		Constructor<? extends ProgramEvent> constructor;
+		Function<Object[], ProgramEvent> factory = this.eventFactories.get(event);
+		if(factory == null) factory = this.eventFactories.computeIfAbsent(event, ProgramEventManager::resolveEventFactory);
+		
+		try {
+			return factory.apply(eventArguments == null ? NO_ARGUMENTS : eventArguments);
+		}catch(RuntimeException e) {
+			throw new EventDispatchException("Couldn't dispatch the event for key "+event+"!", e);
+		}
+	}
+	
+	/**
+	 * Resolve the factory of the events of a key. The factory given by the key is used if it exists,
+	 * otherwise a factory calling the {@code (Object[])} constructor of the event class is generated
+	 * @param event The key of the events
+	 * @return the factory creating the events
+	 * @throws EventDispatchException if the event class has no public {@code (Object[])} constructor
+	 */
+	@SuppressWarnings("unchecked")
+	private static Function<Object[], ProgramEvent> resolveEventFactory(ProgramEventEnumerator event) throws EventDispatchException {
+		final Optional<Function<Object[], ProgramEvent>> declared = event.getEventFactory();
+		if(declared.isPresent()) return declared.get();
+		
+		final Class<? extends ProgramEvent> eventClass = event.getEventClass();
+		if(eventClass == null) throw new EventDispatchException("No event class defined for key "+event+"!");
+		
+		final MethodHandle constructor;
 		try {
-			constructor = event.getEventClass().getConstructor(Object[].class);
-			final ProgramEvent peObj = constructor.newInstance(new Object[] {eventArguments});
+			constructor = MethodHandles.publicLookup().findConstructor(eventClass, MethodType.methodType(void.class, Object[].class));
+		}catch(NoSuchMethodException | IllegalAccessException e) {
+			throw new EventDispatchException("Couldn't find a public (Object[]) constructor for key "+event+"!", e);
+		}
+		
+		try {
+			//Spin a Function calling the constructor directly
+			final CallSite site = LambdaMetafactory.metafactory(MethodHandles.lookup(), "apply", MethodType.methodType(Function.class), 
+					MethodType.methodType(Object.class, Object.class), constructor, MethodType.methodType(eventClass, Object[].class));
 			
-			return peObj;
-		} catch (NoSuchMethodException | SecurityException | InstantiationException | 
-				IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-			e.printStackTrace();
-			throw new EventDispatchException("Couldn't dispatch the event for key "+event+"!");
+			return (Function<Object[], ProgramEvent>)site.getTarget().invokeExact();
+		}catch(Throwable e) {
+			//The event class isn't visible from this class loader, the constructor handle is called instead
+			final MethodHandle handle = constructor.asType(MethodType.methodType(ProgramEvent.class, Object[].class));
+			return arguments -> {
+				try {
+					return (ProgramEvent)handle.invokeExact(arguments);
+				}catch(RuntimeException | Error t) {
+					throw t;
+				}catch(Throwable t) {
+					throw new EventDispatchException("Couldn't create the event for key "+event+"!", t);
+				}
+			};
+		}
+	}
+	
+	private Route getRoute(Class<? extends ProgramEvent> eventClass) {
+		final Route route = this.routes.get(eventClass);
+		return route != null ? route : this.routes.computeIfAbsent(eventClass, this::buildRoute);
+	}
+	
+	private Route buildRoute(Class<? extends ProgramEvent> eventClass) {
+		final EventSubscription<?>[] accepted = this.subscriptions.stream()
+				.filter(subscription -> subscription.accepts(eventClass))
+				.sorted(EventSubscription.DELIVERY_ORDER)
+				.toArray(EventSubscription<?>[]::new);
+		
+		//Every subscription of a listener uses the lane of its highest priority to keep the events of the listener in order
+		final Map<EventListener, EventPriority> ownerLanes = new IdentityHashMap<>();
+		for(EventSubscription<?> subscription : this.subscriptions) {
+			if(subscription.getOwner().isPresent()) {
+				ownerLanes.merge(subscription.getOwner().get(), subscription.getPriority(), (a, b) -> a.compareTo(b) <= 0 ? a : b);
+			}
+		}
+		
+		final EventSubscription<?>[][] lanes = new EventSubscription<?>[EventPriority.values().length][];
+		for(EventPriority priority : EventPriority.values()) {
+			lanes[priority.ordinal()] = Arrays.stream(accepted)
+					.filter(subscription -> subscription.getOwner().map(ownerLanes::get).orElse(subscription.getPriority()) == priority)
+					.toArray(EventSubscription<?>[]::new);
+		}
+		
+		return new Route(accepted, lanes);
+	}
+	
+	/**
+	 * Deliver the events asynchronously through a bus. The previous bus, if any, is stopped after its queued events have been delivered
+	 * @param bus The bus delivering the events
+	 * @since 6.3.0
+	 */
+	public void enableAsynchronousDelivery(AsyncEventBus bus) {
+		final AsyncEventBus previous;
+		try {
+			LOCK.writeLock().lock();
+			previous = this.asyncEventBus;
+			this.asyncEventBus = bus;
+		}finally {
+			LOCK.writeLock().unlock();
+		}
+		
+		if(previous != null) previous.shutdown(Duration.ofSeconds(5));
+	}
+	
+	/**
+	 * Deliver the events on the dispatching thread again. The events already queued are delivered before this method returns
+	 * @param timeout The maximum time to wait for each lane
+	 * @return if every queued event has been delivered
+	 * @since 6.3.0
+	 */
+	public boolean disableAsynchronousDelivery(Duration timeout) {
+		final AsyncEventBus previous;
+		try {
+			LOCK.writeLock().lock();
+			previous = this.asyncEventBus;
+			this.asyncEventBus = null;
+		}finally {
+			LOCK.writeLock().unlock();
 		}
 		
+		return previous == null || previous.shutdown(timeout);
+	}
+	
+	/**
+	 * @return the bus delivering the events if the asynchronous delivery is enabled
+	 * @since 6.3.0
+	 */
+	public Optional<AsyncEventBus> getAsyncEventBus() {
+		return Optional.ofNullable(this.asyncEventBus);
+	}
+	
+	/**
+	 * Set the time after which a listener handling an event is reported by a {@link SlowListenerEvent}.<br/>
+	 * A listener is reported at most once every 10 seconds for each class of events. Every slow delivery is counted in its {@link DeliveryStatistics}
+	 * @param threshold The threshold, zero or negative to disable the reports
+	 * @since 6.3.0
+	 */
+	public void setSlowListenerThreshold(Duration threshold) {
+		this.slowListenerThreshold = threshold.isNegative() || threshold.isZero() ? Long.MAX_VALUE : threshold.toNanos();
+	}
+	
+	/**
+	 * @return the slow listener threshold, empty if the reports are disabled
+	 * @since 6.3.0
+	 */
+	public Optional<Duration> getSlowListenerThreshold() {
+		final long threshold = this.slowListenerThreshold;
+		return threshold == Long.MAX_VALUE ? Optional.empty() : Optional.of(Duration.ofNanos(threshold));
+	}
+	
+	boolean isSlowDelivery(long elapsedNanos) {
+		return elapsedNanos >= this.slowListenerThreshold;
+	}
+	
+	void reportSlowDelivery(EventSubscription<?> subscription, ProgramEvent event, long elapsedNanos) {
+		//The listeners of the report aren't reported, a slow logger would report itself forever
+		if(event instanceof SlowListenerEvent) return;
+		
+		dispatchEvent(BaseProgramEventEnum.SLOW_LISTENER, new SlowListenerEvent(subscription.getListenerName(), event.getClass().getName(), 
+				Duration.ofNanos(elapsedNanos), Duration.ofNanos(this.slowListenerThreshold)));
+	}
+	
+	/**
+	 * @return the subscriptions, by delivery order. Their {@link EventSubscription#getStatistics()} give the time spent by each listener
+	 * @since 6.3.0
+	 */
+	public List<EventSubscription<?>> getSubscriptions() {
+		try {
+			LOCK.readLock().lock();
+			return this.subscriptions.stream().sorted(EventSubscription.DELIVERY_ORDER).toList();
+		}finally {
+			LOCK.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Remove the time recorded for every subscription
+	 * @since 6.3.0
+	 */
+	public void resetDeliveryStatistics() {
+		try {
+			LOCK.readLock().lock();
+			this.subscriptions.forEach(EventSubscription::resetStatistics);
+		}finally {
+			LOCK.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Subscribe a handler to a class of events
+	 * @param <E> The class of the events
+	 * @param eventClass The class of the events, the events of its subclasses are also received
+	 * @param priority The priority of the delivery, {@link EventPriority#HIGH} subscriptions are called first
+	 * @param handler The handler of the events
+	 * @return the subscription, used to unsubscribe
+	 * @since 6.3.0
+	 */
+	public <E extends ProgramEvent> EventSubscription<E> subscribe(Class<E> eventClass, EventPriority priority, Consumer<? super E> handler) {
+		return addSubscription(new EventSubscription<>(eventClass, priority, handler, null));
+	}
+	
+	/**
+	 * Remove a subscription
+	 * @param subscription The subscription returned by {@link #subscribe(Class, EventPriority, Consumer)}
+	 * @return if the subscription has been removed
+	 * @since 6.3.0
+	 */
+	public boolean unsubscribe(EventSubscription<?> subscription) {
+		try {
+			LOCK.writeLock().lock();
+			final boolean removed = this.subscriptions.remove(subscription);
+			if(removed) this.routes.clear();
+			
+			return removed;
+		}finally {
+			LOCK.writeLock().unlock();
+		}
+	}
+	
+	private <E extends ProgramEvent> EventSubscription<E> addSubscription(EventSubscription<E> subscription) {
+		try {
+			LOCK.writeLock().lock();
+			this.subscriptions.add(subscription);
+			this.routes.clear();
+			
+			return subscription;
+		}finally {
+			LOCK.writeLock().unlock();
+		}
 	}
 	
+	/**
+	 * Register a listener. An {@link EventSubscriber} registers its own subscriptions,
+	 * any other listener receives every event
+	 * @param listener The listener
+	 * @return if the listener wasn't registered yet
+	 */
 	public boolean addNewListener(EventListener listener) {
 		try {
 			LOCK.writeLock().lock();
-			return this.listeners.add(listener);
+			if(!this.listeners.add(listener)) return false;
+			
+			if(listener instanceof EventSubscriber) {
+				((EventSubscriber)listener).subscribeEvents(new EventSubscriber.Registry() {
+					@Override
+					public <E extends ProgramEvent> EventSubscriber.Registry on(Class<E> eventClass, EventPriority priority, Consumer<? super E> handler) {
+						addSubscription(new EventSubscription<>(eventClass, priority, handler, listener));
+						return this;
+					}
+				});
+			}else {
+				addSubscription(new EventSubscription<>(ProgramEvent.class, EventPriority.INTERMEDIATE, e -> listener.onEventReceived(e, e.getPriority()), listener));
+			}
+			
+			return true;
 		}finally {
 			LOCK.writeLock().unlock();
 		}
 	}
 	
+	/**
+	 * Unregister a listener and all its subscriptions
+	 * @param listener The listener
+	 * @return if the listener was registered
+	 */
 	public boolean removeListener(EventListener listener) {
 		try {
 			LOCK.writeLock().lock();
-			return this.listeners.add(listener);
+			this.subscriptions.removeIf(subscription -> subscription.getOwner().orElse(null) == listener);
+			this.routes.clear();
+			
+			return this.listeners.remove(listener);
 		}finally {
 			LOCK.writeLock().unlock();
 		}
 	}
 	
+	/**
+	 * Subscriptions interested in a class of events, in delivery order and split by lane
+	 */
+	private static final class Route {
+		
+		private final EventSubscription<?>[] subscriptions;
+		private final EventSubscription<?>[][] lanes;
+		
+		private Route(EventSubscription<?>[] subscriptions, EventSubscription<?>[][] lanes) {
+			this.subscriptions = subscriptions;
+			this.lanes = lanes;
+		}
+	}
+	
 	public int getListenersNumber() {
 		return this.listeners.size();
 	}
+	
+	/**
+	 * @return the number of subscriptions, including one for each listener which isn't an {@link EventSubscriber}
+	 * @since 6.3.0
+	 */
+	public int getSubscriptionsNumber() {
+		try {
+			LOCK.readLock().lock();
+			return this.subscriptions.size();
+		}finally {
+			LOCK.readLock().unlock();
+		}
+	}
 }
@@ -15,34 +15,64 @@ import discord4j.core.object.entity.channel.Channel.Type;
  * <li>Commandator Response (string|nullable)</li>
  * <li>Channel Type ({@link Type})</li>
  * </ul>
+ * The arguments are held in typed fields, {@link #CommandErrorEvent(String, String, CommandatorEntry, Type)} avoids building them.
  */
 public class CommandErrorEvent extends LoggableProgramEvent {
 
+	private final String user;
+	private final String command;
+	private final CommandatorEntry commandatorResponse;
+	private final Type channelType;
+	
 	public CommandErrorEvent(Object[] arguments) {
 		super(arguments);
+		this.user = getEventArgument(String.class, 0);
+		this.command = getEventArgument(String.class, 1);
+		this.commandatorResponse = getEventArgument(CommandatorEntry.class, 2);
+		this.channelType = getEventArgument(Type.class, 3);
+	}
+	
+	/**
+	 * @param user The name of the user
+	 * @param command The name of the unknown command
+	 * @param commandatorResponse The closest command found by the commandator, can be null
+	 * @param channelType The type of the channel where the command has been issued
+	 * @since 6.3.0
+	 */
+	public CommandErrorEvent(String user, String command, CommandatorEntry commandatorResponse, Type channelType) {
+		super();
+		this.user = user;
+		this.command = command;
+		this.commandatorResponse = commandatorResponse;
+		this.channelType = channelType;
+	}
+	
+	@Override
+	protected Object[] packArguments() {
+		return new Object[] {user, command, commandatorResponse, channelType};
 	}
 
 	public String getUser() {
-		return getEventArgument(String.class, 0);
+		return user;
 	}
 
 	public String getCommand() {
-		return getEventArgument(String.class, 1);
+		return command;
 	}
 	
 	public Optional<CommandatorEntry> getCommandatorResponse() {
-		return this.arguments[2] == null ? Optional.empty() : getEventArgumentAsOptional(CommandatorEntry.class, 2);
+		return Optional.ofNullable(commandatorResponse);
 	}
 	
 	public Type getChannelType() {
-		return getEventArgument(Type.class, 3);
+		return channelType;
 	}
 	
 	@Override
 	public String getLoggerMessage() {
-		return "User "+getUser()+" issued inexistent bot command : "+getCommand()+
-				(getCommandatorResponse().isPresent() ? " and got commandator response: "+getCommandatorResponse().get()+")" : " and got no commandator response")+
-				" (Channel Type: "+getChannelType()+")";
+		return "User "+user+" issued inexistent bot command : "+command+
+				(commandatorResponse != null ? " and got commandator response: "+commandatorResponse+")" : " and got no commandator response")+
+				" (Channel Type: "+channelType+")";
 	}
 
 	@Override
@@ -7,16 +7,38 @@ import apbiot.core.pems.actions.CommandRebuildAction.CommandRebuildScope;
 
 public class CommandListBuildEvent extends LoggableProgramEvent {
 
+	private final String[] exceptionMessages;
+	private final CommandRebuildScope rebuildScope;
+	
 	public CommandListBuildEvent(Object[] arguments) {
 		super(arguments);
+		final Object[] messages = getEventArgument(Object[].class, 0);
+		this.exceptionMessages = messages != null ? Arrays.copyOf(messages, messages.length, String[].class) : new String[0];
+		this.rebuildScope = getEventArgument(CommandRebuildScope.class, 1);
+	}
+	
+	/**
+	 * @param exceptionMessages The names of the commands which couldn't be built
+	 * @param rebuildScope The scope of the build
+	 * @since 6.3.0
+	 */
+	public CommandListBuildEvent(String[] exceptionMessages, CommandRebuildScope rebuildScope) {
+		super();
+		this.exceptionMessages = exceptionMessages;
+		this.rebuildScope = rebuildScope;
+	}
+	
+	@Override
+	protected Object[] packArguments() {
+		return new Object[] {exceptionMessages, rebuildScope};
 	}
 
 	public String[] getExceptionMessages() {
-		return getEventArgument(String[].class, 0);
+		return exceptionMessages;
 	}
 	
 	public CommandRebuildScope getRebuildScope() {
-		return getEventArgument(CommandRebuildScope.class, 1);
+		return rebuildScope;
 	}
 	
 	@Override
@@ -26,7 +48,7 @@ public class CommandListBuildEvent extends LoggableProgramEvent {
 
 	@Override
 	public String getLoggerMessage() {
-		final String errors = Arrays.toString(getExceptionMessages()).replaceAll("(\\[|\\])", "");
+		final String errors = Arrays.toString(exceptionMessages).replaceAll("(\\[|\\])", "");
 		return "Built all commands successfully ! [command with errors:"+errors+"]";
 	}
 
@@ -13,32 +13,62 @@ import discord4j.core.object.entity.channel.Channel.Type;
  * <li>Channel Type ({@link Type})</li>
  * <li>Application command Type (({@link ApplicationCommandType})</li>
  * </ul>
+ * The arguments are held in typed fields, {@link #CommandReceivedEvent(String, String, Type, ApplicationCommandType)} avoids building them.
  */
 public class CommandReceivedEvent extends LoggableProgramEvent {
 	
+	private final String user;
+	private final String command;
+	private final Type channelType;
+	private final ApplicationCommandType commandType;
+	
 	public CommandReceivedEvent(Object[] arguments) {
 		super(arguments);
+		this.user = getEventArgument(String.class, 0);
+		this.command = getEventArgument(String.class, 1);
+		this.channelType = getEventArgument(Type.class, 2);
+		this.commandType = getEventArgument(ApplicationCommandType.class, 3);
+	}
+	
+	/**
+	 * @param user The name of the user
+	 * @param command The name of the command
+	 * @param channelType The type of the channel where the command has been issued
+	 * @param commandType The type of the command
+	 * @since 6.3.0
+	 */
+	public CommandReceivedEvent(String user, String command, Type channelType, ApplicationCommandType commandType) {
+		super();
+		this.user = user;
+		this.command = command;
+		this.channelType = channelType;
+		this.commandType = commandType;
+	}
+	
+	@Override
+	protected Object[] packArguments() {
+		return new Object[] {user, command, channelType, commandType};
 	}
 	
 	public String getUser() {
-		return (String)this.arguments[0];
+		return user;
 	}
 
 	public String getCommand() {
-		return (String)this.arguments[1];
+		return command;
 	}
 		
 	public Type getChannelType() {
-		return (Type)this.arguments[2];
+		return channelType;
 	}
 	
 	public ApplicationCommandType getCommandType() {
-		return (ApplicationCommandType)this.arguments[3];
+		return commandType;
 	}
 
 	@Override
 	public String getLoggerMessage() {
-		return "User "+getUser()+" issued "+getCommandType().toString()+" bot command : "+getCommand()+" (Channel Type: "+getChannelType()+")";
+		return "User "+user+" issued "+commandType+" bot command : "+command+" (Channel Type: "+channelType+")";
 	}
 	
 	@Override
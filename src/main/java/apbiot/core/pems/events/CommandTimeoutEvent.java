@@ -0,0 +1,74 @@
+package apbiot.core.pems.events;
+
+import java.time.Duration;
+
+import apbiot.core.dispatch.CommandWatchdog;
+import apbiot.core.pems.LoggableProgramEvent;
+
+/**
+ * CommandTimeoutEvent dispatched in {@link CommandWatchdog}<br/>
+ * Arguments : <ul>
+ * <li>Command (string)</li>
+ * <li>Elapsed time ({@link Duration})</li>
+ * <li>Deadline ({@link Duration})</li>
+ * </ul>
+ * @since 6.3.0
+ */
+public class CommandTimeoutEvent extends LoggableProgramEvent {
+
+	private final String command;
+	private final Duration elapsedTime;
+	private final Duration deadline;
+	
+	public CommandTimeoutEvent(Object[] arguments) {
+		super(arguments);
+		this.command = getEventArgument(String.class, 0);
+		this.elapsedTime = getEventArgument(Duration.class, 1);
+		this.deadline = getEventArgument(Duration.class, 2);
+	}
+	
+	/**
+	 * @param command The name of the cancelled command
+	 * @param elapsedTime The time the command ran before being cancelled
+	 * @param deadline The deadline of the command
+	 */
+	public CommandTimeoutEvent(String command, Duration elapsedTime, Duration deadline) {
+		super();
+		this.command = command;
+		this.elapsedTime = elapsedTime;
+		this.deadline = deadline;
+	}
+	
+	@Override
+	protected Object[] packArguments() {
+		return new Object[] {command, elapsedTime, deadline};
+	}
+
+	public String getCommand() {
+		return command;
+	}
+
+	public Duration getElapsedTime() {
+		return elapsedTime;
+	}
+
+	public Duration getDeadline() {
+		return deadline;
+	}
+
+	@Override
+	public String getLoggerMessage() {
+		return "Command "+command+" has been cancelled after running for "+elapsedTime.toMillis()+"ms (Deadline: "+deadline.toMillis()+"ms)";
+	}
+
+	@Override
+	public LogPriority getLogPriority() {
+		return LogPriority.WARNING;
+	}
+
+	@Override
+	public EventPriority getPriority() {
+		return EventPriority.LOW;
+	}
+
+}
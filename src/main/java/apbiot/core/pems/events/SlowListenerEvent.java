@@ -0,0 +1,84 @@
+package apbiot.core.pems.events;
+
+import java.time.Duration;
+
+import apbiot.core.pems.LoggableProgramEvent;
+import apbiot.core.pems.ProgramEventManager;
+
+/**
+ * SlowListenerEvent dispatched by the {@link ProgramEventManager} when a listener takes longer than the slow listener threshold to handle an event<br/>
+ * Arguments : <ul>
+ * <li>Listener (string)</li>
+ * <li>Event (string)</li>
+ * <li>Elapsed time ({@link Duration})</li>
+ * <li>Threshold ({@link Duration})</li>
+ * </ul>
+ * @see ProgramEventManager#setSlowListenerThreshold(Duration)
+ * @since 6.3.0
+ */
+public class SlowListenerEvent extends LoggableProgramEvent {
+
+	private final String listener;
+	private final String event;
+	private final Duration elapsedTime;
+	private final Duration threshold;
+
+	public SlowListenerEvent(Object[] arguments) {
+		super(arguments);
+		this.listener = getEventArgument(String.class, 0);
+		this.event = getEventArgument(String.class, 1);
+		this.elapsedTime = getEventArgument(Duration.class, 2);
+		this.threshold = getEventArgument(Duration.class, 3);
+	}
+
+	/**
+	 * @param listener The class name of the slow listener
+	 * @param event The class name of the event
+	 * @param elapsedTime The time the listener took to handle the event
+	 * @param threshold The slow listener threshold
+	 */
+	public SlowListenerEvent(String listener, String event, Duration elapsedTime, Duration threshold) {
+		super();
+		this.listener = listener;
+		this.event = event;
+		this.elapsedTime = elapsedTime;
+		this.threshold = threshold;
+	}
+
+	@Override
+	protected Object[] packArguments() {
+		return new Object[] {listener, event, elapsedTime, threshold};
+	}
+
+	public String getListener() {
+		return listener;
+	}
+
+	public String getEvent() {
+		return event;
+	}
+
+	public Duration getElapsedTime() {
+		return elapsedTime;
+	}
+
+	public Duration getThreshold() {
+		return threshold;
+	}
+
+	@Override
+	public String getLoggerMessage() {
+		return "Listener "+listener+" took "+elapsedTime.toMillis()+"ms to handle "+event+" (Threshold: "+threshold.toMillis()+"ms)";
+	}
+
+	@Override
+	public LogPriority getLogPriority() {
+		return LogPriority.WARNING;
+	}
+
+	@Override
+	public EventPriority getPriority() {
+		return EventPriority.LOW;
+	}
+
+}
@@ -0,0 +1,345 @@
+package apbiot.core.pems.journal;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import apbiot.core.pems.EventSubscriber;
+import apbiot.core.pems.LoggableProgramEvent;
+import apbiot.core.pems.ProgramEvent;
+import apbiot.core.pems.ProgramEvent.EventPriority;
+import apbiot.core.pems.events.CoreModuleInitializationEvent;
+import apbiot.core.pems.events.CoreModuleLaunchEvent;
+import apbiot.core.pems.events.CoreModuleShutdownEvent;
+import apbiot.core.pems.events.CoreModulesReadyEvent;
+
+/**
+ * Listener writing the program events in binary records to rolling memory-mapped segment files.<br/>
+ * Writing a record only encodes the event and copies it in the mapped segment: the next segment is created in advance
+ * and the full segments are flushed, closed and removed by a background thread.
+ * The journal can be read with a {@link JournalReader}, while it is written or offline with the {@link JournalCommandLine}.
+ * <p>
+ * By default the {@link LoggableProgramEvent} and the events of the lifecycle of the modules are journaled.
+ * The events carrying credentials shouldn't be journaled, their arguments are written as is.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class EventJournal implements EventSubscriber {
+
+	private static final Logger LOGGER = LogManager.getLogger(EventJournal.class);
+
+	private static final int INITIAL_RECORD_SIZE = 512;
+
+	private final Path directory;
+	private final int segmentSize;
+	private final int maxSegments;
+	private final Duration retention;
+	private final Set<Class<? extends ProgramEvent>> journaledEvents;
+	private final EventPriority priority;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final ExecutorService maintenance;
+	private final ThreadLocal<ByteBuffer> recordBuffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_RECORD_SIZE));
+
+	private JournalSegment current;
+	private volatile long currentSegmentId;
+	private Future<JournalSegment> next;
+	private long nextSegmentId;
+	private long sequence;
+	private boolean closed;
+
+	private final LongAdder written = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	private EventJournal(EventJournal.Builder builder) throws IOException {
+		this.directory = builder.directory;
+		this.segmentSize = builder.segmentSize;
+		this.maxSegments = builder.maxSegments;
+		this.retention = builder.retention;
+		this.journaledEvents = Set.copyOf(builder.journaledEvents);
+		this.priority = builder.priority;
+
+		Files.createDirectories(directory);
+		final List<Path> segments = JournalSegment.list(directory);
+		this.nextSegmentId = segments.isEmpty() ? 0L : JournalSegment.idOf(segments.get(segments.size() - 1)) + 1;
+
+		this.maintenance = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "Event Journal Maintenance");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		this.current = JournalSegment.create(directory, nextSegmentId++, segmentSize);
+		this.currentSegmentId = current.getId();
+		this.next = prepareSegment();
+		this.maintenance.execute(this::applyRetention);
+	}
+
+	@Override
+	public void subscribeEvents(Registry registry) {
+		for(Class<? extends ProgramEvent> eventClass : this.journaledEvents) registry.on(eventClass, this.priority, this::append);
+	}
+
+	/**
+	 * Write an event in the journal
+	 * @param event The event
+	 */
+	public void append(ProgramEvent event) {
+		final ByteBuffer record = encode(event);
+		if(record == null) {
+			dropped.increment();
+			return;
+		}
+
+		try {
+			lock.lock();
+			if(closed) {
+				dropped.increment();
+				return;
+			}
+
+			if(current.remaining() < record.remaining()) rotate();
+
+			record.putLong(JournalCodec.SEQUENCE_OFFSET, sequence++);
+			current.write(record);
+			written.increment();
+		}catch(IOException e) {
+			dropped.increment();
+			LOGGER.error("Couldn't write {} in the event journal", event.getClass().getSimpleName(), e);
+		}finally {
+			lock.unlock();
+		}
+	}
+
+	private ByteBuffer encode(ProgramEvent event) {
+		final long timestamp = System.currentTimeMillis();
+		final int maxRecordSize = segmentSize - JournalCodec.HEADER_SIZE - Integer.BYTES;
+
+		ByteBuffer buffer = recordBuffers.get();
+		while(true) {
+			try {
+				return JournalCodec.encode(buffer, event, timestamp);
+			}catch(BufferOverflowException | IndexOutOfBoundsException e) {
+				if(buffer.capacity() >= maxRecordSize) return null;
+
+				buffer = ByteBuffer.allocate(Math.min(buffer.capacity() * 2, maxRecordSize));
+				recordBuffers.set(buffer);
+			}
+		}
+	}
+
+	private void rotate() throws IOException {
+		final JournalSegment full = this.current;
+		try {
+			this.current = this.next.get();
+		}catch(ExecutionException e) {
+			//The segment prepared in advance couldn't be created, try again on this thread
+			this.current = JournalSegment.create(directory, nextSegmentId++, segmentSize);
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the next journal segment", e);
+		}
+		this.currentSegmentId = current.getId();
+		this.next = prepareSegment();
+
+		maintenance.execute(() -> {
+			closeSegment(full);
+			applyRetention();
+		});
+	}
+
+	private Future<JournalSegment> prepareSegment() {
+		final long id = nextSegmentId++;
+		return maintenance.submit(() -> JournalSegment.create(directory, id, segmentSize));
+	}
+
+	private void closeSegment(JournalSegment segment) {
+		try {
+			segment.close();
+		}catch(IOException e) {
+			LOGGER.warn("Couldn't close journal segment {}", segment.getFile(), e);
+		}
+	}
+
+	private void applyRetention() {
+		try {
+			final List<Path> segments = JournalSegment.list(directory);
+			final long oldestKept = System.currentTimeMillis() - retention.toMillis();
+			final long currentId = this.currentSegmentId;
+
+			//The segment prepared in advance isn't counted
+			int count = (int)segments.stream().filter(file -> JournalSegment.idOf(file) <= currentId).count();
+			for(Path file : segments) {
+				if(JournalSegment.idOf(file) >= currentId) break;
+				if(count <= maxSegments && Files.getLastModifiedTime(file).toMillis() >= oldestKept) break;
+
+				Files.deleteIfExists(file);
+				count--;
+			}
+		}catch(IOException e) {
+			LOGGER.warn("Couldn't apply the retention of the event journal", e);
+		}
+	}
+
+	/**
+	 * Flush and close the journal. The events received after this call are dropped
+	 */
+	public void close() {
+		try {
+			lock.lock();
+			if(closed) return;
+			closed = true;
+
+			closeSegment(current);
+		}finally {
+			lock.unlock();
+		}
+
+		//The segment prepared in advance has never been written
+		try {
+			final JournalSegment unused = next.get();
+			closeSegment(unused);
+			Files.deleteIfExists(unused.getFile());
+		}catch(ExecutionException | IOException e) {
+			LOGGER.warn("Couldn't remove the unused journal segment", e);
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		maintenance.shutdown();
+		try {
+			maintenance.awaitTermination(5, TimeUnit.SECONDS);
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @return the number of records written since the journal has been opened
+	 */
+	public long getWrittenCount() {
+		return written.sum();
+	}
+
+	/**
+	 * @return the number of events which couldn't be written
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "EventJournal [directory="+directory+", written="+getWrittenCount()+", dropped="+getDroppedCount()+"]";
+	}
+
+	public static EventJournal.Builder builder(Path directory) {
+		return new EventJournal.Builder(directory);
+	}
+
+	public static final class Builder {
+
+		private final Path directory;
+		private int segmentSize = 16 * 1024 * 1024;
+		private int maxSegments = 32;
+		private Duration retention = Duration.ofDays(7);
+		private final Set<Class<? extends ProgramEvent>> journaledEvents = new LinkedHashSet<>();
+		private EventPriority priority = EventPriority.LOW;
+
+		private Builder(Path directory) {
+			if(directory == null) throw new IllegalArgumentException("Journal directory cannot be null");
+			this.directory = directory;
+		}
+
+		/**
+		 * Set the size of the segment files
+		 * @param segmentSize The size in bytes, at least 64KiB
+		 * @return this builder
+		 */
+		public Builder segmentSize(int segmentSize) {
+			if(segmentSize < 64 * 1024) throw new IllegalArgumentException("Segment size must be at least 64KiB");
+			this.segmentSize = segmentSize;
+			return this;
+		}
+
+		/**
+		 * Set the number of segments kept, the oldest segments are removed first
+		 * @param maxSegments The number of segments
+		 * @return this builder
+		 */
+		public Builder maxSegments(int maxSegments) {
+			if(maxSegments <= 0) throw new IllegalArgumentException("Max segments must be strictly positive");
+			this.maxSegments = maxSegments;
+			return this;
+		}
+
+		/**
+		 * Set how long the segments are kept after their last write
+		 * @param retention The retention
+		 * @return this builder
+		 */
+		public Builder retention(Duration retention) {
+			if(retention == null || retention.isNegative() || retention.isZero()) throw new IllegalArgumentException("Retention must be strictly positive");
+			this.retention = retention;
+			return this;
+		}
+
+		/**
+		 * Journal a class of events, and its subclasses. If no class is given, the default classes are journaled
+		 * @param eventClass The class of the events
+		 * @return this builder
+		 */
+		public Builder journal(Class<? extends ProgramEvent> eventClass) {
+			if(eventClass == null) throw new IllegalArgumentException("Event class cannot be null");
+			this.journaledEvents.add(eventClass);
+			return this;
+		}
+
+		/**
+		 * Set the priority of the subscriptions of the journal
+		 * @param priority The priority
+		 * @return this builder
+		 */
+		public Builder priority(EventPriority priority) {
+			if(priority == null) throw new IllegalArgumentException("Priority cannot be null");
+			this.priority = priority;
+			return this;
+		}
+
+		/**
+		 * Open the journal, a new segment is always created
+		 * @return the journal
+		 * @throws IOException if the directory or the first segment couldn't be created
+		 */
+		public EventJournal build() throws IOException {
+			if(this.journaledEvents.isEmpty()) {
+				this.journaledEvents.add(LoggableProgramEvent.class);
+				this.journaledEvents.add(CoreModuleInitializationEvent.class);
+				this.journaledEvents.add(CoreModuleLaunchEvent.class);
+				this.journaledEvents.add(CoreModulesReadyEvent.class);
+				this.journaledEvents.add(CoreModuleShutdownEvent.class);
+			}
+			return new EventJournal(this);
+		}
+	}
+}
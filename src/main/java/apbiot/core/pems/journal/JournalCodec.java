@@ -0,0 +1,165 @@
+package apbiot.core.pems.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import apbiot.core.pems.ProgramEvent;
+
+/**
+ * Binary layout of the journal segments.<br/>
+ * A segment starts with a {@value #HEADER_SIZE} bytes header followed by the records. A record is made of:
+ * <ul>
+ * <li>its length, not including this field (int)</li>
+ * <li>its sequence number (long)</li>
+ * <li>the epoch millisecond it has been written (long)</li>
+ * <li>the class name of the event (string)</li>
+ * <li>the number of arguments (unsigned byte), followed by each tagged argument</li>
+ * </ul>
+ * A length of zero marks the end of the records of a segment.
+ * @author 278deco
+ * @since 6.3.0
+ */
+final class JournalCodec {
+
+	static final int MAGIC = 0x41504A4C; //APJL
+	static final short VERSION = 1;
+	static final int HEADER_SIZE = 24;
+
+	static final int SEQUENCE_OFFSET = 4;
+
+	private static final byte TAG_NULL = 0;
+	private static final byte TAG_STRING = 1;
+	private static final byte TAG_LONG = 2;
+	private static final byte TAG_DOUBLE = 3;
+	private static final byte TAG_BOOLEAN = 4;
+	private static final byte TAG_ENUM = 5;
+	private static final byte TAG_DURATION = 6;
+	private static final byte TAG_STRING_ARRAY = 7;
+	private static final byte TAG_TEXT = 8;
+
+	private static final int MAX_STRING_BYTES = 0xFFFF;
+	private static final int MAX_TEXT_LENGTH = 1024;
+	private static final int MAX_ARGUMENTS = 0xFF;
+
+	private JournalCodec() { }
+
+	/**
+	 * Encode an event in a buffer, the sequence number is left to zero and must be set when the record is written
+	 * @param buffer The buffer receiving the record, cleared before encoding
+	 * @param event The event
+	 * @param timestamp The epoch millisecond of the record
+	 * @return the buffer, flipped
+	 * @throws java.nio.BufferOverflowException if the buffer is too small for the record
+	 */
+	static ByteBuffer encode(ByteBuffer buffer, ProgramEvent event, long timestamp) {
+		buffer.clear();
+		buffer.putInt(0);
+		buffer.putLong(0L);
+		buffer.putLong(timestamp);
+		putString(buffer, event.getClass().getName());
+
+		final int size = Math.min((int)event.getEventArgumentSize(), MAX_ARGUMENTS);
+		buffer.put((byte)size);
+		for(int i = 0; i < size; i++) putValue(buffer, event.getEventArgument(i));
+
+		buffer.putInt(0, buffer.position() - Integer.BYTES);
+		return buffer.flip();
+	}
+
+	private static void putValue(ByteBuffer buffer, Object value) {
+		if(value == null) {
+			buffer.put(TAG_NULL);
+		}else if(value instanceof String str) {
+			buffer.put(TAG_STRING);
+			putString(buffer, str);
+		}else if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			buffer.put(TAG_LONG);
+			buffer.putLong(((Number)value).longValue());
+		}else if(value instanceof Double || value instanceof Float) {
+			buffer.put(TAG_DOUBLE);
+			buffer.putDouble(((Number)value).doubleValue());
+		}else if(value instanceof Boolean bool) {
+			buffer.put(TAG_BOOLEAN);
+			buffer.put(bool ? (byte)1 : (byte)0);
+		}else if(value instanceof Enum<?> enumValue) {
+			buffer.put(TAG_ENUM);
+			putString(buffer, enumValue.name());
+		}else if(value instanceof Duration duration) {
+			buffer.put(TAG_DURATION);
+			buffer.putLong(duration.toNanos());
+		}else if(value instanceof String[] array) {
+			final int size = Math.min(array.length, MAX_ARGUMENTS);
+			buffer.put(TAG_STRING_ARRAY);
+			buffer.put((byte)size);
+			for(int i = 0; i < size; i++) putString(buffer, array[i]);
+		}else {
+			final String text = String.valueOf(value);
+			buffer.put(TAG_TEXT);
+			putString(buffer, text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text);
+		}
+	}
+
+	private static void putString(ByteBuffer buffer, String value) {
+		final byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+		final int length = Math.min(bytes.length, MAX_STRING_BYTES);
+		buffer.putShort((short)length);
+		buffer.put(bytes, 0, length);
+	}
+
+	/**
+	 * Decode the record starting at the position of the buffer
+	 * @param buffer The buffer, positioned after the length of the record
+	 * @param length The length of the record
+	 * @return the record
+	 */
+	static JournalRecord decode(ByteBuffer buffer, int length) {
+		final int end = buffer.position() + length;
+
+		final long sequence = buffer.getLong();
+		final long timestamp = buffer.getLong();
+		final String eventType = getString(buffer);
+
+		final int size = Byte.toUnsignedInt(buffer.get());
+		final List<Object> arguments = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) arguments.add(getValue(buffer));
+
+		buffer.position(end);
+		return new JournalRecord(sequence, timestamp, eventType, arguments);
+	}
+
+	private static Object getValue(ByteBuffer buffer) {
+		final byte tag = buffer.get();
+		switch(tag) {
+			case TAG_NULL:
+				return null;
+			case TAG_STRING:
+			case TAG_ENUM:
+			case TAG_TEXT:
+				return getString(buffer);
+			case TAG_LONG:
+				return buffer.getLong();
+			case TAG_DOUBLE:
+				return buffer.getDouble();
+			case TAG_BOOLEAN:
+				return buffer.get() != 0;
+			case TAG_DURATION:
+				return Duration.ofNanos(buffer.getLong());
+			case TAG_STRING_ARRAY:
+				final String[] array = new String[Byte.toUnsignedInt(buffer.get())];
+				for(int i = 0; i < array.length; i++) array[i] = getString(buffer);
+				return Arrays.asList(array);
+			default:
+				throw new IllegalStateException("Unknown journal value tag "+tag);
+		}
+	}
+
+	private static String getString(ByteBuffer buffer) {
+		final byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,90 @@
+package apbiot.core.pems.journal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.function.Predicate;
+
+/**
+ * Command line tool reading an {@link EventJournal} offline.<br/>
+ * Usage: {@code JournalCommandLine <directory> [--type <name>] [--from <instant>] [--to <instant>] [--contains <text>] [--limit <n>] [--count]}
+ * <ul>
+ * <li>{@code --type}: keep the events whose class name, simple or fully qualified, matches (case insensitive)</li>
+ * <li>{@code --from}, {@code --to}: keep the events written in this interval, given in ISO-8601 (e.g. 2024-01-31T18:00:00Z)</li>
+ * <li>{@code --contains}: keep the events with an argument containing the text</li>
+ * <li>{@code --limit}: stop after printing this number of events</li>
+ * <li>{@code --count}: only print the number of matching events</li>
+ * </ul>
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class JournalCommandLine {
+
+	private static final String USAGE = "Usage: JournalCommandLine <directory> [--type <name>] [--from <instant>] [--to <instant>] [--contains <text>] [--limit <n>] [--count]";
+
+	private JournalCommandLine() { }
+
+	public static void main(String[] args) {
+		if(args.length == 0) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		Predicate<JournalRecord> filter = record -> true;
+		long limit = Long.MAX_VALUE;
+		boolean countOnly = false;
+
+		try {
+			for(int i = 1; i < args.length; i++) {
+				switch(args[i]) {
+					case "--type" -> {
+						final String type = value(args, ++i);
+						filter = filter.and(record -> record.getEventName().equalsIgnoreCase(type) || record.getEventType().equalsIgnoreCase(type));
+					}
+					case "--from" -> {
+						final Instant from = Instant.parse(value(args, ++i));
+						filter = filter.and(record -> !record.getTimestamp().isBefore(from));
+					}
+					case "--to" -> {
+						final Instant to = Instant.parse(value(args, ++i));
+						filter = filter.and(record -> record.getTimestamp().isBefore(to));
+					}
+					case "--contains" -> {
+						final String text = value(args, ++i);
+						filter = filter.and(record -> record.getArguments().stream().anyMatch(argument -> String.valueOf(argument).contains(text)));
+					}
+					case "--limit" -> limit = Long.parseLong(value(args, ++i));
+					case "--count" -> countOnly = true;
+					default -> throw new IllegalArgumentException("Unknown option "+args[i]);
+				}
+			}
+		}catch(IllegalArgumentException | DateTimeParseException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		final boolean print = !countOnly;
+		final long maxPrinted = limit;
+		try {
+			final long[] printed = new long[1];
+			final long matched = JournalReader.open(Path.of(args[0])).scan(filter, record -> {
+				if(print && printed[0] < maxPrinted) {
+					System.out.println(record);
+					printed[0]++;
+				}
+			});
+
+			if(countOnly) System.out.println(matched);
+		}catch(IOException e) {
+			System.err.println("Couldn't read the journal: "+e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	private static String value(String[] args, int index) {
+		if(index >= args.length) throw new IllegalArgumentException("Missing value for option "+args[index - 1]);
+		return args[index];
+	}
+}
@@ -0,0 +1,122 @@
+package apbiot.core.pems.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Reader of the records written by an {@link EventJournal}.<br/>
+ * The segments are read from the oldest to the newest. A journal can be read while it is written,
+ * the records written after a segment has been mapped by the reader aren't read.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class JournalReader {
+
+	private final Path directory;
+
+	private JournalReader(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Create a reader for a journal
+	 * @param directory The directory of the journal
+	 * @return the reader
+	 */
+	public static JournalReader open(Path directory) {
+		if(directory == null) throw new IllegalArgumentException("Journal directory cannot be null");
+		return new JournalReader(directory);
+	}
+
+	/**
+	 * @return the files of the segments, from the oldest to the newest
+	 * @throws IOException if the directory couldn't be listed
+	 */
+	public List<Path> getSegments() throws IOException {
+		return JournalSegment.list(directory);
+	}
+
+	/**
+	 * Read every record of the journal, in the order they have been written
+	 * @return a stream of the records, each segment is read when the stream reaches it
+	 * @throws IOException if the directory couldn't be listed
+	 */
+	public Stream<JournalRecord> records() throws IOException {
+		return getSegments().stream().flatMap(segment -> {
+			try {
+				return readSegment(segment).stream();
+			}catch(NoSuchFileException e) {
+				return Stream.empty();
+			}catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	/**
+	 * Read the records of the journal matching a filter
+	 * @param filter The filter of the records
+	 * @param action The action called for each record
+	 * @return the number of records matching the filter
+	 * @throws IOException if a segment couldn't be read
+	 */
+	public long scan(Predicate<JournalRecord> filter, Consumer<JournalRecord> action) throws IOException {
+		long matched = 0L;
+		for(Path segment : getSegments()) {
+			final List<JournalRecord> records;
+			try {
+				records = readSegment(segment);
+			}catch(NoSuchFileException e) {
+				continue; //Removed by the retention of the journal since the listing
+			}
+			
+			for(JournalRecord record : records) {
+				if(!filter.test(record)) continue;
+
+				action.accept(record);
+				matched++;
+			}
+		}
+		return matched;
+	}
+
+	/**
+	 * Read the records of a segment, the reading stops at the first incomplete record
+	 * @param segment The file of the segment
+	 * @return the records
+	 * @throws IOException if the file couldn't be read or isn't a segment
+	 */
+	public static List<JournalRecord> readSegment(Path segment) throws IOException {
+		final List<JournalRecord> records = new ArrayList<>();
+		try(FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if(buffer.remaining() < JournalCodec.HEADER_SIZE || buffer.getInt() != JournalCodec.MAGIC) {
+				throw new IOException(segment+" isn't an event journal segment");
+			}
+
+			final short version = buffer.getShort();
+			if(version != JournalCodec.VERSION) throw new IOException("Unsupported journal version "+version+" in "+segment);
+			buffer.position(JournalCodec.HEADER_SIZE);
+
+			while(buffer.remaining() >= Integer.BYTES) {
+				final int length = buffer.getInt();
+				if(length <= 0 || length > buffer.remaining()) break;
+
+				records.add(JournalCodec.decode(buffer, length));
+			}
+		}
+		return records;
+	}
+
+}
@@ -0,0 +1,61 @@
+package apbiot.core.pems.journal;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event read from the {@link EventJournal} by a {@link JournalReader}.<br/>
+ * The arguments are the decoded values of the arguments of the event: strings, longs, doubles, booleans, durations
+ * and lists of strings. The enums are given by their name and the other objects by their string representation.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class JournalRecord {
+
+	private final long sequence;
+	private final long timestamp;
+	private final String eventType;
+	private final List<Object> arguments;
+
+	JournalRecord(long sequence, long timestamp, String eventType, List<Object> arguments) {
+		this.sequence = sequence;
+		this.timestamp = timestamp;
+		this.eventType = eventType;
+		this.arguments = Collections.unmodifiableList(arguments);
+	}
+
+	/**
+	 * @return the sequence number of the record, increasing for each record of a journal
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	public Instant getTimestamp() {
+		return Instant.ofEpochMilli(timestamp);
+	}
+
+	/**
+	 * @return the fully qualified class name of the event
+	 */
+	public String getEventType() {
+		return eventType;
+	}
+
+	/**
+	 * @return the simple class name of the event
+	 */
+	public String getEventName() {
+		return eventType.substring(Math.max(eventType.lastIndexOf('.'), eventType.lastIndexOf('$')) + 1);
+	}
+
+	public List<Object> getArguments() {
+		return arguments;
+	}
+
+	@Override
+	public String toString() {
+		return getTimestamp()+" #"+sequence+" "+getEventName()+" "+arguments;
+	}
+}
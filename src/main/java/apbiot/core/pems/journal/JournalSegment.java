@@ -0,0 +1,136 @@
+package apbiot.core.pems.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Memory-mapped file holding the records of an {@link EventJournal}.<br/>
+ * The file is mapped entirely when it is created, so writing a record is a copy in memory.
+ * @author 278deco
+ * @since 6.3.0
+ */
+final class JournalSegment {
+
+	private static final Pattern FILE_NAME = Pattern.compile("events-(\\d{16})\\.journal");
+
+	private final long id;
+	private final Path file;
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+
+	private JournalSegment(long id, Path file, FileChannel channel, MappedByteBuffer buffer) {
+		this.id = id;
+		this.file = file;
+		this.channel = channel;
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Create and map a new segment
+	 * @param directory The directory of the journal
+	 * @param id The id of the segment
+	 * @param size The size of the file
+	 * @return the segment, ready to be written
+	 * @throws IOException if the file couldn't be created
+	 */
+	static JournalSegment create(Path directory, long id, int size) throws IOException {
+		final Path file = directory.resolve(fileName(id));
+		final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+			buffer.putInt(JournalCodec.MAGIC);
+			buffer.putShort(JournalCodec.VERSION);
+			buffer.putShort((short)0);
+			buffer.putLong(System.currentTimeMillis());
+			buffer.putLong(id);
+
+			return new JournalSegment(id, file, channel, buffer);
+		}catch(IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the number of bytes left for the records
+	 */
+	int remaining() {
+		//The record length field following the last record must stay readable as a zero
+		return buffer.remaining() - Integer.BYTES;
+	}
+
+	/**
+	 * Append a record to the segment. The length of the record is written last so a reader never sees a partial record
+	 * @param record The encoded record
+	 */
+	void write(ByteBuffer record) {
+		final int position = buffer.position();
+		final int length = record.remaining();
+
+		buffer.put(position + Integer.BYTES, record, record.position() + Integer.BYTES, length - Integer.BYTES);
+		buffer.putInt(position, record.getInt(record.position()));
+		buffer.position(position + length);
+	}
+
+	/**
+	 * Flush the records to the disk and close the file
+	 * @throws IOException
+	 */
+	void close() throws IOException {
+		try {
+			buffer.force();
+		}finally {
+			channel.close();
+		}
+	}
+
+	long getId() {
+		return id;
+	}
+
+	Path getFile() {
+		return file;
+	}
+
+	static String fileName(long id) {
+		return String.format("events-%016d.journal", id);
+	}
+
+	/**
+	 * List the segments of a journal
+	 * @param directory The directory of the journal
+	 * @return the files of the segments, from the oldest to the newest
+	 * @throws IOException
+	 */
+	static List<Path> list(Path directory) throws IOException {
+		final List<Path> segments = new ArrayList<>();
+		if(!Files.isDirectory(directory)) return segments;
+
+		try(Stream<Path> files = Files.list(directory)) {
+			files.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+				.sorted()
+				.forEach(segments::add);
+		}
+		return segments;
+	}
+
+	/**
+	 * @param file The file of a segment
+	 * @return the id of the segment, -1 if the file isn't a segment
+	 */
+	static long idOf(Path file) {
+		final Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+		return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1L;
+	}
+}
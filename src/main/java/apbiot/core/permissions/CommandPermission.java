@@ -1,7 +1,6 @@
 package apbiot.core.permissions;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,13 +16,16 @@ public class CommandPermission {
 		
 		private final Optional<String> permissionErrorMessage;
 		
+		private final CompiledCommandPermission compiled;
+		
 		private CommandPermission(CommandPermission.Builder builder) {
-			this.permissions = builder.permissions;
+			this.permissions = List.copyOf(builder.permissions);
 			this.restrictivePermissions = builder.setRestrictivePermissions;
 			this.isDeveloperCommand = builder.isDeveloperCommand;
 			this.noPermissionRequired = builder.noPermissionRequired;
 			
 			this.permissionErrorMessage = Optional.ofNullable(builder.permissionErrorMessage);
+			this.compiled = new CompiledCommandPermission(this);
 		}
 		
 		public boolean areNoPermissionsRequired() {
@@ -31,7 +33,7 @@ public class CommandPermission {
 		}
 		
 		public List<Permissions> getPermissions() {
-			return Collections.unmodifiableList(this.permissions);
+			return this.permissions;
 		}
 		
 		public Optional<String> getPermissionErrorMessage() {
@@ -45,6 +47,14 @@ public class CommandPermission {
 		public boolean areRestrictivePermissions() {
 			return restrictivePermissions;
 		}
+		
+		/**
+		 * @return the evaluator compiled from these permissions
+		 * @since 6.3.0
+		 */
+		public CompiledCommandPermission getCompiled() {
+			return compiled;
+		}
 
 		public static CommandPermission.Builder builder() {
 			return new CommandPermission.Builder();
@@ -0,0 +1,114 @@
+package apbiot.core.permissions;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.entity.Member;
+import reactor.core.publisher.Mono;
+
+/**
+ * Immutable evaluator compiled from a {@link CommandPermission} when it is built.<br/>
+ * The Discord permissions are merged in a bitmask and the role names are resolved to a sorted array of role ids for each guild,
+ * so a check is a mask AND plus a binary search of the roles of the member.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public final class CompiledCommandPermission {
+
+	private static final long[] NO_ROLES = new long[0];
+
+	private final boolean noPermissionRequired;
+	private final boolean developerCommand;
+	private final boolean restrictive;
+
+	private final long permissionMask;
+	private final String[] roleNames;
+
+	private final ConcurrentHashMap<Snowflake, ResolvedRoles> resolvedRoles = new ConcurrentHashMap<>();
+
+	CompiledCommandPermission(CommandPermission permission) {
+		this.noPermissionRequired = permission.areNoPermissionsRequired();
+		this.developerCommand = permission.isDeveloperCommand();
+		this.restrictive = permission.areRestrictivePermissions();
+
+		long mask = 0;
+		for(Permissions p : permission.getPermissions()) {
+			if(p.isDiscordPermission()) mask |= p.getPermission().getValue();
+		}
+		this.permissionMask = mask;
+		this.roleNames = permission.getPermissions().stream().filter(Permissions::isRolePermission).map(Permissions::getRole).distinct().toArray(String[]::new);
+	}
+
+	/**
+	 * Check if a member can execute the command
+	 * @param member The member
+	 * @param ownerID The id of the bot's owner
+	 * @return a mono emitting if the member has the required permissions
+	 */
+	public Mono<Boolean> test(Member member, Snowflake ownerID) {
+		if(noPermissionRequired) return Mono.just(true);
+		if(developerCommand) return Mono.just(member.getId().equals(ownerID));
+
+		final Mono<MemberPermissions> permissions = MemberPermissionCache.get().getPermissions(member);
+		if(roleNames.length == 0) return permissions.map(p -> test(p, NO_ROLES));
+
+		return Mono.zip(permissions, resolveRoleIds(member)).map(tuple -> test(tuple.getT1(), tuple.getT2()));
+	}
+
+	/**
+	 * Check if a member can execute the command
+	 * @param permissions The permissions of the member
+	 * @param roleIds The sorted ids of the roles named by the command in the guild of the member
+	 * @return if the member has the required permissions
+	 */
+	public boolean test(MemberPermissions permissions, long[] roleIds) {
+		if(noPermissionRequired) return true;
+
+		boolean matches = (permissions.getPermissions().getRawValue() & permissionMask) != 0;
+		for(int i = 0; !matches && i < roleIds.length; i++) {
+			matches = permissions.hasRole(roleIds[i]);
+		}
+
+		//Restrictive permissions forbid the command to the members matching them
+		return restrictive ? !matches : matches;
+	}
+
+	private Mono<long[]> resolveRoleIds(Member member) {
+		return MemberPermissionCache.get().getGuildRoles(member).map(roles -> {
+			final ResolvedRoles resolved = resolvedRoles.get(member.getGuildId());
+			if(resolved != null && resolved.source == roles) return resolved.ids;
+
+			final long[] ids = roles.resolve(roleNames);
+			resolvedRoles.put(member.getGuildId(), new ResolvedRoles(roles, ids));
+			return ids;
+		});
+	}
+
+	public long getPermissionMask() {
+		return permissionMask;
+	}
+
+	public String[] getRoleNames() {
+		return roleNames.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "CompiledCommandPermission [mask="+Long.toHexString(permissionMask)+", roles="+Arrays.toString(roleNames)+", restrictive="+restrictive+"]";
+	}
+
+	/**
+	 * Role ids resolved from a snapshot of the roles of a guild, resolved again when the snapshot is replaced
+	 */
+	private static final class ResolvedRoles {
+
+		private final GuildRoles source;
+		private final long[] ids;
+
+		private ResolvedRoles(GuildRoles source, long[] ids) {
+			this.source = source;
+			this.ids = ids;
+		}
+	}
+}
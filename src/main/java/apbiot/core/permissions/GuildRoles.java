@@ -0,0 +1,54 @@
+package apbiot.core.permissions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import discord4j.core.object.entity.Role;
+
+/**
+ * Immutable index of the roles of a guild by name, used to resolve the roles named in a {@link CommandPermission}
+ * @author 278deco
+ * @see MemberPermissionCache
+ * @since 6.3.0
+ */
+public class GuildRoles {
+
+	private final Map<String, long[]> idsByName;
+
+	GuildRoles(List<Role> roles) {
+		final Map<String, long[]> map = new HashMap<>();
+		for(Role role : roles) {
+			//Several roles can share the same name
+			map.merge(role.getName(), new long[] {role.getId().asLong()}, (a, b) -> {
+				final long[] merged = Arrays.copyOf(a, a.length + b.length);
+				System.arraycopy(b, 0, merged, a.length, b.length);
+				return merged;
+			});
+		}
+
+		this.idsByName = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Resolve role names to role ids
+	 * @param names The names of the roles
+	 * @return the sorted and distinct ids of the roles with one of these names
+	 */
+	public long[] resolve(String[] names) {
+		long[] ids = new long[0];
+		for(String name : names) {
+			final long[] matching = idsByName.get(name);
+			if(matching == null) continue;
+
+			final int length = ids.length;
+			ids = Arrays.copyOf(ids, length + matching.length);
+			System.arraycopy(matching, 0, ids, length, matching.length);
+		}
+
+		Arrays.sort(ids);
+		return Arrays.stream(ids).distinct().toArray();
+	}
+}
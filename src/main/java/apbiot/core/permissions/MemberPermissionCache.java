@@ -0,0 +1,258 @@
+package apbiot.core.permissions;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.event.domain.guild.GuildDeleteEvent;
+import discord4j.core.event.domain.guild.GuildUpdateEvent;
+import discord4j.core.event.domain.guild.MemberLeaveEvent;
+import discord4j.core.event.domain.guild.MemberUpdateEvent;
+import discord4j.core.event.domain.role.RoleCreateEvent;
+import discord4j.core.event.domain.role.RoleDeleteEvent;
+import discord4j.core.event.domain.role.RoleUpdateEvent;
+import discord4j.core.object.entity.Member;
+import discord4j.core.object.entity.Role;
+import discord4j.gateway.intent.Intent;
+import discord4j.gateway.intent.IntentSet;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache of the {@link MemberPermissions} of the members, keyed by guild and member, and of the {@link GuildRoles} of the guilds.<br/>
+ * Entries are invalidated when the gateway notifies an update of the member, of the roles or of the guild,
+ * see {@link #bind(GatewayDiscordClient, IntentSet)}. A time to live is applied in case an update is missed,
+ * it is shortened when the gateway doesn't receive the member updates.
+ * @author 278deco
+ * @since 6.3.0
+ */
+public class MemberPermissionCache {
+
+	private static final Logger LOGGER = LogManager.getLogger(MemberPermissionCache.class);
+
+	private static final Duration EVICTION_INTERVAL = Duration.ofMinutes(1);
+	//Time to live used when the member updates aren't received, the changes of roles are only seen once the entry expires
+	private static final long UNNOTIFIED_TIME_TO_LIVE_SECONDS = 30;
+
+	private static volatile MemberPermissionCache instance;
+
+	private final ConcurrentHashMap<Snowflake, ConcurrentHashMap<Snowflake, MemberPermissions>> guilds = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Snowflake, GuildRoles> guildRoles = new ConcurrentHashMap<>();
+	//Counter of each guild incremented (or removed with the guild) on each invalidation, so a resolution started before it isn't cached
+	//An invalidation doesn't discard the resolutions of the other guilds
+	private final ConcurrentHashMap<Snowflake, AtomicLong> invalidations = new ConcurrentHashMap<>();
+	private volatile long timeToLive = Duration.ofMinutes(5).toNanos();
+	//Subscription to the gateway events, a new binding replaces the previous one
+	private Disposable binding;
+
+	private MemberPermissionCache() { }
+
+	public static MemberPermissionCache get() {
+		if(instance == null) {
+			synchronized (MemberPermissionCache.class) {
+				if(instance == null) instance = new MemberPermissionCache();
+			}
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Get the permissions of a member, resolving them from Discord if they aren't cached or have expired
+	 * @param member The member
+	 * @return a mono emitting the permissions of the member
+	 */
+	public Mono<MemberPermissions> getPermissions(Member member) {
+		return Mono.defer(() -> {
+			final Map<Snowflake, MemberPermissions> members = guilds.get(member.getGuildId());
+			final MemberPermissions cached = members != null ? members.get(member.getId()) : null;
+			if(cached != null && !cached.isExpired(System.nanoTime())) return Mono.just(cached);
+
+			return resolve(member);
+		});
+	}
+
+	private Mono<MemberPermissions> resolve(Member member) {
+		final AtomicLong counter = invalidationCounter(member.getGuildId());
+		final long generation = counter.get();
+		final Mono<Set<String>> roleNames = member.getRoles().map(Role::getName).collect(Collectors.toUnmodifiableSet());
+
+		return Mono.zip(member.getBasePermissions(), roleNames).map(tuple -> {
+			final long[] roleIds = member.getRoleIds().stream().mapToLong(Snowflake::asLong).toArray();
+			final MemberPermissions permissions = new MemberPermissions(tuple.getT1(), roleIds, tuple.getT2(), System.nanoTime() + timeToLive);
+
+			if(isValid(member.getGuildId(), counter, generation)) {
+				guilds.computeIfAbsent(member.getGuildId(), id -> new ConcurrentHashMap<>()).put(member.getId(), permissions);
+			}
+			return permissions;
+		});
+	}
+
+	/**
+	 * Get the roles of the guild of a member, resolving them from Discord if they aren't cached
+	 * @param member The member
+	 * @return a mono emitting the roles of the guild
+	 */
+	public Mono<GuildRoles> getGuildRoles(Member member) {
+		return Mono.defer(() -> {
+			final GuildRoles cached = guildRoles.get(member.getGuildId());
+			if(cached != null) return Mono.just(cached);
+
+			final AtomicLong counter = invalidationCounter(member.getGuildId());
+			final long generation = counter.get();
+			return member.getClient().getGuildRoles(member.getGuildId()).collectList().map(roles -> {
+				final GuildRoles resolved = new GuildRoles(roles);
+				if(isValid(member.getGuildId(), counter, generation)) guildRoles.put(member.getGuildId(), resolved);
+
+				return resolved;
+			});
+		});
+	}
+
+	private AtomicLong invalidationCounter(Snowflake guildId) {
+		return invalidations.computeIfAbsent(guildId, id -> new AtomicLong());
+	}
+
+	/**
+	 * Tells if a guild hasn't been invalidated since a resolution started
+	 * @param guildId The id of the guild
+	 * @param counter The invalidation counter of the guild when the resolution started
+	 * @param generation The value of the counter when the resolution started
+	 * @return if the result of the resolution can be cached
+	 */
+	private boolean isValid(Snowflake guildId, AtomicLong counter, long generation) {
+		//The counter is removed with the guild, a new one is created by the next resolution
+		return invalidations.get(guildId) == counter && counter.get() == generation;
+	}
+
+	private void incrementInvalidations(Snowflake guildId) {
+		final AtomicLong counter = invalidations.get(guildId);
+		if(counter != null) counter.incrementAndGet();
+	}
+
+	/**
+	 * Subscribe to the events of the gateway invalidating the cached permissions.<br/>
+	 * Without the {@link Intent#GUILD_MEMBERS} intent, the updates of the members aren't received: a warning is logged
+	 * and the time to live of the entries is shortened to {@value #UNNOTIFIED_TIME_TO_LIVE_SECONDS} seconds
+	 * @param gateway The gateway of the client
+	 * @param intents The intents enabled on the gateway
+	 * @return the subscription, disposed by {@link #unbind()} or when the cache is bound to another gateway
+	 */
+	public Disposable bind(GatewayDiscordClient gateway, IntentSet intents) {
+		if(!intents.contains(Intent.GUILD_MEMBERS)) {
+			LOGGER.warn("The GUILD_MEMBERS intent isn't enabled, the roles of the members are only refreshed every {} seconds", UNNOTIFIED_TIME_TO_LIVE_SECONDS);
+			this.timeToLive = Math.min(this.timeToLive, TimeUnit.SECONDS.toNanos(UNNOTIFIED_TIME_TO_LIVE_SECONDS));
+		}
+
+		return bind(gateway);
+	}
+
+	/**
+	 * Subscribe to the events of the gateway invalidating the cached permissions.<br/>
+	 * The cache is bound to a single gateway, the subscription to the previous gateway is disposed
+	 * @param gateway The gateway of the client
+	 * @return the subscription, disposed by {@link #unbind()} or when the cache is bound to another gateway
+	 * @see #bind(GatewayDiscordClient, IntentSet)
+	 */
+	public synchronized Disposable bind(GatewayDiscordClient gateway) {
+		if(this.binding != null) this.binding.dispose();
+
+		this.binding = Flux.merge(
+				gateway.on(MemberUpdateEvent.class).doOnNext(event -> invalidate(event.getGuildId(), event.getMemberId())),
+				gateway.on(MemberLeaveEvent.class).doOnNext(event -> invalidate(event.getGuildId(), event.getUser().getId())),
+				//A role's permissions or name changed, every member of the guild may be affected
+				gateway.on(RoleUpdateEvent.class).doOnNext(event -> invalidateGuild(event.getCurrent().getGuildId())),
+				gateway.on(RoleDeleteEvent.class).doOnNext(event -> invalidateGuild(event.getGuildId())),
+				gateway.on(RoleCreateEvent.class).doOnNext(event -> invalidateGuildRoles(event.getGuildId())),
+				gateway.on(GuildUpdateEvent.class).doOnNext(event -> invalidateGuild(event.getCurrent().getId())),
+				gateway.on(GuildDeleteEvent.class).doOnNext(event -> invalidateGuild(event.getGuildId())),
+				Flux.interval(EVICTION_INTERVAL).doOnNext(tick -> evictExpired()))
+			.subscribe();
+
+		return this.binding;
+	}
+
+	/**
+	 * Stop listening to the events of the gateway, the cached permissions are kept until they expire
+	 */
+	public synchronized void unbind() {
+		if(this.binding != null) {
+			this.binding.dispose();
+			this.binding = null;
+		}
+	}
+
+	/**
+	 * Remove the entries past their time to live, which are otherwise only replaced when the member runs a command again
+	 */
+	public void evictExpired() {
+		final long now = System.nanoTime();
+		guilds.values().forEach(members -> members.values().removeIf(permissions -> permissions.isExpired(now)));
+		guilds.values().removeIf(Map::isEmpty);
+	}
+
+	/**
+	 * Remove the cached permissions of a member
+	 * @param guildId The id of the guild
+	 * @param memberId The id of the member
+	 */
+	public void invalidate(Snowflake guildId, Snowflake memberId) {
+		incrementInvalidations(guildId);
+		final Map<Snowflake, MemberPermissions> members = guilds.get(guildId);
+		if(members != null) members.remove(memberId);
+	}
+
+	/**
+	 * Remove the cached permissions of every member of a guild
+	 * @param guildId The id of the guild
+	 */
+	public void invalidateGuild(Snowflake guildId) {
+		invalidations.remove(guildId);
+		guilds.remove(guildId);
+		guildRoles.remove(guildId);
+	}
+
+	/**
+	 * Remove the cached roles of a guild, the permissions of its members are kept
+	 * @param guildId The id of the guild
+	 */
+	public void invalidateGuildRoles(Snowflake guildId) {
+		incrementInvalidations(guildId);
+		guildRoles.remove(guildId);
+	}
+
+	/**
+	 * Remove every cached permissions
+	 */
+	public void clear() {
+		invalidations.clear();
+		guilds.clear();
+		guildRoles.clear();
+	}
+
+	/**
+	 * Set the time after which cached permissions are resolved again even if no update has been received
+	 * @param timeToLive The time to live of the entries
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		if(timeToLive.isNegative()) throw new IllegalArgumentException("Time to live cannot be negative");
+		this.timeToLive = timeToLive.toNanos();
+	}
+
+	/**
+	 * @return the number of members cached
+	 */
+	public int size() {
+		return guilds.values().stream().mapToInt(Map::size).sum();
+	}
+}
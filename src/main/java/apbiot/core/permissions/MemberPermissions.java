@@ -0,0 +1,90 @@
+package apbiot.core.permissions;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+import discord4j.common.util.Snowflake;
+import discord4j.rest.util.Permission;
+import discord4j.rest.util.PermissionSet;
+
+/**
+ * Immutable snapshot of the permissions and roles of a member in a guild
+ * @author 278deco
+ * @see MemberPermissionCache
+ * @since 6.3.0
+ */
+public class MemberPermissions {
+
+	private final PermissionSet permissions;
+	private final long[] roleIds;
+	private final Set<String> roleNames;
+	private final long expiresAt;
+
+	MemberPermissions(PermissionSet permissions, long[] roleIds, Set<String> roleNames, long expiresAt) {
+		this.permissions = permissions;
+		this.roleIds = roleIds;
+		this.roleNames = roleNames;
+		this.expiresAt = expiresAt;
+
+		Arrays.sort(this.roleIds);
+	}
+
+	public PermissionSet getPermissions() {
+		return permissions;
+	}
+
+	public boolean hasPermission(Permission permission) {
+		return permissions.contains(permission);
+	}
+
+	/**
+	 * Check if the member has a role
+	 * @param roleId The id of the role
+	 * @return if the member has the role
+	 */
+	public boolean hasRole(long roleId) {
+		return Arrays.binarySearch(roleIds, roleId) >= 0;
+	}
+
+	public boolean hasRole(Snowflake roleId) {
+		return hasRole(roleId.asLong());
+	}
+
+	/**
+	 * Check if the member has a role with this name
+	 * @param roleName The name of the role
+	 * @return if the member has the role
+	 */
+	public boolean hasRoleNamed(String roleName) {
+		return roleNames.contains(roleName);
+	}
+
+	/**
+	 * Check if the member has at least one role with one of these names
+	 * @param names The names of the roles
+	 * @return if the member has one of the roles
+	 */
+	public boolean hasAnyRoleNamed(Collection<String> names) {
+		for(String name : names) {
+			if(roleNames.contains(name)) return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return a copy of the sorted ids of the roles of the member
+	 */
+	public long[] getRoleIds() {
+		return roleIds.clone();
+	}
+
+	public Set<String> getRoleNames() {
+		return roleNames;
+	}
+
+	boolean isExpired(long now) {
+		return expiresAt - now <= 0;
+	}
+}